@@ -0,0 +1,98 @@
+package com.josk.venom.products.benchmark;
+
+import com.josk.venom.products.filter.CachingJwtAuthenticationFilter;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of bearer authentication: a cache hit in the filter, a full parse and HMAC
+ * verification, and an anonymous request as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthBenchmark {
+    private CachingJwtAuthenticationFilter filter;
+    private JwtDecoder jwtDecoder;
+    private JwtAuthenticationConverter authenticationConverter;
+    private String token;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() throws Exception {
+        SecretKey key = new SecretKeySpec("benchmark-secret-for-hmac-sha256-signatures".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        jwtDecoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        authenticationConverter = new JwtAuthenticationConverter();
+        filter = new CachingJwtAuthenticationFilter(jwtDecoder, authenticationConverter,
+                new BearerTokenAuthenticationEntryPoint(), 10_000, Duration.ofHours(1));
+
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("benchmark")
+                .claim("scope", "products:read products:write")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(Duration.ofHours(1)))
+                .build();
+        token = new NimbusJwtEncoder(new ImmutableSecret<>(key))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/v1/products");
+        authenticatedRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/v1/products");
+        response = new MockHttpServletResponse();
+        chain = (request, response) -> SecurityContextHolder.clearContext();
+        filter.doFilter(authenticatedRequest, response, chain);
+    }
+
+    @Benchmark
+    public void cachedToken() throws Exception {
+        filter.doFilter(authenticatedRequest, response, chain);
+    }
+
+    @Benchmark
+    public void anonymous() throws Exception {
+        filter.doFilter(anonymousRequest, response, chain);
+    }
+
+    @Benchmark
+    public void verifyToken(Blackhole blackhole) {
+        blackhole.consume(authenticationConverter.convert(jwtDecoder.decode(token)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.josk.venom.products.benchmark;
+
+import com.josk.venom.products.VenomApplication;
+import com.josk.venom.products.model.Product;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Starts the application against the PostgreSQL database given with -Dspring.datasource.url, or against a
+ * PostgreSQL container started once per forked JVM.
+ */
+final class BenchmarkContext {
+    private static PostgreSQLContainer<?> postgres;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(VenomApplication.class)
+                .profiles("postgres")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "eureka.client.enabled=false",
+                        "logging.level.root=WARN")
+                .run(datasource());
+    }
+
+    static Product sampleProduct(String name) {
+        return Product.builder()
+                .name(name)
+                .description("Benchmark product used to measure the product read and write paths")
+                .price(99.99)
+                .stock(100)
+                .build();
+    }
+
+    private static synchronized String[] datasource() {
+        if (System.getProperty("spring.datasource.url") != null) {
+            return new String[0];
+        }
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+        }
+        return new String[]{
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword()
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.josk.venom.products.benchmark;
+
+import com.josk.venom.products.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductControllerBenchmark {
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private Long productId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        ProductService productService = context.getBean(ProductService.class);
+        for (int i = 0; i < 100; i++) {
+            productId = productService.createProduct(BenchmarkContext.sampleProduct("Product " + i)).id();
+        }
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getProductById() throws Exception {
+        return mockMvc.perform(get("/api/v1/products/{id}", productId)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult listProducts() throws Exception {
+        return mockMvc.perform(get("/api/v1/products").param("size", "20")).andReturn();
+    }
+}
@@ -0,0 +1,76 @@
+package com.josk.venom.products.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.josk.venom.products.dto.ProductPage;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductJsonBenchmark {
+    private ObjectMapper objectMapper;
+    private ProductResponse product;
+    private ProductPage<ProductResponse> page;
+    private byte[] productJson;
+
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+        Product entity = BenchmarkContext.sampleProduct("Benchmark Product");
+        entity.setId(42L);
+        entity.setCreatedAt(LocalDateTime.now());
+        entity.setUpdatedAt(LocalDateTime.now());
+        product = ProductResponse.from(entity);
+
+        List<ProductResponse> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(product);
+        }
+        page = new ProductPage<>(items, "AAAAAAAAAGQ");
+        productJson = objectMapper.writeValueAsBytes(entity);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws Exception {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public Product deserializeProduct() throws Exception {
+        return objectMapper.readValue(productJson, Product.class);
+    }
+
+    @Benchmark
+    public byte[] serializePageOf100() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,74 @@
+package com.josk.venom.products.benchmark;
+
+import com.josk.venom.products.configuration.CacheConfig;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Cache productCache;
+    private ProductResponse product;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        productService = context.getBean(ProductService.class);
+        productCache = context.getBean(CacheManager.class).getCache(CacheConfig.PRODUCTS_CACHE);
+        product = productService.createProduct(BenchmarkContext.sampleProduct("Benchmark Product"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductResponse getProductCached() {
+        return productService.getProductById(product.id());
+    }
+
+    @Benchmark
+    public ProductResponse getProductUncached() {
+        productCache.evict(product.id());
+        return productService.getProductById(product.id());
+    }
+
+    @Benchmark
+    public ProductResponse createProduct() {
+        return productService.createProduct(BenchmarkContext.sampleProduct("Created Product"));
+    }
+
+    @Benchmark
+    public void createAndDeleteProduct() {
+        ProductResponse created = productService.createProduct(BenchmarkContext.sampleProduct("Deleted Product"));
+        productService.deleteProduct(created.id());
+    }
+
+    @Benchmark
+    public ProductResponse updateProduct() {
+        return productService.updateProduct(product.id(), BenchmarkContext.sampleProduct("Updated Product"));
+    }
+}
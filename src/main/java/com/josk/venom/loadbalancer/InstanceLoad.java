@@ -0,0 +1,64 @@
+package com.josk.venom.loadbalancer;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Load signals an instance publishes in its Eureka metadata. The cache hit ratio is NaN until the products
+ * cache has been read.
+ */
+public record InstanceLoad(int inFlight, double p99Millis, double poolSaturation, double cacheHitRatio, long updatedAt) {
+    static final String IN_FLIGHT = "load.in-flight";
+    static final String P99_MILLIS = "load.p99-ms";
+    static final String POOL_SATURATION = "load.pool-saturation";
+    static final String CACHE_HIT_RATIO = "load.cache-hit-ratio";
+    static final String UPDATED_AT = "load.updated-at";
+
+    private static final double MAX_SATURATION = 0.95;
+
+    public Map<String, String> toMetadata() {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put(IN_FLIGHT, Integer.toString(inFlight));
+        metadata.put(P99_MILLIS, Long.toString(Math.round(p99Millis)));
+        metadata.put(POOL_SATURATION, format(poolSaturation));
+        if (!Double.isNaN(cacheHitRatio)) {
+            metadata.put(CACHE_HIT_RATIO, format(cacheHitRatio));
+        }
+        metadata.put(UPDATED_AT, Long.toString(updatedAt));
+        return metadata;
+    }
+
+    /**
+     * Load published in the metadata, or empty if the instance does not publish any.
+     */
+    public static Optional<InstanceLoad> fromMetadata(Map<String, String> metadata) {
+        if (metadata == null || !metadata.containsKey(IN_FLIGHT) || !metadata.containsKey(UPDATED_AT)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new InstanceLoad(
+                    Integer.parseInt(metadata.get(IN_FLIGHT)),
+                    Double.parseDouble(metadata.getOrDefault(P99_MILLIS, "0")),
+                    Double.parseDouble(metadata.getOrDefault(POOL_SATURATION, "0")),
+                    Double.parseDouble(metadata.getOrDefault(CACHE_HIT_RATIO, "NaN")),
+                    Long.parseLong(metadata.get(UPDATED_AT))));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Rough wait of a new request: everything in flight drains at the tail latency, stretched by waiting for a
+     * connection as the pool fills up. Lower is better.
+     */
+    public double score() {
+        double connectionWait = 1 / (1 - Math.min(Math.max(poolSaturation, 0), MAX_SATURATION));
+        return (inFlight + 1) * Math.max(p99Millis, 1) * connectionWait;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
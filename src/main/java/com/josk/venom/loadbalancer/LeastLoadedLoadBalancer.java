@@ -0,0 +1,76 @@
+package com.josk.venom.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Picks two instances at random and sends the request to the one with the lower published load. Comparing
+ * a random pair instead of taking the global minimum keeps callers that see the same, slightly stale
+ * metadata from all piling onto one instance. Instances without fresh load metadata are compared at random.
+ */
+public class LeastLoadedLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSuppliers;
+    private final Duration staleAfter;
+    private final LongSupplier clock;
+
+    public LeastLoadedLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSuppliers,
+                                   Duration staleAfter) {
+        this(serviceInstanceListSuppliers, staleAfter, System::currentTimeMillis);
+    }
+
+    LeastLoadedLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSuppliers,
+                            Duration staleAfter, LongSupplier clock) {
+        this.serviceInstanceListSuppliers = serviceInstanceListSuppliers;
+        this.staleAfter = staleAfter;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSuppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        Optional<InstanceLoad> loadA = load(a);
+        Optional<InstanceLoad> loadB = load(b);
+        if (loadA.isEmpty() || loadB.isEmpty()) {
+            return new DefaultResponse(a);
+        }
+        return new DefaultResponse(loadB.get().score() < loadA.get().score() ? b : a);
+    }
+
+    private Optional<InstanceLoad> load(ServiceInstance instance) {
+        long now = clock.getAsLong();
+        return InstanceLoad.fromMetadata(instance.getMetadata())
+                .filter(load -> now - load.updatedAt() <= staleAfter.toMillis());
+    }
+}
@@ -0,0 +1,24 @@
+package com.josk.venom.loadbalancer;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+
+/**
+ * For services calling the product service: sends their {@code @LoadBalanced} calls to the less loaded of two
+ * random instances, judged by the load each instance publishes in its Eureka metadata. Ships in the
+ * {@code client} jar, outside the product service's component scan, and is off until
+ * products.load-balancing.client.enabled is set.
+ */
+@AutoConfiguration
+@ConditionalOnClass(LoadBalancerClientFactory.class)
+@ConditionalOnProperty(prefix = "products.load-balancing.client", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(LeastLoadedLoadBalancerProperties.class)
+@LoadBalancerClient(name = LeastLoadedLoadBalancerAutoConfiguration.PRODUCT_SERVICE,
+        configuration = LeastLoadedLoadBalancerConfiguration.class)
+public class LeastLoadedLoadBalancerAutoConfiguration {
+    public static final String PRODUCT_SERVICE = "venom_product_service";
+}
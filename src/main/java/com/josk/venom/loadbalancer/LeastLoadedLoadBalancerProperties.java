@@ -0,0 +1,15 @@
+package com.josk.venom.loadbalancer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.load-balancing.client")
+public class LeastLoadedLoadBalancerProperties {
+    private boolean enabled = false;
+    private Duration staleAfter = Duration.ofSeconds(90);
+}
@@ -0,0 +1,16 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.auth")
+public class AuthProperties {
+    private boolean publicReads = true;
+    private long tokenCacheSize = 10_000;
+    private Duration maxTokenCacheTtl = Duration.ofHours(1);
+}
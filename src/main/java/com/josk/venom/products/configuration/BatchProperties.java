@@ -0,0 +1,13 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.batch")
+public class BatchProperties {
+    private int maxItems = 10000;
+    private int flushSize = 500;
+}
@@ -0,0 +1,21 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.changes")
+public class ChangeFeedProperties {
+    private int defaultLimit = 500;
+    private int maxLimit = 5000;
+    private Duration maxWait = Duration.ofSeconds(60);
+    private Duration pollInterval = Duration.ofSeconds(1);
+    private Duration sseTimeout = Duration.ofMinutes(30);
+    private Duration retention = Duration.ofDays(7);
+    private Duration purgeInterval = Duration.ofHours(1);
+    private boolean lagEnabled = true;
+}
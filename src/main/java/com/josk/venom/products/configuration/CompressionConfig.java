@@ -0,0 +1,24 @@
+package com.josk.venom.products.configuration;
+
+import com.josk.venom.products.filter.CompressionFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(prefix = "products.compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilter(CompressionProperties compressionProperties) {
+        FilterRegistrationBean<CompressionFilter> registration = new FilterRegistrationBean<>(new CompressionFilter(
+                (int) compressionProperties.getMinResponseSize().toBytes(),
+                compressionProperties.getMimeTypes(),
+                compressionProperties.getZstdLevel()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
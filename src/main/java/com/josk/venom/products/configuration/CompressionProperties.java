@@ -0,0 +1,19 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.compression")
+public class CompressionProperties {
+    private boolean enabled = true;
+    private DataSize minResponseSize = DataSize.ofKilobytes(2);
+    private List<String> mimeTypes = List.of("application/json", "application/*+json", "application/x-ndjson",
+            "application/cbor", "application/x-jackson-smile", "text/plain", "text/csv");
+    private int zstdLevel = 3;
+}
@@ -0,0 +1,15 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.execution")
+public class ExecutionProperties {
+    private int maxConcurrentRequests = 40;
+    private Duration queueTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,14 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.listing")
+public class ListingProperties {
+    private int defaultPageSize = 100;
+    private int maxPageSize = 1000;
+    private int streamFetchSize = 500;
+}
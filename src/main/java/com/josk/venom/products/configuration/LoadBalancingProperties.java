@@ -0,0 +1,15 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.load-balancing")
+public class LoadBalancingProperties {
+    private boolean enabled = true;
+    private Duration publishInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,30 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.lookup")
+public class LookupProperties {
+    private boolean batchingEnabled = true;
+    private Duration window = Duration.ofMillis(2);
+    private int maxBatchSize = 100;
+    private int maxIds = 1000;
+    private ExistenceFilter existenceFilter = new ExistenceFilter();
+
+    @Getter
+    @Setter
+    public static class ExistenceFilter {
+        private boolean enabled = false;
+        private long expectedProducts = 1_000_000;
+        private double falsePositiveRate = 0.01;
+        private Duration syncInterval = Duration.ofSeconds(1);
+        private Duration rebuildInterval = Duration.ofHours(1);
+        private Duration negativeCacheTtl = Duration.ofSeconds(5);
+        private long negativeCacheSize = 100_000;
+    }
+}
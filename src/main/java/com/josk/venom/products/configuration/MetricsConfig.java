@@ -0,0 +1,63 @@
+package com.josk.venom.products.configuration;
+
+import com.josk.venom.products.metrics.StatementCountFilter;
+import com.josk.venom.products.metrics.StatementCountingDataSource;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Statement counts and Hibernate statistics wrap every connection and statement, so they are meant for
+     * development and load tests rather than production.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "products.metrics.query-statistics", name = "enabled", havingValue = "true")
+    static class QueryStatisticsConfig {
+
+        @Bean
+        public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+            return registry -> new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "products", Tags.empty())
+                    .bindTo(registry);
+        }
+
+        @Bean
+        public FilterRegistrationBean<StatementCountFilter> statementCountFilter(MeterRegistry meterRegistry) {
+            FilterRegistrationBean<StatementCountFilter> registration = new FilterRegistrationBean<>(new StatementCountFilter(meterRegistry));
+            registration.addUrlPatterns("/api/*");
+            return registration;
+        }
+
+        @Bean
+        public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                            && !(bean instanceof StatementCountingDataSource)) {
+                        return new StatementCountingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.josk.venom.products.configuration;
+
+import com.josk.venom.products.filter.AdmissionControlFilter;
+import com.josk.venom.products.ratelimit.AdaptiveConcurrencyLimiter;
+import com.josk.venom.products.ratelimit.ClientRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "products.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public ClientRateLimiter clientRateLimiter(RateLimitProperties rateLimitProperties) {
+        return new ClientRateLimiter(rateLimitProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "products.rate-limit.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(rateLimitProperties.getConcurrency(), meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(ClientRateLimiter clientRateLimiter,
+                                                                                  ObjectProvider<AdaptiveConcurrencyLimiter> adaptiveConcurrencyLimiter,
+                                                                                  MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(clientRateLimiter, adaptiveConcurrencyLimiter.getIfAvailable(), meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
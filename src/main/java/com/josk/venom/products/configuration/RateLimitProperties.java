@@ -0,0 +1,58 @@
+package com.josk.venom.products.configuration;
+
+import com.josk.venom.products.ratelimit.EndpointClass;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Map<EndpointClass, Bucket> endpoints = defaultEndpoints();
+    private long maxClients = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Concurrency concurrency = new Concurrency();
+
+    @Getter
+    @Setter
+    public static class Bucket {
+        private double permitsPerSecond;
+        private int burst;
+
+        public Bucket() {
+        }
+
+        public Bucket(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 100;
+        private int minLimit = 10;
+        private int maxLimit = 400;
+        private double backoffRatio = 0.9;
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private Duration poolWaitThreshold = Duration.ofMillis(100);
+        private Duration adjustInterval = Duration.ofSeconds(1);
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    private static Map<EndpointClass, Bucket> defaultEndpoints() {
+        Map<EndpointClass, Bucket> endpoints = new EnumMap<>(EndpointClass.class);
+        endpoints.put(EndpointClass.LIST, new Bucket(20, 40));
+        endpoints.put(EndpointClass.READ, new Bucket(200, 400));
+        endpoints.put(EndpointClass.WRITE, new Bucket(50, 100));
+        return endpoints;
+    }
+}
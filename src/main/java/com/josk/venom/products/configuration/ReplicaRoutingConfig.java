@@ -0,0 +1,88 @@
+package com.josk.venom.products.configuration;
+
+import com.josk.venom.products.datasource.ReplicaHealthMonitor;
+import com.josk.venom.products.datasource.ReplicaNode;
+import com.josk.venom.products.datasource.ReplicaRoutingDataSource;
+import com.josk.venom.products.filter.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends connections of read-only transactions to replicas. The primary data source is wrapped in a
+ * LazyConnectionDataSourceProxy, which only fetches a physical connection once the transaction has
+ * marked it read-only, and then takes it from the replica routing data source instead.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "products.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    public ReplicaRoutingConfig(ReplicaProperties replicaProperties) {
+        if (replicaProperties.getUrls().isEmpty()) {
+            throw new IllegalStateException("products.replicas.urls must list at least one replica");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public List<ReplicaNode> replicaNodes(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties) {
+        List<ReplicaNode> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getUrls().size(); i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replicaProperties.getUrls().get(i));
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setUsername(replicaProperties.getUsername() != null
+                    ? replicaProperties.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replicaProperties.getPassword() != null
+                    ? replicaProperties.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(new ReplicaNode("replica-" + i, dataSource));
+        }
+        return replicas;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, List<ReplicaNode> replicaNodes,
+                                                             ReplicaProperties replicaProperties) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaNodes,
+                replicaProperties.getMaxLag(), replicaProperties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicasHealthIndicator(HikariDataSource primaryDataSource, List<ReplicaNode> replicaNodes) {
+        return new ReplicaHealthMonitor(primaryDataSource, replicaNodes);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties replicaProperties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(replicaProperties.getReadYourWritesWindow()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
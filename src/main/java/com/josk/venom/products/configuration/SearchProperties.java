@@ -0,0 +1,14 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.search")
+public class SearchProperties {
+    private int defaultPageSize = 20;
+    private int maxPageSize = 100;
+    private int maxOffset = 10000;
+}
@@ -0,0 +1,93 @@
+package com.josk.venom.products.configuration;
+
+import com.josk.venom.products.filter.CachingJwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
+import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.context.NullSecurityContextRepository;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+    private static final String PRODUCTS = "/api/v1/products/**";
+
+    @Bean
+    public JwtDecoder jwtDecoder(@Value("${jwt.secret}") String secret) {
+        return NimbusJwtDecoder.withSecretKey(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+    }
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain productsSecurityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder,
+                                                           AuthProperties authProperties) throws Exception {
+        return bearerTokens(http.securityMatcher(antMatcher(PRODUCTS)), jwtDecoder, authProperties)
+                .authorizeHttpRequests(requests -> {
+                    if (authProperties.isPublicReads()) {
+                        requests.requestMatchers(antMatcher(HttpMethod.GET, PRODUCTS), antMatcher(HttpMethod.HEAD, PRODUCTS))
+                                .permitAll();
+                    }
+                    requests.anyRequest().authenticated();
+                })
+                .build();
+    }
+
+    /**
+     * Everything outside the product API, including the actuator and the API docs, needs a token; only
+     * health, info and error pages stay open.
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder,
+                                                          AuthProperties authProperties) throws Exception {
+        return bearerTokens(http, jwtDecoder, authProperties)
+                .authorizeHttpRequests(requests -> requests
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
+                        .requestMatchers(antMatcher(HttpMethod.GET, "/actuator/health/**"),
+                                antMatcher(HttpMethod.GET, "/actuator/info"), antMatcher("/error"))
+                        .permitAll()
+                        .anyRequest().authenticated())
+                .build();
+    }
+
+    private static HttpSecurity bearerTokens(HttpSecurity http, JwtDecoder jwtDecoder, AuthProperties authProperties)
+            throws Exception {
+        BearerTokenAuthenticationEntryPoint authenticationEntryPoint = new BearerTokenAuthenticationEntryPoint();
+        CachingJwtAuthenticationFilter jwtAuthenticationFilter = new CachingJwtAuthenticationFilter(jwtDecoder,
+                new JwtAuthenticationConverter(), authenticationEntryPoint,
+                authProperties.getTokenCacheSize(), authProperties.getMaxTokenCacheTtl());
+
+        return http.csrf(AbstractHttpConfigurer::disable)
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(context -> context.securityContextRepository(new NullSecurityContextRepository()))
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(authenticationEntryPoint)
+                        .accessDeniedHandler(new BearerTokenAccessDeniedHandler()))
+                .addFilterBefore(jwtAuthenticationFilter, AnonymousAuthenticationFilter.class);
+    }
+}
@@ -0,0 +1,102 @@
+package com.josk.venom.products.configuration;
+
+import com.josk.venom.products.datasource.ShardRoutingDataSource;
+import com.josk.venom.products.datasource.SnowflakeIdGenerator;
+import com.josk.venom.products.model.ProductIdGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Spreads products over the databases listed in products.sharding.shards. Every shard gets its own
+ * connection pool and Flyway migrations, and the primary data source hands out connections of the shard
+ * selected for the current thread. Product ids come from a {@link SnowflakeIdGenerator} instead of the
+ * per-database sequence, so they stay unique across shards.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "products.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    public ShardingConfig(ShardingProperties shardingProperties, ReplicaProperties replicaProperties,
+                          SnapshotProperties snapshotProperties, LookupProperties lookupProperties,
+                          StockProperties stockProperties) {
+        if (shardingProperties.getShards().isEmpty()) {
+            throw new IllegalStateException("products.sharding.shards must list at least one shard");
+        }
+        Set<String> names = new HashSet<>();
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            if (shard.getName() == null || !names.add(shard.getName())) {
+                throw new IllegalStateException("Every shard needs a unique name");
+            }
+        }
+        // two instances sharing a worker id would hand out the same product ids
+        if (shardingProperties.getWorkerId() == null) {
+            throw new IllegalStateException("products.sharding.worker-id must be set to an id unique to this instance");
+        }
+        if (!names.containsAll(shardingProperties.getPreviousShards())) {
+            throw new IllegalStateException("products.sharding.previous-shards must only name configured shards");
+        }
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            if (shard.isRetired() && !shardingProperties.getPreviousShards().contains(shard.getName())) {
+                throw new IllegalStateException("Retired shard " + shard.getName() + " must be listed in products.sharding.previous-shards");
+            }
+        }
+        // these features follow the change feed or a queue of a single database
+        if (replicaProperties.isEnabled() || snapshotProperties.isEnabled()
+                || lookupProperties.getExistenceFilter().isEnabled() || stockProperties.getWriteBehind().isEnabled()) {
+            throw new IllegalStateException("Sharding cannot be combined with read replicas, the catalog snapshot, "
+                    + "the existence filter or write-behind stock adjustments");
+        }
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                         ShardingProperties shardingProperties) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard.getName());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setUsername(shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(shardingProperties.getMaximumPoolSize());
+            shards.put(shard.getName(), dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return shardRoutingDataSource;
+    }
+
+    @Bean
+    public SnowflakeIdGenerator productIdSource(ShardingProperties shardingProperties) {
+        return new SnowflakeIdGenerator(shardingProperties.getWorkerId());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer productIdSourceCustomizer(SnowflakeIdGenerator productIdSource) {
+        return properties -> properties.put(ProductIdGenerator.ID_SOURCE, productIdSource);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> shardRoutingDataSource.getShards().values().forEach(shard ->
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate());
+    }
+}
@@ -0,0 +1,33 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+    private List<Shard> shards = new ArrayList<>();
+    private List<String> previousShards = new ArrayList<>();
+    private int virtualNodes = 128;
+    private Integer workerId;
+    private int maximumPoolSize = 20;
+    private Duration reshardInterval = Duration.ofSeconds(1);
+    private int reshardBatchSize = 1000;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private boolean retired = false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.snapshot")
+public class SnapshotProperties {
+    private boolean enabled = false;
+    private Path file = Path.of("data", "products.snapshot");
+    private Duration refreshInterval = Duration.ofSeconds(1);
+    private int compactThreshold = 10_000;
+}
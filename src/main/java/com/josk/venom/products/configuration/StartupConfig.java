@@ -0,0 +1,27 @@
+package com.josk.venom.products.configuration;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * With {@code spring.main.lazy-initialization} enabled (the prod profile) only the API documentation is deferred
+     * to its first request. Everything on the request path, and every scheduled job, is still created at startup.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerUnlessApiDocumentation() {
+        return (beanName, beanDefinition, beanType) -> !isApiDocumentation(beanType);
+    }
+
+    private static boolean isApiDocumentation(Class<?> beanType) {
+        if (beanType == null) {
+            return false;
+        }
+        String name = beanType.getName();
+        return name.startsWith("org.springdoc.") || OpenAPI.class.isAssignableFrom(beanType);
+    }
+}
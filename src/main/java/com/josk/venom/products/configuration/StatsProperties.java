@@ -0,0 +1,12 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.stats")
+public class StatsProperties {
+    private String reconcileCron = "0 30 * * * *";
+}
@@ -0,0 +1,28 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.stock")
+public class StockProperties {
+    private boolean combiningEnabled = true;
+    private int maxCombinedRequests = 256;
+    private int maxDelta = 1_000_000;
+    private WriteBehind writeBehind = new WriteBehind();
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+        private boolean enabled = false;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        private int batchSize = 10_000;
+        private long maxPending = 100_000;
+        private Duration retryAfter = Duration.ofSeconds(1);
+        private Duration maxWait = Duration.ofSeconds(60);
+    }
+}
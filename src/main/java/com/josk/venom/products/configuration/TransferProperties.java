@@ -0,0 +1,13 @@
+package com.josk.venom.products.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "products.transfer")
+public class TransferProperties {
+    private int chunkSize = 10_000;
+    private int maxReportedErrors = 100;
+}
@@ -0,0 +1,29 @@
+package com.josk.venom.products.configuration;
+
+import com.josk.venom.products.filter.ConcurrencyLimitFilter;
+import com.josk.venom.products.ratelimit.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    /**
+     * The fixed bulkhead only guards virtual threads when admission control has no adaptive limit; with
+     * both in place the adaptive limit would be capped by the fixed one and never learn the real capacity.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ExecutionProperties executionProperties,
+                                                                                 ObjectProvider<AdaptiveConcurrencyLimiter> adaptiveConcurrencyLimiter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(executionProperties.getMaxConcurrentRequests(), executionProperties.getQueueTimeout()));
+        registration.addUrlPatterns("/api/*");
+        registration.setEnabled(adaptiveConcurrencyLimiter.getIfAvailable() == null);
+        return registration;
+    }
+}
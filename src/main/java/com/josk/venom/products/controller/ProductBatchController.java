@@ -0,0 +1,36 @@
+package com.josk.venom.products.controller;
+
+import com.josk.venom.products.dto.BatchResult;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.service.ProductBatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/products/batch")
+public class ProductBatchController {
+    private final ProductBatchService productBatchService;
+
+    @PostMapping
+    public BatchResult createProducts(@RequestBody List<Product> products) {
+        return productBatchService.createProducts(products);
+    }
+
+    @PutMapping
+    public BatchResult updateProducts(@RequestBody List<Product> products) {
+        return productBatchService.updateProducts(products);
+    }
+
+    @DeleteMapping
+    public BatchResult deleteProducts(@RequestBody List<Long> ids) {
+        return productBatchService.deleteProducts(ids);
+    }
+}
@@ -0,0 +1,43 @@
+package com.josk.venom.products.controller;
+
+import com.josk.venom.products.dto.ProductChangePage;
+import com.josk.venom.products.service.ProductChangeService;
+import com.josk.venom.products.service.ProductChangeSubscriptions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/products/changes")
+public class ProductChangeController {
+    private final ProductChangeService productChangeService;
+    private final ProductChangeSubscriptions productChangeSubscriptions;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ProductChangePage getChanges(@RequestParam(required = false) String since,
+                                        @RequestParam(required = false) Integer limit) {
+        return productChangeService.getChanges(since, limit);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE, params = "wait")
+    public DeferredResult<ProductChangePage> awaitChanges(@RequestParam(required = false) String since,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam int wait) {
+        return productChangeSubscriptions.await(since, limit, Duration.ofSeconds(Math.max(wait, 0)));
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) String since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return productChangeSubscriptions.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -1,55 +1,177 @@
 package com.josk.venom.products.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.josk.venom.products.dto.ProductFields;
+import com.josk.venom.products.dto.ProductPage;
+import com.josk.venom.products.dto.ProductPatch;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.dto.ProductSearchCriteria;
+import com.josk.venom.products.dto.ProductSearchPage;
+import com.josk.venom.products.dto.ProductSearchSort;
+import com.josk.venom.products.exception.PreconditionFailedException;
 import com.josk.venom.products.exception.ProductNotFoundException;
 import com.josk.venom.products.model.Product;
 import com.josk.venom.products.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/products")
 public class ProductController {
+   static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
    private final ProductService productService;
+   private final ObjectMapper objectMapper;
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ProductPage<?>> getAllProducts(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size,
+                                                         @RequestParam(required = false) String fields) {
+        ProductFields selection = ProductFields.parse(fields);
+        ProductPage<ProductResponse> page = productService.getProducts(cursor, size);
+        return ResponseEntity.ok()
+                .eTag(ProductETag.of(page, fields))
+                .body(selection == null ? page : page.map(selection::select));
+    }
+
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public List<?> getProductsByIds(@RequestParam List<Long> ids, @RequestParam(required = false) String fields) {
+        ProductFields selection = ProductFields.parse(fields);
+        List<ProductResponse> products = productService.getProductsByIds(ids);
+        return selection == null ? products : products.stream().map(selection::select).toList();
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts(@RequestParam(required = false) String fields) {
+        ProductFields selection = ProductFields.parse(fields);
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                productService.streamProducts(product -> {
+                    try {
+                        writer.write(selection == null ? product : selection.select(product));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            outputStream.write('\n');
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 
-    @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return new ResponseEntity<>(productService.getAllProducts(), HttpStatus.OK);
+    @GetMapping("/search")
+    public ProductSearchPage<?> searchProducts(@RequestParam(required = false) String q,
+                                            @RequestParam(required = false) Double minPrice,
+                                            @RequestParam(required = false) Double maxPrice,
+                                            @RequestParam(defaultValue = "false") boolean inStock,
+                                            @RequestParam(defaultValue = "relevance") String sort,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(required = false) Integer size,
+                                            @RequestParam(required = false) String fields) {
+        ProductFields selection = ProductFields.parse(fields);
+        ProductSearchCriteria criteria = new ProductSearchCriteria(q, minPrice, maxPrice, inStock,
+                ProductSearchSort.fromParameter(sort), page, size);
+        ProductSearchPage<ProductResponse> results = productService.searchProducts(criteria);
+        return selection == null ? results : results.map(selection::select);
     }
 
     @GetMapping("/{id}")
-    public Product getProductById(@PathVariable Long id) {
-        return productService.getProductById(id);
+    public ResponseEntity<?> getProductById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        ProductFields selection = ProductFields.parse(fields);
+        ProductResponse product = productService.getProductById(id);
+        return withValidators(ResponseEntity.ok(), product, fields)
+                .body(selection == null ? product : selection.select(product));
     }
 
     @PostMapping
-    public ResponseEntity<Product> createProduct(@RequestBody Product product) {
-        return new ResponseEntity<>(productService.createProduct(product), HttpStatus.CREATED);
+    public ResponseEntity<ProductResponse> createProduct(@RequestBody Product product) {
+        ProductResponse created = productService.createProduct(product);
+        return withValidators(ResponseEntity.status(HttpStatus.CREATED), created, null).body(created);
     }
 
     @PutMapping("/{id}")
-    public Product updateProduct(@PathVariable Long id, @RequestBody Product updatedProduct) {
-        return productService.updateProduct(id, updatedProduct);
+    public ResponseEntity<ProductResponse> updateProduct(@PathVariable Long id, @RequestBody Product updatedProduct,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<LocalDateTime> expectedVersions = ProductETag.expectedVersions(ifMatch, id);
+        ProductResponse updated = expectedVersions == null
+                ? productService.updateProduct(id, updatedProduct)
+                : firstMatching(expectedVersions, version -> productService.updateProduct(id, updatedProduct, version));
+        return withValidators(ResponseEntity.ok(), updated, null).body(updated);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<ProductResponse> patchProduct(@PathVariable Long id, @RequestBody ProductPatch patch) {
+        ProductResponse patched = productService.patchProduct(id, patch);
+        return withValidators(ResponseEntity.ok(), patched, null).body(patched);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteProduct(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<LocalDateTime> expectedVersions = ProductETag.expectedVersions(ifMatch, id);
         try {
-            productService.deleteProduct(id);
+            if (expectedVersions == null) {
+                productService.deleteProduct(id);
+            } else {
+                firstMatching(expectedVersions, version -> {
+                    productService.deleteProduct(id, version);
+                    return null;
+                });
+            }
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } catch (ProductNotFoundException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
+
+    /**
+     * Applies a conditional write for each version an If-Match list names until one is current. Every attempt
+     * is itself conditional, so the write happens only if the product is at one of the listed versions.
+     */
+    private static <T> T firstMatching(List<LocalDateTime> expectedVersions, Function<LocalDateTime, T> write) {
+        PreconditionFailedException failure = null;
+        for (LocalDateTime expectedVersion : expectedVersions) {
+            try {
+                return write.apply(expectedVersion);
+            } catch (PreconditionFailedException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, ProductResponse product, String fields) {
+        String eTag = ProductETag.of(product, fields);
+        if (eTag != null) {
+            builder.eTag(eTag).lastModified(ProductETag.lastModified(product));
+        }
+        return builder;
+    }
 }
@@ -0,0 +1,120 @@
+package com.josk.venom.products.controller;
+
+import com.josk.venom.products.dto.ProductPage;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.exception.PreconditionFailedException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+final class ProductETag {
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private ProductETag() {
+    }
+
+    static String of(ProductResponse product, String fields) {
+        if (product.updatedAt() == null) {
+            return null;
+        }
+        return quote(product.id() + "-" + Long.toString(toMicros(product.updatedAt()), 36) + variant(fields));
+    }
+
+    static String of(ProductPage<ProductResponse> page, String fields) {
+        long hash = 1125899906842597L;
+        for (ProductResponse product : page.items()) {
+            hash = 31 * hash + Objects.hashCode(product.id());
+            hash = 31 * hash + (product.updatedAt() == null ? 0 : toMicros(product.updatedAt()));
+        }
+        if (page.nextCursor() != null) {
+            hash = 31 * hash + page.nextCursor().hashCode();
+        }
+        return quote("p-" + Long.toString(hash, 36) + variant(fields));
+    }
+
+    static long lastModified(ProductResponse product) {
+        return product.updatedAt() == null ? -1 : product.updatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Resolves an If-Match header to the updatedAt versions it asserts for the given product, in header order.
+     * Returns null when there is no precondition to check (header absent or "*"). Weak tags, the fields
+     * variant and the compression coding suffix all describe a representation of the same version, so only
+     * the version is compared; tags for other products are skipped.
+     */
+    static List<LocalDateTime> expectedVersions(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        Set<LocalDateTime> versions = new LinkedHashSet<>();
+        for (String tag : split(ifMatch)) {
+            if (tag.equals("*")) {
+                return null;
+            }
+            LocalDateTime version = version(tag, id);
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match does not match product with id: " + id);
+        }
+        return List.copyOf(versions);
+    }
+
+    private static LocalDateTime version(String tag, Long id) {
+        String opaque = tag.startsWith("W/") ? tag.substring(2) : tag;
+        String prefix = "\"" + id + "-";
+        if (!opaque.startsWith(prefix) || !opaque.endsWith("\"") || opaque.length() <= prefix.length() + 1) {
+            return null;
+        }
+        String value = opaque.substring(prefix.length(), opaque.length() - 1);
+        int suffix = value.indexOf('-');
+        try {
+            return fromMicros(Long.parseLong(suffix < 0 ? value : value.substring(0, suffix), 36));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static List<String> split(String header) {
+        List<String> tags = new ArrayList<>();
+        int start = 0;
+        boolean quoted = false;
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                tags.add(header.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        tags.add(header.substring(start).trim());
+        tags.removeIf(String::isEmpty);
+        return tags;
+    }
+
+    private static String variant(String fields) {
+        return fields == null || fields.isBlank() ? "" : "-" + Integer.toString(fields.replace(" ", "").hashCode(), 36);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1_000, ZoneOffset.UTC);
+    }
+}
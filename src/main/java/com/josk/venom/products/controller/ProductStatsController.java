@@ -0,0 +1,21 @@
+package com.josk.venom.products.controller;
+
+import com.josk.venom.products.dto.ProductStats;
+import com.josk.venom.products.service.ProductStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/products/stats")
+public class ProductStatsController {
+    private final ProductStatsService productStatsService;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ProductStats getStats() {
+        return productStatsService.getStats();
+    }
+}
@@ -0,0 +1,73 @@
+package com.josk.venom.products.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josk.venom.products.dto.ProductImportProgress;
+import com.josk.venom.products.dto.ProductTransferFormat;
+import com.josk.venom.products.service.ProductTransferService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/products")
+public class ProductTransferController {
+    private final ProductTransferService productTransferService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping(value = "/export", produces = {ProductTransferFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestHeader HttpHeaders headers) {
+        ProductTransferFormat format = ProductTransferFormat.negotiate(headers.getAccept());
+        String filename = "products." + format.mediaType().getSubtype().replace("x-", "");
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(out -> productTransferService.exportProducts(format, out));
+    }
+
+    /**
+     * Streams the request body into the catalog and answers with one NDJSON progress line per committed
+     * chunk, followed by the final result with the rejected rows.
+     */
+    @PostMapping(value = "/import", consumes = {ProductTransferFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ServletOutputStream out = response.getOutputStream();
+        try (Reader reader = new InputStreamReader(request.getInputStream(), charset)) {
+            ProductImportProgress result = productTransferService.importProducts(ProductTransferFormat.of(contentType),
+                    reader, progress -> writeProgress(out, response, progress));
+            writeProgress(out, response, result);
+        }
+    }
+
+    private void writeProgress(ServletOutputStream out, HttpServletResponse response, ProductImportProgress progress) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(progress));
+            out.write('\n');
+            response.flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.josk.venom.products.controller;
+
+import com.josk.venom.products.dto.StockAdjustment;
+import com.josk.venom.products.dto.StockAdjustmentReceipt;
+import com.josk.venom.products.dto.StockItem;
+import com.josk.venom.products.dto.StockRequest;
+import com.josk.venom.products.service.StockAdjustmentService;
+import com.josk.venom.products.service.StockAdjustmentSubscriptions;
+import com.josk.venom.products.service.StockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/products")
+public class StockController {
+    private final StockService stockService;
+    private final StockAdjustmentService stockAdjustmentService;
+    private final StockAdjustmentSubscriptions stockAdjustmentSubscriptions;
+
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<Void> reserve(@PathVariable Long id, @RequestBody StockRequest request) {
+        stockService.reserve(id, request.quantity());
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PostMapping("/{id}/stock/release")
+    public ResponseEntity<Void> release(@PathVariable Long id, @RequestBody StockRequest request) {
+        stockService.release(id, request.quantity());
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PostMapping("/stock/reserve")
+    public ResponseEntity<Void> reserveAll(@RequestBody List<StockItem> items) {
+        stockService.reserveAll(items);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PostMapping("/stock/release")
+    public ResponseEntity<Void> releaseAll(@RequestBody List<StockItem> items) {
+        stockService.releaseAll(items);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PostMapping("/stock/adjustments")
+    public ResponseEntity<StockAdjustmentReceipt> adjust(@RequestBody List<StockAdjustment> adjustments) {
+        StockAdjustmentReceipt receipt = stockAdjustmentService.adjust(adjustments);
+        if (receipt.flushed()) {
+            return ResponseEntity.ok(receipt);
+        }
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{position}").build(receipt.position()))
+                .body(receipt);
+    }
+
+    @GetMapping("/stock/adjustments/{position}")
+    public StockAdjustmentReceipt getAdjustmentStatus(@PathVariable long position) {
+        return stockAdjustmentService.getStatus(position);
+    }
+
+    @GetMapping(value = "/stock/adjustments/{position}", params = "wait")
+    public DeferredResult<StockAdjustmentReceipt> awaitAdjustments(@PathVariable long position, @RequestParam int wait) {
+        return stockAdjustmentSubscriptions.await(position, Duration.ofSeconds(Math.max(wait, 0)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.josk.venom.products.datasource;
+
+public final class ReadYourWritesContext {
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void setLastWrite(long epochMillis) {
+        LAST_WRITE.set(epochMillis);
+    }
+
+    public static Long lastWrite() {
+        return LAST_WRITE.get();
+    }
+
+    public static void clear() {
+        LAST_WRITE.remove();
+    }
+}
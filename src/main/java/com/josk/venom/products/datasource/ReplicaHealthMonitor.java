@@ -0,0 +1,84 @@
+package com.josk.venom.products.datasource;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReplicaHealthMonitor implements HealthIndicator {
+    private static final String PRIMARY_LSN_QUERY = "select pg_current_wal_lsn()::text";
+    private static final String REPLICA_STATE_QUERY = "select pg_last_wal_replay_lsn() >= ?::pg_lsn as caught_up, "
+            + "pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() as replayed_all, "
+            + "coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0) as replay_age, "
+            + "exists (select 1 from pg_stat_wal_receiver) as receiving";
+
+    private final DataSource primary;
+    private final List<ReplicaNode> replicas;
+
+    public ReplicaHealthMonitor(DataSource primary, List<ReplicaNode> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    @Scheduled(fixedDelayString = "${products.replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        String primaryLsn = primaryLsn();
+        for (ReplicaNode replica : replicas) {
+            try {
+                Long lag = new JdbcTemplate(replica.getDataSource()).queryForObject(REPLICA_STATE_QUERY,
+                        (rs, rowNum) -> lagMillis((Boolean) rs.getObject("caught_up"), rs.getBoolean("replayed_all"),
+                                rs.getLong("replay_age"), rs.getBoolean("receiving")), primaryLsn);
+                if (lag == null) {
+                    replica.markUnhealthy();
+                } else {
+                    replica.markHealthy(lag);
+                }
+            } catch (RuntimeException e) {
+                replica.markUnhealthy();
+            }
+        }
+    }
+
+    /**
+     * Replication lag, or null when it cannot be trusted. A replica that has replayed everything the primary
+     * had written when the check started has no lag. Otherwise its WAL receiver must be connected: a replica
+     * that lost its primary has also replayed everything it received and would look current forever. A
+     * connected replica behind the primary is as old as its last replayed transaction, even when it has
+     * replayed all it received so far; only when the primary position is unknown does that count as current.
+     */
+    static Long lagMillis(Boolean caughtUpWithPrimary, boolean replayedAll, long replayAgeMillis, boolean receiving) {
+        if (Boolean.TRUE.equals(caughtUpWithPrimary)) {
+            return 0L;
+        }
+        if (!receiving) {
+            return null;
+        }
+        return Boolean.FALSE.equals(caughtUpWithPrimary) || !replayedAll ? replayAgeMillis : 0L;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        boolean anyHealthy = false;
+        for (ReplicaNode replica : replicas) {
+            details.put(replica.getName(), replica.isHealthy() ? Map.of("status", "UP", "lagMillis", replica.getLagMillis())
+                    : Map.of("status", "DOWN"));
+            anyHealthy |= replica.isHealthy();
+        }
+        // Reads fall back to the primary, so unavailable replicas degrade capacity but not the service.
+        return Health.up().withDetail("degraded", !anyHealthy).withDetails(details).build();
+    }
+
+    private String primaryLsn() {
+        try {
+            return new JdbcTemplate(primary).queryForObject(PRIMARY_LSN_QUERY, String.class);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.josk.venom.products.datasource;
+
+import javax.sql.DataSource;
+
+public class ReplicaNode {
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy;
+    private volatile long lagMillis = Long.MAX_VALUE;
+
+    public ReplicaNode(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    void markHealthy(long lagMillis) {
+        this.lagMillis = lagMillis;
+        this.healthy = true;
+    }
+
+    void markUnhealthy() {
+        this.healthy = false;
+        this.lagMillis = Long.MAX_VALUE;
+    }
+}
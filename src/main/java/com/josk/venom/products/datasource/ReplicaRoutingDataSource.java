@@ -0,0 +1,74 @@
+package com.josk.venom.products.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the data source for read-only connections: a healthy replica whose replication lag is within
+ * maxLag and, for clients that wrote recently, smaller than the time since that write. Falls back to
+ * the primary when no replica qualifies.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    static final String PRIMARY = "primary";
+
+    private final List<ReplicaNode> replicas;
+    private final long maxLagMillis;
+    private final long readYourWritesWindowMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaNode> replicas, Duration maxLag, Duration readYourWritesWindow) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+        this.readYourWritesWindowMillis = readYourWritesWindow.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaNode replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        long lagBudget = maxLagMillis;
+        Long lastWrite = ReadYourWritesContext.lastWrite();
+        if (lastWrite != null) {
+            long sinceWrite = System.currentTimeMillis() - lastWrite;
+            if (sinceWrite < readYourWritesWindowMillis) {
+                lagBudget = Math.min(lagBudget, sinceWrite - 1);
+            }
+        }
+
+        int size = replicas.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaNode replica = replicas.get((start + i) % size);
+            if (replica.isHealthy() && replica.getLagMillis() <= lagBudget) {
+                return replica.getName();
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (ReplicaNode replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
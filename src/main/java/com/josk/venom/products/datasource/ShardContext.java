@@ -0,0 +1,20 @@
+package com.josk.venom.products.datasource;
+
+public final class ShardContext {
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static void setShard(String shard) {
+        SHARD.set(shard);
+    }
+
+    public static String shard() {
+        return SHARD.get();
+    }
+
+    public static void clear() {
+        SHARD.remove();
+    }
+}
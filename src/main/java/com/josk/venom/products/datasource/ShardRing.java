@@ -0,0 +1,52 @@
+package com.josk.venom.products.datasource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring mapping product ids to shard names. Every shard owns virtualNodes points on the
+ * ring and an id belongs to the shard owning the first point at or after the id's hash, so adding a
+ * shard only moves the ids that now hash to its points.
+ */
+public class ShardRing {
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final List<String> shards;
+
+    public ShardRing(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard");
+        }
+        this.shards = List.copyOf(shards);
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    public List<String> getShards() {
+        return shards;
+    }
+
+    public String shardOf(long id) {
+        Map.Entry<Long, String> point = points.ceilingEntry(mix(id));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
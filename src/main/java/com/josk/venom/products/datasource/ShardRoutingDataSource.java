@@ -0,0 +1,41 @@
+package com.josk.venom.products.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard selected in the {@link ShardContext}. Code that does not select a
+ * shard, such as schema validation at startup, gets connections of the first shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private final Map<String, DataSource> shards;
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards) {
+        this.shards = new LinkedHashMap<>(shards);
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        setDefaultTargetDataSource(this.shards.values().iterator().next());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public Map<String, DataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.shard();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards.values()) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.josk.venom.products.datasource;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates ids that are unique across shards without coordination: milliseconds since 2024-01-01 in the
+ * upper 41 bits, the worker id of the instance in the next 10 bits and a per-millisecond sequence in the
+ * lower 12 bits. Ids stay increasing if the clock goes back, by continuing from the last millisecond used.
+ */
+public class SnowflakeIdGenerator implements LongSupplier {
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int WORKER_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long worker;
+    private final LongSupplier clock;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public SnowflakeIdGenerator(int workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID);
+        }
+        this.worker = (long) workerId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized long getAsLong() {
+        long millis = Math.max(clock.getAsLong() - EPOCH, lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                millis++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = millis;
+        return millis << (WORKER_BITS + SEQUENCE_BITS) | worker | sequence;
+    }
+}
@@ -0,0 +1,106 @@
+package com.josk.venom.products.discovery;
+
+import com.josk.venom.loadbalancer.InstanceLoad;
+import com.josk.venom.products.configuration.CacheConfig;
+import com.josk.venom.products.configuration.LoadBalancingProperties;
+import com.netflix.appinfo.ApplicationInfoManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the load of this instance into its Eureka metadata every products.load-balancing.publish-interval.
+ * Eureka sends changed metadata with the next instance info replication, so keep
+ * eureka.client.instance-info-replication-interval-seconds close to the publish interval.
+ */
+@Component
+public class InstanceLoadReporter {
+    static final String LATENCY_TIMER = "product.service";
+    private static final double PERCENTILE = 0.99;
+    // single-product lookups and page listings; streams, exports and imports would drown them out
+    private static final Set<String> LATENCY_METHODS = Set.of("getProductById", "getProducts", "getProductsByIds");
+
+    private final MeterRegistry meterRegistry;
+    private final LoadBalancingProperties loadBalancingProperties;
+    private final Optional<ApplicationInfoManager> applicationInfoManager;
+
+    private double lastHits;
+    private double lastMisses;
+    private double cacheHitRatio = Double.NaN;
+
+    public InstanceLoadReporter(MeterRegistry meterRegistry, LoadBalancingProperties loadBalancingProperties,
+                                Optional<ApplicationInfoManager> applicationInfoManager) {
+        this.meterRegistry = meterRegistry;
+        this.loadBalancingProperties = loadBalancingProperties;
+        this.applicationInfoManager = applicationInfoManager;
+    }
+
+    @Scheduled(fixedDelayString = "${products.load-balancing.publish-interval:PT10S}")
+    public void publish() {
+        if (loadBalancingProperties.isEnabled()) {
+            applicationInfoManager.ifPresent(manager -> manager.registerAppMetadata(measure().toMetadata()));
+        }
+    }
+
+    synchronized InstanceLoad measure() {
+        return new InstanceLoad(inFlight(), p99Millis(), poolSaturation(), cacheHitRatio(), System.currentTimeMillis());
+    }
+
+    private int inFlight() {
+        return meterRegistry.find("http.server.requests.active").longTaskTimers().stream()
+                .mapToInt(LongTaskTimer::activeTasks).sum();
+    }
+
+    /**
+     * Worst p99 of product lookups and listings over the recent distribution window.
+     */
+    private double p99Millis() {
+        double worst = 0;
+        for (Timer timer : meterRegistry.find(LATENCY_TIMER).timers()) {
+            if (!LATENCY_METHODS.contains(timer.getId().getTag("method"))) {
+                continue;
+            }
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == PERCENTILE) {
+                    worst = Math.max(worst, percentile.value(TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+        return worst;
+    }
+
+    private double poolSaturation() {
+        double active = meterRegistry.find("hikaricp.connections.active").gauges().stream().mapToDouble(Gauge::value).sum();
+        double max = meterRegistry.find("hikaricp.connections.max").gauges().stream().mapToDouble(Gauge::value).sum();
+        return max > 0 ? active / max : 0;
+    }
+
+    /**
+     * Hit ratio of the products cache since the previous measurement, or the previous ratio if it was not read.
+     */
+    private double cacheHitRatio() {
+        double hits = cacheGets("hit");
+        double misses = cacheGets("miss");
+        double gets = hits - lastHits + misses - lastMisses;
+        if (gets > 0) {
+            cacheHitRatio = (hits - lastHits) / gets;
+        }
+        lastHits = hits;
+        lastMisses = misses;
+        return cacheHitRatio;
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.find("cache.gets").tags("cache", CacheConfig.PRODUCTS_CACHE, "result", result)
+                .functionCounters().stream().mapToDouble(FunctionCounter::count).sum();
+    }
+}
@@ -0,0 +1,16 @@
+package com.josk.venom.products.dto;
+
+public record BatchItemResult(int index, Long id, BatchItemStatus status, String error) {
+
+    public static BatchItemResult success(int index, Long id, BatchItemStatus status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    public static BatchItemResult failure(int index, Long id, BatchItemStatus status, String error) {
+        return new BatchItemResult(index, id, status, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
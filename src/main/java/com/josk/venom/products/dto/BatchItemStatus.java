@@ -0,0 +1,9 @@
+package com.josk.venom.products.dto;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND,
+    INVALID
+}
@@ -0,0 +1,7 @@
+package com.josk.venom.products.dto;
+
+/**
+ * Number of products priced in {@code [minPrice, maxPrice)}.
+ */
+public record PriceBand(double minPrice, double maxPrice, long products) {
+}
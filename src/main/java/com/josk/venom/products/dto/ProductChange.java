@@ -0,0 +1,4 @@
+package com.josk.venom.products.dto;
+
+public record ProductChange(long txId, long changeId, long productId, ProductChangeType type, ProductResponse product) {
+}
@@ -0,0 +1,4 @@
+package com.josk.venom.products.dto;
+
+public record ProductChangeEvent(long productId, ProductChangeType type, ProductResponse product) {
+}
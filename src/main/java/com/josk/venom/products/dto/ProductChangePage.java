@@ -0,0 +1,6 @@
+package com.josk.venom.products.dto;
+
+import java.util.List;
+
+public record ProductChangePage(List<ProductChangeEvent> changes, String nextCursor, boolean hasMore) {
+}
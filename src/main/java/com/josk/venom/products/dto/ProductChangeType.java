@@ -0,0 +1,7 @@
+package com.josk.venom.products.dto;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,56 @@
+package com.josk.venom.products.dto;
+
+import com.josk.venom.products.exception.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class ProductFields {
+    private static final Map<String, Function<ProductResponse, Object>> ACCESSORS = new LinkedHashMap<>();
+
+    static {
+        ACCESSORS.put("id", ProductResponse::id);
+        ACCESSORS.put("name", ProductResponse::name);
+        ACCESSORS.put("description", ProductResponse::description);
+        ACCESSORS.put("price", ProductResponse::price);
+        ACCESSORS.put("stock", ProductResponse::stock);
+        ACCESSORS.put("createdAt", ProductResponse::createdAt);
+        ACCESSORS.put("updatedAt", ProductResponse::updatedAt);
+    }
+
+    private final String[] names;
+    private final List<Function<ProductResponse, Object>> accessors;
+
+    private ProductFields(String[] names, List<Function<ProductResponse, Object>> accessors) {
+        this.names = names;
+        this.accessors = accessors;
+    }
+
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        String[] names = fields.split(",");
+        List<Function<ProductResponse, Object>> accessors = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            names[i] = names[i].trim();
+            Function<ProductResponse, Object> accessor = ACCESSORS.get(names[i]);
+            if (accessor == null) {
+                throw new InvalidRequestException("Unknown field '" + names[i] + "', expected one of " + ACCESSORS.keySet());
+            }
+            accessors.add(accessor);
+        }
+        return new ProductFields(names, accessors);
+    }
+
+    public Map<String, Object> select(ProductResponse product) {
+        Map<String, Object> selected = LinkedHashMap.newLinkedHashMap(names.length);
+        for (int i = 0; i < names.length; i++) {
+            selected.put(names[i], accessors.get(i).apply(product));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,4 @@
+package com.josk.venom.products.dto;
+
+public record ProductImportError(long line, String message) {
+}
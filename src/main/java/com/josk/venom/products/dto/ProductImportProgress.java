@@ -0,0 +1,7 @@
+package com.josk.venom.products.dto;
+
+import java.util.List;
+
+public record ProductImportProgress(ProductImportStatus status, long processed, long inserted, long updated, long rejected,
+                                    List<ProductImportError> errors) {
+}
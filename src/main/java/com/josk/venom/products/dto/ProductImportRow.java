@@ -0,0 +1,8 @@
+package com.josk.venom.products.dto;
+
+public record ProductImportRow(Long id, String name, String description, Double price, Integer stock) {
+
+    public ProductImportRow withId(Long id) {
+        return new ProductImportRow(id, name, description, price, stock);
+    }
+}
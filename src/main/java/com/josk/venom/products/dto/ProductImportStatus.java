@@ -0,0 +1,7 @@
+package com.josk.venom.products.dto;
+
+public enum ProductImportStatus {
+    RUNNING,
+    COMPLETED,
+    ABORTED
+}
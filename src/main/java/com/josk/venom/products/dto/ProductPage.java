@@ -0,0 +1,11 @@
+package com.josk.venom.products.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record ProductPage<T>(List<T> items, String nextCursor) {
+
+    public <R> ProductPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new ProductPage<>(items.stream().<R>map(mapper).toList(), nextCursor);
+    }
+}
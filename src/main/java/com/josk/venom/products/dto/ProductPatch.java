@@ -0,0 +1,8 @@
+package com.josk.venom.products.dto;
+
+public record ProductPatch(String name, String description, Double price, Integer stock) {
+
+    public boolean isEmpty() {
+        return name == null && description == null && price == null && stock == null;
+    }
+}
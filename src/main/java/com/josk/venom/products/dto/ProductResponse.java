@@ -0,0 +1,14 @@
+package com.josk.venom.products.dto;
+
+import com.josk.venom.products.model.Product;
+
+import java.time.LocalDateTime;
+
+public record ProductResponse(Long id, String name, String description, double price, int stock,
+                              LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public static ProductResponse from(Product product) {
+        return new ProductResponse(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStock(), product.getCreatedAt(), product.getUpdatedAt());
+    }
+}
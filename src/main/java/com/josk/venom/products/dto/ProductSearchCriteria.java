@@ -0,0 +1,18 @@
+package com.josk.venom.products.dto;
+
+public record ProductSearchCriteria(String query,
+                                    Double minPrice,
+                                    Double maxPrice,
+                                    boolean inStock,
+                                    ProductSearchSort sort,
+                                    int page,
+                                    Integer size) {
+
+    public ProductSearchCriteria withSize(int size) {
+        return new ProductSearchCriteria(query, minPrice, maxPrice, inStock, sort, page, size);
+    }
+
+    public boolean hasQuery() {
+        return query != null && !query.isBlank();
+    }
+}
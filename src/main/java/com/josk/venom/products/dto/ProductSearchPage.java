@@ -0,0 +1,11 @@
+package com.josk.venom.products.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record ProductSearchPage<T>(List<T> items, int page, int size, boolean hasNext) {
+
+    public <R> ProductSearchPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new ProductSearchPage<>(items.stream().<R>map(mapper).toList(), page, size, hasNext);
+    }
+}
@@ -0,0 +1,21 @@
+package com.josk.venom.products.dto;
+
+import com.josk.venom.products.exception.InvalidRequestException;
+
+import java.util.Locale;
+
+public enum ProductSearchSort {
+    RELEVANCE,
+    PRICE_ASC,
+    PRICE_DESC,
+    NAME,
+    NEWEST;
+
+    public static ProductSearchSort fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported sort: " + value);
+        }
+    }
+}
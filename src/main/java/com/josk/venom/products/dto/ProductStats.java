@@ -0,0 +1,6 @@
+package com.josk.venom.products.dto;
+
+import java.util.List;
+
+public record ProductStats(long totalProducts, double totalStockValue, long outOfStock, List<PriceBand> priceDistribution) {
+}
@@ -0,0 +1,40 @@
+package com.josk.venom.products.dto;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+public enum ProductTransferFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    ProductTransferFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static ProductTransferFormat of(MediaType contentType) {
+        return NDJSON.mediaType.equalsTypeAndSubtype(contentType) ? NDJSON : CSV;
+    }
+
+    /**
+     * The first of the accepted types that names a transfer format; CSV when none does.
+     */
+    public static ProductTransferFormat negotiate(List<MediaType> accepted) {
+        for (MediaType mediaType : accepted) {
+            for (ProductTransferFormat format : values()) {
+                if (format.mediaType.equalsTypeAndSubtype(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,8 @@
+package com.josk.venom.products.dto;
+
+/**
+ * Acknowledges queued stock adjustments. {@code position} identifies the last queued adjustment; the
+ * adjustments are applied once {@code flushed} is true.
+ */
+public record StockAdjustmentReceipt(long position, boolean flushed) {
+}
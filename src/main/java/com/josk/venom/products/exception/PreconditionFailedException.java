@@ -0,0 +1,7 @@
+package com.josk.venom.products.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,31 @@
 package com.josk.venom.products.exception;
 
-
+/**
+ * Thrown for every lookup of a missing product, which is common enough (crawlers, stale links) that the
+ * stack trace is not captured and the message is only built when the error is rendered. A miss allocates
+ * just this object: it is not shared, because callers on different threads report different ids and
+ * {@link #getMessage()} has to name the one that was missing.
+ */
 public class ProductNotFoundException extends RuntimeException {
+    private final long productId;
+
     public ProductNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
+        this.productId = 0L;
+    }
+
+    private ProductNotFoundException(long productId) {
+        super(null, null, false, false);
+        this.productId = productId;
+    }
+
+    public static ProductNotFoundException forId(long productId) {
+        return new ProductNotFoundException(productId);
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message : "Product not found with id: " + productId;
     }
 }
@@ -0,0 +1,15 @@
+package com.josk.venom.products.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class QueueFullException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public QueueFullException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,98 @@
+package com.josk.venom.products.filter;
+
+import com.josk.venom.products.ratelimit.AdaptiveConcurrencyLimiter;
+import com.josk.venom.products.ratelimit.ClientRateLimiter;
+import com.josk.venom.products.ratelimit.EndpointClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests over the client's rate for the endpoint class with 429, and sheds load with 503
+ * once the adaptive concurrency limit is reached. Clients are identified by their authenticated
+ * principal, falling back to the remote address. For asynchronous handlers only the initial
+ * dispatch holds a concurrency slot. Rejections go through {@code sendError}, so clients get the
+ * usual error body along with {@code Retry-After}.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Map<EndpointClass, Counter> rateLimited = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> overloaded = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                  MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            rateLimited.put(endpoint, rejections(meterRegistry, endpoint, "rate_limited"));
+            overloaded.put(endpoint, rejections(meterRegistry, endpoint, "overloaded"));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpoint = EndpointClass.of(request);
+        long wait = rateLimiter.tryAcquire(client(request), endpoint);
+        if (wait > 0) {
+            rateLimited.get(endpoint).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999),
+                    "Rate limit exceeded for " + endpoint.tag() + " requests");
+            return;
+        }
+        if (concurrencyLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            overloaded.get(endpoint).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, Math.max(1, concurrencyLimiter.retryAfter().toSeconds()),
+                    "Server is at its concurrency limit");
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - started);
+        }
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "principal:" + authentication.getName();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                               String message) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(status.value(), message);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, EndpointClass endpoint, String reason) {
+        return Counter.builder("http.server.requests.rejected")
+                .description("Requests rejected by admission control")
+                .tag("endpoint", endpoint.tag())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
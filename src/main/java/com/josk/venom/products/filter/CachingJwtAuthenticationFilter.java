@@ -0,0 +1,119 @@
+package com.josk.venom.products.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Authenticates bearer tokens, caching the security context of every verified token until the
+ * token expires. Repeat requests with the same token skip parsing and signature verification:
+ * the raw {@code Authorization} header is the cache key, so a hit allocates nothing.
+ * <p>
+ * Cached contexts are shared between requests and must be treated as read-only.
+ */
+public class CachingJwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+
+    private final JwtDecoder jwtDecoder;
+    private final Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter;
+    private final AuthenticationEntryPoint authenticationEntryPoint;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+
+    public CachingJwtAuthenticationFilter(JwtDecoder jwtDecoder,
+                                          Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter,
+                                          AuthenticationEntryPoint authenticationEntryPoint,
+                                          long maximumSize, Duration maximumTtl) {
+        this.jwtDecoder = jwtDecoder;
+        this.authenticationConverter = authenticationConverter;
+        this.authenticationEntryPoint = authenticationEntryPoint;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpires(maximumTtl))
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        VerifiedToken verified = verifiedTokens.getIfPresent(authorization);
+        if (verified == null) {
+            try {
+                verified = verify(authorization);
+            } catch (JwtException e) {
+                securityContextHolderStrategy.clearContext();
+                authenticationEntryPoint.commence(request, response, new InvalidBearerTokenException(e.getMessage(), e));
+                return;
+            }
+            verifiedTokens.put(authorization, verified);
+        }
+        securityContextHolderStrategy.setContext(verified.context());
+        filterChain.doFilter(request, response);
+    }
+
+    private VerifiedToken verify(String authorization) {
+        Jwt jwt = jwtDecoder.decode(authorization.substring(BEARER.length()).trim());
+        AbstractAuthenticationToken authentication = authenticationConverter.convert(jwt);
+        if (authentication == null) {
+            throw new JwtException("Token could not be converted to an authentication");
+        }
+        SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+        context.setAuthentication(authentication);
+        return new VerifiedToken(context, jwt.getExpiresAt());
+    }
+
+    private record VerifiedToken(SecurityContext context, Instant expiresAt) {
+    }
+
+    private static final class UntilTokenExpires implements Expiry<String, VerifiedToken> {
+        private final long maximumTtlNanos;
+
+        private UntilTokenExpires(Duration maximumTtl) {
+            this.maximumTtlNanos = maximumTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            if (token.expiresAt() == null) {
+                return maximumTtlNanos;
+            }
+            long remaining = Duration.between(Instant.now(), token.expiresAt()).toNanos();
+            return Math.max(0, Math.min(remaining, maximumTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
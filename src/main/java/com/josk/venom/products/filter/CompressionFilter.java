@@ -0,0 +1,499 @@
+package com.josk.venom.products.filter;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses with zstd or gzip, whichever the client prefers, once the body grows past the
+ * size threshold. Bodies are buffered up to the threshold so that small responses go out as they are.
+ * <p>
+ * Unlike the connector's own compression this keeps strong ETags: a compressed response's ETag gets the coding
+ * as a suffix ({@code "abc-zstd"}), and the suffix is stripped from {@code If-None-Match}, {@code If-Match} and
+ * {@code If-Range} before the controllers compare them. Every compressible response carries
+ * {@code Vary: Accept-Encoding}, whether or not it went out compressed.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+    private static final String ATTRIBUTE = CompressionFilter.class.getName() + ".RESPONSE";
+    private static final List<String> CONDITIONAL_HEADERS =
+            List.of(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MATCH, HttpHeaders.IF_RANGE);
+
+    private final int minResponseSize;
+    private final List<MimeType> mimeTypes;
+    private final int zstdLevel;
+
+    public CompressionFilter(int minResponseSize, List<String> mimeTypes, int zstdLevel) {
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes.stream().map(MimeTypeUtils::parseMimeType).toList();
+        this.zstdLevel = zstdLevel;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CompressingResponse compressing = (CompressingResponse) request.getAttribute(ATTRIBUTE);
+        if (compressing == null) {
+            Encoding encoding = "HEAD".equals(request.getMethod())
+                    ? null : negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            compressing = new CompressingResponse(response, encoding, request.getHeader(HttpHeaders.IF_NONE_MATCH));
+            request.setAttribute(ATTRIBUTE, compressing);
+            response = compressing;
+        }
+        filterChain.doFilter(hasConditionalHeaders(request) ? new ConditionalRequest(request) : request, response);
+        if (!request.isAsyncStarted()) {
+            compressing.finish();
+        }
+    }
+
+    static Encoding negotiate(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return null;
+        }
+        Encoding best = null;
+        double bestQuality = 0;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            Encoding encoding = Encoding.of(parts[0].trim().toLowerCase(Locale.ROOT));
+            if (encoding == null) {
+                continue;
+            }
+            double quality = quality(parts);
+            if (quality > bestQuality || (quality == bestQuality && quality > 0 && encoding.ordinal() < best.ordinal())) {
+                best = encoding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static boolean hasConditionalHeaders(HttpServletRequest request) {
+        return CONDITIONAL_HEADERS.stream().anyMatch(name -> request.getHeader(name) != null);
+    }
+
+    /**
+     * Removes the coding suffix from every entity tag in a conditional header, so {@code "abc-zstd"} compares
+     * equal to the {@code "abc"} the controller computes.
+     */
+    static String stripCodings(String header) {
+        if (header == null) {
+            return null;
+        }
+        String stripped = header;
+        for (Encoding encoding : Encoding.values()) {
+            stripped = stripped.replace("-" + encoding.token + "\"", "\"");
+        }
+        return stripped;
+    }
+
+    /**
+     * Picks the tag from {@code If-None-Match} that matched a 304, so the response names the same encoded
+     * representation the client has cached rather than the identity one.
+     */
+    static String matchedTag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return eTag;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (!tag.equals(eTag) && stripCodings(tag).equals(eTag)) {
+                return tag;
+            }
+        }
+        return eTag;
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MimeType mimeType = MimeTypeUtils.parseMimeType(contentType);
+            return mimeTypes.stream().anyMatch(candidate -> candidate.includes(mimeType));
+        } catch (InvalidMimeTypeException e) {
+            return false;
+        }
+    }
+
+    enum Encoding {
+        ZSTD("zstd"),
+        GZIP("gzip");
+
+        private final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+
+        String tag(String eTag) {
+            return eTag.endsWith("\"") ? eTag.substring(0, eTag.length() - 1) + "-" + token + "\"" : eTag;
+        }
+
+        static Encoding of(String token) {
+            for (Encoding encoding : values()) {
+                if (encoding.token.equals(token)) {
+                    return encoding;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class ConditionalRequest extends HttpServletRequestWrapper {
+        ConditionalRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            return isConditional(name) ? stripCodings(value) : value;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            Enumeration<String> values = super.getHeaders(name);
+            if (!isConditional(name) || values == null) {
+                return values;
+            }
+            return Collections.enumeration(Collections.list(values).stream().map(CompressionFilter::stripCodings).toList());
+        }
+
+        private static boolean isConditional(String name) {
+            return CONDITIONAL_HEADERS.stream().anyMatch(name::equalsIgnoreCase);
+        }
+    }
+
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+        private final Encoding encoding;
+        private final String ifNoneMatch;
+        private CompressingOutputStream outputStream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+        private boolean varied;
+
+        CompressingResponse(HttpServletResponse response, Encoding encoding, String ifNoneMatch) {
+            super(response);
+            this.encoding = encoding;
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            return stream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called for this response");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (outputStream != null && outputStream.target != null && !outputStream.compressing) {
+                super.setContentLengthLong(length);
+            } else {
+                contentLength = length;
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.flushNow();
+            } else {
+                commitHeaders();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (outputStream != null && outputStream.target == null) {
+                outputStream.count = 0;
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            contentLength = -1;
+            if (outputStream != null && outputStream.target == null) {
+                outputStream.count = 0;
+            }
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.close();
+            } else {
+                commitHeaders();
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+            }
+        }
+
+        private void commitHeaders() {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (response.getStatus() == HttpStatus.NOT_MODIFIED.value() && encoding != null) {
+                String eTag = response.getHeader(HttpHeaders.ETAG);
+                if (eTag != null) {
+                    response.setHeader(HttpHeaders.ETAG, matchedTag(ifNoneMatch, eTag));
+                }
+                vary();
+            } else if (isCompressible(getContentType())) {
+                vary();
+            }
+        }
+
+        private void vary() {
+            if (varied) {
+                return;
+            }
+            varied = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            boolean present = response.getHeaders(HttpHeaders.VARY).stream()
+                    .anyMatch(value -> value.toLowerCase(Locale.ROOT).contains("accept-encoding") || value.trim().equals("*"));
+            if (!present) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+
+        private CompressingOutputStream stream() {
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream(this);
+            }
+            return outputStream;
+        }
+
+        private boolean startCompressing() throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            int status = response.getStatus();
+            if (encoding == null || status == HttpStatus.NO_CONTENT.value() || status == HttpStatus.NOT_MODIFIED.value()
+                    || response.containsHeader(HttpHeaders.CONTENT_ENCODING) || !isCompressible(getContentType())) {
+                return false;
+            }
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.token);
+            String eTag = response.getHeader(HttpHeaders.ETAG);
+            if (eTag != null) {
+                response.setHeader(HttpHeaders.ETAG, encoding.tag(eTag));
+            }
+            vary();
+            return true;
+        }
+
+        private OutputStream open(boolean compress) throws IOException {
+            if (!compress) {
+                commitHeaders();
+            }
+            ServletOutputStream raw = getResponse().getOutputStream();
+            if (!compress) {
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+                return raw;
+            }
+            OutputStream target = new FilterOutputStream(raw) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+            return switch (encoding) {
+                case ZSTD -> new ZstdOutputStream(target, zstdLevel);
+                case GZIP -> new GZIPOutputStream(target, 8192, true);
+            };
+        }
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+        private final CompressingResponse response;
+        private final byte[] buffer;
+        private int count;
+        private OutputStream target;
+        private boolean compressing;
+        private boolean closed;
+
+        CompressingOutputStream(CompressingResponse response) {
+            this.response = response;
+            this.buffer = new byte[Math.max(minResponseSize, 1)];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (target == null) {
+                if (response.encoding != null && count + len <= minResponseSize
+                        && isCompressible(response.getContentType())) {
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                open(count + len > minResponseSize);
+            }
+            target.write(b, off, len);
+        }
+
+        /**
+         * Writers such as Jackson's {@code SequenceWriter} flush after every value; honouring that would
+         * shrink compressed blocks to a single record, so flushes only reach identity responses.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (target != null && !compressing) {
+                target.flush();
+            }
+        }
+
+        void flushNow() throws IOException {
+            if (target == null) {
+                open(false);
+            }
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            if (target == null) {
+                open(false);
+            }
+            closed = true;
+            if (compressing) {
+                target.close();
+            } else {
+                target.flush();
+            }
+        }
+
+        private void open(boolean large) throws IOException {
+            compressing = large && response.startCompressing();
+            target = response.open(compressing);
+            if (count > 0) {
+                target.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return compressing || !(target instanceof ServletOutputStream raw) || raw.isReady();
+        }
+
+        /**
+         * Non-blocking writers get the identity stream: the compressor cannot report readiness, so the listener
+         * is handed to the container's own stream instead.
+         */
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (target == null) {
+                try {
+                    open(false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            if (compressing) {
+                throw new IllegalStateException("Non-blocking writes must start before the response is compressed");
+            }
+            ((ServletOutputStream) target).setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.josk.venom.products.filter;
+
+import com.josk.venom.products.datasource.ReadYourWritesContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Tracks when a client last wrote, through a response header it may echo back and a cookie, so that
+ * its reads within the read-your-writes window avoid replicas that have not caught up yet.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String LAST_WRITE = "Products-Last-Write";
+
+    private final int cookieMaxAge;
+
+    public ReadYourWritesFilter(Duration readYourWritesWindow) {
+        this.cookieMaxAge = (int) Math.max(1, readYourWritesWindow.toSeconds());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isWrite(request.getMethod())) {
+            long now = System.currentTimeMillis();
+            ReadYourWritesContext.setLastWrite(now);
+            response.setHeader(LAST_WRITE, Long.toString(now));
+            Cookie cookie = new Cookie(LAST_WRITE, Long.toString(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(cookieMaxAge);
+            response.addCookie(cookie);
+        } else {
+            Long lastWrite = lastWrite(request);
+            if (lastWrite != null) {
+                ReadYourWritesContext.setLastWrite(lastWrite);
+            }
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private static Long lastWrite(HttpServletRequest request) {
+        String value = request.getHeader(LAST_WRITE);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (LAST_WRITE.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                    break;
+                }
+            }
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.josk.venom.products.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts statements per request. Threads started while handling the request, such as the virtual threads
+ * that query shards in parallel, add to the request's count; work handed to long-lived pooled threads does not.
+ */
+public final class StatementCounter {
+    private static final InheritableThreadLocal<AtomicInteger> COUNT = new InheritableThreadLocal<>() {
+        @Override
+        protected AtomicInteger initialValue() {
+            return new AtomicInteger();
+        }
+    };
+
+    private StatementCounter() {
+    }
+
+    public static void reset() {
+        COUNT.set(new AtomicInteger());
+    }
+
+    public static int current() {
+        return COUNT.get().get();
+    }
+
+    static void increment() {
+        COUNT.get().incrementAndGet();
+    }
+}
@@ -0,0 +1,22 @@
+package com.josk.venom.products.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the annotated id with {@link ProductIdGenerator}.
+ */
+@IdGeneratorType(ProductIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface ProductId {
+    String sequenceName();
+
+    int allocationSize() default 50;
+}
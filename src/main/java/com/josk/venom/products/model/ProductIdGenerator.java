@@ -0,0 +1,51 @@
+package com.josk.venom.products.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+import java.util.function.LongSupplier;
+
+/**
+ * Takes product ids from the sequence named by {@link ProductId}, or from the LongSupplier registered under
+ * {@link #ID_SOURCE} in the Hibernate settings. With an id source, ids assigned before saving are kept, so
+ * callers can pick the shard of a new product before it is inserted.
+ */
+public class ProductIdGenerator extends SequenceStyleGenerator {
+    public static final String ID_SOURCE = "products.id-source";
+
+    private final ProductId config;
+    private LongSupplier idSource;
+
+    public ProductIdGenerator(ProductId config) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.put(SEQUENCE_PARAM, config.sequenceName());
+        parameters.put(INCREMENT_PARAM, String.valueOf(config.allocationSize()));
+        super.configure(type, parameters, serviceRegistry);
+        if (serviceRegistry.requireService(ConfigurationService.class).getSettings().get(ID_SOURCE) instanceof LongSupplier source) {
+            idSource = source;
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (idSource == null) {
+            return super.generate(session, object);
+        }
+        Long assigned = object instanceof Product product ? product.getId() : null;
+        return assigned != null ? assigned : idSource.getAsLong();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return idSource != null;
+    }
+}
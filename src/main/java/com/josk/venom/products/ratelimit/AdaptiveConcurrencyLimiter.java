@@ -0,0 +1,102 @@
+package com.josk.venom.products.ratelimit;
+
+import com.josk.venom.products.configuration.RateLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps in-flight requests with an AIMD limit: the limit shrinks by the backoff ratio whenever the
+ * recent p99 latency or the mean connection-pool wait crosses its threshold, and grows by one
+ * while requests keep reaching it without trouble.
+ */
+public class AdaptiveConcurrencyLimiter {
+    static final String POOL_WAIT_TIMER = "hikaricp.connections.acquire";
+
+    private final RateLimitProperties.Concurrency properties;
+    private final MeterRegistry meterRegistry;
+    private final Timer latency;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile int limit;
+    private long poolWaitCount;
+    private double poolWaitTotalNanos;
+
+    public AdaptiveConcurrencyLimiter(RateLimitProperties.Concurrency properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.limit = properties.getInitialLimit();
+        this.latency = Timer.builder("products.admission.latency")
+                .description("Latency of admitted requests, used to adapt the concurrency limit")
+                .publishPercentiles(0.99)
+                .distributionStatisticExpiry(properties.getAdjustInterval().multipliedBy(5))
+                .distributionStatisticBufferLength(5)
+                .register(meterRegistry);
+        Gauge.builder("products.admission.limit", () -> limit).register(meterRegistry);
+        Gauge.builder("products.admission.in_flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public boolean tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        peakInFlight.accumulateAndGet(current, Math::max);
+        return true;
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public Duration retryAfter() {
+        return properties.getRetryAfter();
+    }
+
+    @Scheduled(initialDelayString = "${products.rate-limit.concurrency.adjust-interval:PT1S}",
+            fixedDelayString = "${products.rate-limit.concurrency.adjust-interval:PT1S}")
+    public void adjust() {
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (p99() > properties.getLatencyThreshold().toNanos() || poolWait() > properties.getPoolWaitThreshold().toNanos()) {
+            limit = Math.max(properties.getMinLimit(), (int) (limit * properties.getBackoffRatio()));
+        } else if (peak >= limit) {
+            limit = Math.min(properties.getMaxLimit(), limit + 1);
+        }
+    }
+
+    private double p99() {
+        for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+            return percentile.value(TimeUnit.NANOSECONDS);
+        }
+        return 0;
+    }
+
+    /**
+     * Mean connection acquire time since the previous adjustment, across every Hikari pool.
+     */
+    private double poolWait() {
+        long count = 0;
+        double totalNanos = 0;
+        for (Timer timer : meterRegistry.find(POOL_WAIT_TIMER).timers()) {
+            count += timer.count();
+            totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        long acquisitions = count - poolWaitCount;
+        double waited = totalNanos - poolWaitTotalNanos;
+        poolWaitCount = count;
+        poolWaitTotalNanos = totalNanos;
+        return acquisitions > 0 ? waited / acquisitions : 0;
+    }
+}
@@ -0,0 +1,48 @@
+package com.josk.venom.products.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.josk.venom.products.configuration.RateLimitProperties;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client, per-endpoint-class token buckets. Buckets of clients that stay idle past the
+ * configured timeout are dropped, which refills them.
+ */
+public class ClientRateLimiter {
+    private final Map<EndpointClass, RateLimitProperties.Bucket> limits;
+    private final Cache<Key, TokenBucket> buckets;
+    private final LongSupplier nanoClock;
+
+    public ClientRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ClientRateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.limits = properties.getEndpoints();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return 0 when the request may proceed, otherwise the nanoseconds until the client may retry
+     */
+    public long tryAcquire(String client, EndpointClass endpoint) {
+        RateLimitProperties.Bucket limit = limits.get(endpoint);
+        if (limit == null || limit.getPermitsPerSecond() <= 0) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(new Key(client, endpoint),
+                key -> new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst(), now));
+        return bucket.tryAcquire(now);
+    }
+
+    private record Key(String client, EndpointClass endpoint) {
+    }
+}
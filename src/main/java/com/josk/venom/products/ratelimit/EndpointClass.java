@@ -0,0 +1,35 @@
+package com.josk.venom.products.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Groups endpoints by cost so that cheap single-product reads are not starved by a client's
+ * listing, search or streaming traffic, which each touch many rows.
+ */
+public enum EndpointClass {
+    LIST,
+    READ,
+    WRITE;
+
+    private static final String PRODUCTS = "/api/v1/products";
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return WRITE;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (path.equals(PRODUCTS) || path.startsWith(PRODUCTS + "/search") || path.startsWith(PRODUCTS + "/changes")
+                || path.startsWith(PRODUCTS + "/export")) {
+            return LIST;
+        }
+        return READ;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
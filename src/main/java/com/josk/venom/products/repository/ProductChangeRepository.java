@@ -0,0 +1,18 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.ProductChange;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProductChangeRepository {
+    List<ProductChange> findAfter(long txId, long changeId, int limit);
+
+    List<ProductChange> findIdsAfter(long txId, long changeId, int limit);
+
+    long currentXmin();
+
+    double heldBackSeconds();
+
+    int deleteChangedBefore(LocalDateTime before);
+}
@@ -0,0 +1,84 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.ProductChange;
+import com.josk.venom.products.dto.ProductChangeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads the product_changes outbox filled by the products_change_feed trigger (see db/migration).
+ * Only changes of transactions below the current snapshot's xmin are returned: every such transaction
+ * has finished, so no change can later appear behind a position that was already handed out. The flip side is
+ * that a long-running writing transaction anywhere in the database holds back every change committed after it
+ * started, see {@link #heldBackSeconds()}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductChangeRepositoryImpl implements ProductChangeRepository {
+    private static final String FIND_AFTER = "select c.tx_id, c.change_id, c.product_id, c.change_type, "
+            + "p.id, p.name, p.description, p.price, p.stock, p.created_at, p.updated_at "
+            + "from product_changes c left join products p on p.id = c.product_id "
+            + "where (c.tx_id, c.change_id) > (?, ?) "
+            + "and c.tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint "
+            + "order by c.tx_id, c.change_id limit ?";
+    private static final String FIND_IDS_AFTER = "select tx_id, change_id, product_id, change_type from product_changes "
+            + "where (tx_id, change_id) > (?, ?) and tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint "
+            + "order by tx_id, change_id limit ?";
+    private static final String CURRENT_XMIN = "select pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+    private static final String HELD_BACK_SECONDS = "select coalesce(extract(epoch from localtimestamp - min(changed_at)), 0) "
+            + "from product_changes where tx_id >= pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+    private static final String DELETE_CHANGED_BEFORE = "delete from product_changes where changed_at < ?";
+
+    private static final RowMapper<ProductChange> CHANGE_MAPPER = (rs, rowNum) -> new ProductChange(
+            rs.getLong("tx_id"),
+            rs.getLong("change_id"),
+            rs.getLong("product_id"),
+            ProductChangeType.valueOf(rs.getString("change_type")),
+            rs.getObject("id") == null ? null : ProductRowMapper.INSTANCE.mapRow(rs, rowNum)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ProductChange> findAfter(long txId, long changeId, int limit) {
+        return jdbcTemplate.query(FIND_AFTER, CHANGE_MAPPER, txId, changeId, limit);
+    }
+
+    /**
+     * Like {@link #findAfter} but without the current product state.
+     */
+    @Override
+    public List<ProductChange> findIdsAfter(long txId, long changeId, int limit) {
+        return jdbcTemplate.query(FIND_IDS_AFTER, (rs, rowNum) -> new ProductChange(rs.getLong("tx_id"),
+                rs.getLong("change_id"), rs.getLong("product_id"), ProductChangeType.valueOf(rs.getString("change_type")),
+                null), txId, changeId, limit);
+    }
+
+    /**
+     * Every transaction that is still running, or starts later, has an id of at least this value.
+     */
+    @Override
+    public long currentXmin() {
+        return jdbcTemplate.queryForObject(CURRENT_XMIN, Long.class);
+    }
+
+    /**
+     * How long the oldest committed change has been waiting for an older transaction to finish, or 0 when
+     * nothing is held back.
+     */
+    @Override
+    public double heldBackSeconds() {
+        return jdbcTemplate.queryForObject(HELD_BACK_SECONDS, Double.class);
+    }
+
+    @Override
+    public int deleteChangedBefore(LocalDateTime before) {
+        return jdbcTemplate.update(DELETE_CHANGED_BEFORE, Timestamp.valueOf(before));
+    }
+}
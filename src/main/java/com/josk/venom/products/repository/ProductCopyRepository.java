@@ -0,0 +1,22 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.ProductImportRow;
+import com.josk.venom.products.dto.ProductTransferFormat;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductCopyRepository {
+    void copyOut(ProductTransferFormat format, OutputStream out, boolean header);
+
+    List<Long> allocateIds(int count);
+
+    UpsertResult upsert(Collection<ProductImportRow> rows, LocalDateTime now);
+
+    void alignSequence();
+
+    record UpsertResult(long inserted, long updated) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.ProductImportRow;
+import com.josk.venom.products.dto.ProductTransferFormat;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk transfer of products through the PostgreSQL COPY protocol. Imports are copied into a session-local
+ * staging table and merged into products with one upsert per chunk, so neither direction goes through JPA
+ * or holds more than a chunk in memory.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductCopyRepositoryImpl implements ProductCopyRepository {
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String EXPORT_CSV = "copy (select id, name, description, price, stock, created_at, updated_at "
+            + "from products order by id) to stdout with (format csv, header)";
+    private static final String EXPORT_CSV_ROWS = "copy (select id, name, description, price, stock, created_at, updated_at "
+            + "from products order by id) to stdout with (format csv)";
+    // row_to_json escapes control characters, so with quote and delimiter characters that cannot occur in its
+    // output COPY writes every object as is, one per line
+    private static final String EXPORT_NDJSON = "copy (select row_to_json(p) from (select id, name, description, price, "
+            + "stock, created_at as \"createdAt\", updated_at as \"updatedAt\" from products order by id) p) "
+            + "to stdout with (format csv, quote e'\\x01', delimiter e'\\x02')";
+    private static final String CREATE_STAGING = "create temp table if not exists product_import (id bigint, "
+            + "name varchar(255), description varchar(255), price double precision, stock integer) on commit delete rows";
+    private static final String COPY_STAGING = "copy product_import (id, name, description, price, stock) "
+            + "from stdin with (format csv)";
+    private static final String UPSERT = "with merged as (insert into products (id, name, description, price, stock, "
+            + "created_at, updated_at) select id, name, description, price, stock, ?, ? from product_import "
+            + "on conflict (id) do update set name = excluded.name, description = excluded.description, "
+            + "price = excluded.price, stock = excluded.stock, updated_at = excluded.updated_at "
+            + "returning xmax = 0 as inserted) "
+            + "select count(*) filter (where inserted) as inserted, count(*) filter (where not inserted) as updated from merged";
+    // ids come in the same pooled blocks Hibernate takes from products_seq: nextval returns the last id of a block
+    private static final String ALLOCATE_IDS = "select b.hi - n.i from (select nextval('products_seq') as hi "
+            + "from generate_series(1, ?)) b cross join generate_series(0, ?) as n(i) where b.hi - n.i > 0 order by 1";
+    private static final String ALIGN_SEQUENCE = "select setval('products_seq', m.max_id) "
+            + "from (select max(id) as max_id from products) m, products_seq s where m.max_id > s.last_value";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void copyOut(ProductTransferFormat format, OutputStream out, boolean header) {
+        String sql = format == ProductTransferFormat.NDJSON ? EXPORT_NDJSON : header ? EXPORT_CSV : EXPORT_CSV_ROWS;
+        jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public List<Long> allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_IDS, Long.class, blocks, ID_BLOCK_SIZE - 1);
+        return ids.size() > count ? ids.subList(0, count) : ids;
+    }
+
+    @Override
+    public UpsertResult upsert(Collection<ProductImportRow> rows, LocalDateTime now) {
+        jdbcTemplate.execute(CREATE_STAGING);
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(con.unwrap(PGConnection.class), COPY_STAGING), StandardCharsets.UTF_8))) {
+                for (ProductImportRow row : rows) {
+                    writeRow(writer, row);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.queryForObject(UPSERT, (rs, rowNum) -> new UpsertResult(rs.getLong("inserted"),
+                rs.getLong("updated")), timestamp, timestamp);
+    }
+
+    @Override
+    public void alignSequence() {
+        jdbcTemplate.query(ALIGN_SEQUENCE, rs -> {
+        });
+    }
+
+    private static void writeRow(Writer writer, ProductImportRow row) throws IOException {
+        writer.write(Long.toString(row.id()));
+        writer.write(',');
+        writeQuoted(writer, row.name());
+        writer.write(',');
+        writeQuoted(writer, row.description());
+        writer.write(',');
+        writer.write(Double.toString(row.price()));
+        writer.write(',');
+        writer.write(Integer.toString(row.stock()));
+        writer.write('\n');
+    }
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,16 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRelocationRepository {
+    List<Long> findIdsAfter(long afterId, int limit);
+
+    List<Product> lock(Collection<Long> ids);
+
+    int insertAbsent(List<Product> products);
+
+    int deleteAll(Collection<Long> ids);
+}
@@ -0,0 +1,81 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Copies product rows between shards while resharding. Rows are locked on the source shard for the duration
+ * of a move, and rows already present on the target are kept, since the target copy is the one writers see.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductRelocationRepositoryImpl implements ProductRelocationRepository {
+    private static final String FIND_IDS_AFTER = "select id from products where id > ? order by id limit ?";
+    private static final String LOCK = "select id, name, description, price, stock, created_at, updated_at "
+            + "from products where id = any(?) order by id for update skip locked";
+    private static final String INSERT_ABSENT = "insert into products (id, name, description, price, stock, "
+            + "created_at, updated_at) select ?, ?, ?, ?, ?, ?, ? where not exists (select 1 from products where id = ?)";
+    private static final String DELETE_ALL = "delete from products where id = any(?)";
+
+    private static final RowMapper<Product> PRODUCT_MAPPER = (rs, rowNum) -> Product.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .description(rs.getString("description"))
+            .price(rs.getDouble("price"))
+            .stock(rs.getInt("stock"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> findIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList(FIND_IDS_AFTER, Long.class, afterId, limit);
+    }
+
+    /**
+     * Locks the rows that exist and are not locked by a writer; the others are left for a later pass.
+     */
+    @Override
+    public List<Product> lock(Collection<Long> ids) {
+        return jdbcTemplate.query(LOCK, PRODUCT_MAPPER, (Object) ids.toArray(Long[]::new));
+    }
+
+    @Override
+    public int insertAbsent(List<Product> products) {
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_ABSENT, products, products.size(), (ps, product) -> {
+            ps.setLong(1, product.getId());
+            ps.setString(2, product.getName());
+            ps.setString(3, product.getDescription());
+            ps.setDouble(4, product.getPrice());
+            ps.setInt(5, product.getStock());
+            ps.setTimestamp(6, toTimestamp(product.getCreatedAt()));
+            ps.setTimestamp(7, toTimestamp(product.getUpdatedAt()));
+            ps.setLong(8, product.getId());
+        })[0];
+        return Arrays.stream(inserted).sum();
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) {
+        return jdbcTemplate.update(DELETE_ALL, (Object) ids.toArray(Long[]::new));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+}
@@ -1,9 +1,50 @@
 package com.josk.venom.products.repository;
 
+import com.josk.venom.products.dto.ProductResponse;
 import com.josk.venom.products.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    @Transactional(readOnly = true)
+    List<ProductResponse> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Transactional(readOnly = true)
+    Optional<ProductResponse> findResponseById(Long id);
+
+    @Transactional(readOnly = true)
+    List<ProductResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.id = :id")
+    int deleteProductById(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.id = :id and p.updatedAt = :updatedAt")
+    int deleteProductByIdAndUpdatedAt(Long id, LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity, p.updatedAt = :updatedAt where p.id = :id and p.stock >= :quantity")
+    int reserveStock(Long id, int quantity, LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update Product p set p.stock = p.stock + :quantity, p.updatedAt = :updatedAt where p.id = :id")
+    int releaseStock(Long id, int quantity, LocalDateTime updatedAt);
 }
@@ -0,0 +1,35 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.ProductPatch;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.dto.ProductSearchCriteria;
+import com.josk.venom.products.model.Product;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+public interface ProductRepositoryCustom {
+    void streamAll(int fetchSize, Consumer<ProductResponse> consumer);
+
+    void streamIds(int fetchSize, LongConsumer consumer);
+
+    Optional<ProductResponse> updateReturning(Long id, Product product);
+
+    Optional<ProductResponse> updateReturning(Long id, Product product, LocalDateTime expectedUpdatedAt);
+
+    Optional<ProductResponse> patchReturning(Long id, ProductPatch patch);
+
+    List<ProductResponse> search(ProductSearchCriteria criteria, int limit, int offset);
+
+    /**
+     * The first limit products matching a criteria with a text query, by relevance, with their rank, so
+     * results of several shards can be merged.
+     */
+    List<RankedProduct> searchRanked(ProductSearchCriteria criteria, int limit);
+
+    record RankedProduct(ProductResponse product, double rank) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.configuration.JpaAuditingConfig;
+import com.josk.venom.products.dto.ProductPatch;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.dto.ProductSearchCriteria;
+import com.josk.venom.products.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+@RequiredArgsConstructor
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+    private static final String COLUMNS = "id, name, description, price, stock, created_at, updated_at";
+    private static final String SELECT_ALL_ORDERED = "select " + COLUMNS + " from products order by id";
+    private static final String SELECT_IDS = "select id from products";
+    private static final String UPDATE_RETURNING = "update products set name = ?, description = ?, price = ?, stock = ?, "
+            + "updated_at = ? where id = ? returning " + COLUMNS;
+    private static final String UPDATE_IF_UNMODIFIED_RETURNING = "update products set name = ?, description = ?, price = ?, "
+            + "stock = ?, updated_at = ? where id = ? and updated_at = ? returning " + COLUMNS;
+    private static final String SEARCH_DOCUMENT = "to_tsvector('simple', name || ' ' || description)";
+    private static final String SEARCH_QUERY = "websearch_to_tsquery('simple', ?)";
+    private static final String SEARCH_RANK = "ts_rank(" + SEARCH_DOCUMENT + ", " + SEARCH_QUERY + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void streamAll(int fetchSize, Consumer<ProductResponse> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_ALL_ORDERED);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            consumer.accept(ProductRowMapper.INSTANCE.mapRow(rs, 0));
+        });
+    }
+
+    @Override
+    public void streamIds(int fetchSize, LongConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_IDS);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getLong(1));
+        });
+    }
+
+    @Override
+    public Optional<ProductResponse> updateReturning(Long id, Product product) {
+        List<ProductResponse> updated = jdbcTemplate.query(UPDATE_RETURNING, ProductRowMapper.INSTANCE,
+                product.getName(), product.getDescription(), product.getPrice(), product.getStock(), now(), id);
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public Optional<ProductResponse> updateReturning(Long id, Product product, LocalDateTime expectedUpdatedAt) {
+        List<ProductResponse> updated = jdbcTemplate.query(UPDATE_IF_UNMODIFIED_RETURNING, ProductRowMapper.INSTANCE,
+                product.getName(), product.getDescription(), product.getPrice(), product.getStock(), now(), id,
+                Timestamp.valueOf(expectedUpdatedAt));
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public Optional<ProductResponse> patchReturning(Long id, ProductPatch patch) {
+        StringBuilder sql = new StringBuilder("update products set ");
+        List<Object> args = new ArrayList<>(6);
+        if (patch.name() != null) {
+            sql.append("name = ?, ");
+            args.add(patch.name());
+        }
+        if (patch.description() != null) {
+            sql.append("description = ?, ");
+            args.add(patch.description());
+        }
+        if (patch.price() != null) {
+            sql.append("price = ?, ");
+            args.add(patch.price());
+        }
+        if (patch.stock() != null) {
+            sql.append("stock = ?, ");
+            args.add(patch.stock());
+        }
+        sql.append("updated_at = ? where id = ? returning ").append(COLUMNS);
+        args.add(now());
+        args.add(id);
+
+        List<ProductResponse> updated = jdbcTemplate.query(sql.toString(), ProductRowMapper.INSTANCE, args.toArray());
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public List<ProductResponse> search(ProductSearchCriteria criteria, int limit, int offset) {
+        StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(" from products where 1 = 1");
+        List<Object> args = new ArrayList<>(8);
+        appendFilters(criteria, sql, args);
+
+        switch (criteria.sort()) {
+            case RELEVANCE -> {
+                if (criteria.hasQuery()) {
+                    sql.append(" order by ").append(SEARCH_RANK).append(" desc, id");
+                    args.add(criteria.query());
+                } else {
+                    sql.append(" order by id");
+                }
+            }
+            case PRICE_ASC -> sql.append(" order by price, id");
+            case PRICE_DESC -> sql.append(" order by price desc, id");
+            case NAME -> sql.append(" order by name, id");
+            case NEWEST -> sql.append(" order by created_at desc, id desc");
+        }
+        sql.append(" limit ? offset ?");
+        args.add(limit);
+        args.add(offset);
+
+        return jdbcTemplate.query(sql.toString(), ProductRowMapper.INSTANCE, args.toArray());
+    }
+
+    @Override
+    public List<RankedProduct> searchRanked(ProductSearchCriteria criteria, int limit) {
+        StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(", ").append(SEARCH_RANK)
+                .append(" as rank from products where 1 = 1");
+        List<Object> args = new ArrayList<>(8);
+        args.add(criteria.query());
+        appendFilters(criteria, sql, args);
+        sql.append(" order by rank desc, id limit ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new RankedProduct(ProductRowMapper.INSTANCE.mapRow(rs, rowNum), rs.getDouble("rank")),
+                args.toArray());
+    }
+
+    private static void appendFilters(ProductSearchCriteria criteria, StringBuilder sql, List<Object> args) {
+        if (criteria.hasQuery()) {
+            sql.append(" and ").append(SEARCH_DOCUMENT).append(" @@ ").append(SEARCH_QUERY);
+            args.add(criteria.query());
+        }
+        if (criteria.minPrice() != null) {
+            sql.append(" and price >= ?");
+            args.add(criteria.minPrice());
+        }
+        if (criteria.maxPrice() != null) {
+            sql.append(" and price <= ?");
+            args.add(criteria.maxPrice());
+        }
+        if (criteria.inStock()) {
+            sql.append(" and stock > 0");
+        }
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(JpaAuditingConfig.now());
+    }
+}
@@ -0,0 +1,30 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.ProductResponse;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+class ProductRowMapper implements RowMapper<ProductResponse> {
+    static final ProductRowMapper INSTANCE = new ProductRowMapper();
+
+    @Override
+    public ProductResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ProductResponse(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getDouble("price"),
+                rs.getInt("stock"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at"))
+        );
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,13 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.ProductStats;
+
+public interface ProductStatsRepository {
+    ProductStats findStats();
+
+    ProductStats findCorrection();
+
+    boolean lockForRecompute();
+
+    void recompute();
+}
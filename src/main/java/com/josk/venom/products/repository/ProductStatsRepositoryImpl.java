@@ -0,0 +1,90 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.PriceBand;
+import com.josk.venom.products.dto.ProductStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Reads the catalog counters that the products_stats triggers keep up to date (see db/migration). The
+ * counters are spread over a handful of slot rows, so reading them costs the same for any catalog size.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductStatsRepositoryImpl implements ProductStatsRepository {
+    private static final long RECOMPUTE_LOCK_KEY = 0x70726f6473746174L;
+
+    private static final String FIND_TOTALS = "select coalesce(sum(products), 0) as products, "
+            + "coalesce(sum(stock_value), 0) as stock_value, coalesce(sum(out_of_stock), 0) as out_of_stock "
+            + "from product_stats";
+    private static final String FIND_BANDS = "select band, sum(products) as products from product_price_bands "
+            + "group by band having sum(products) <> 0 order by band";
+    private static final String FIND_CORRECTION_TOTALS = "select coalesce(sum(products), 0) as products, "
+            + "coalesce(sum(stock_value), 0) as stock_value, coalesce(sum(out_of_stock), 0) as out_of_stock "
+            + "from product_stats where slot = 16";
+    private static final String FIND_CORRECTION_BANDS = "select band, products from product_price_bands "
+            + "where slot = 16 and products <> 0 order by band";
+    private static final String TRY_LOCK = "select pg_try_advisory_xact_lock(?)";
+    private static final String RECOMPUTE_TOTALS = "insert into product_stats (slot, products, stock_value, out_of_stock) "
+            + "select 16, c.products - s.products, c.stock_value - s.stock_value, c.out_of_stock - s.out_of_stock "
+            + "from (select count(*) as products, coalesce(sum(price * stock), 0) as stock_value, "
+            + "count(*) filter (where stock <= 0) as out_of_stock from products) c, "
+            + "(select coalesce(sum(products), 0) as products, coalesce(sum(stock_value), 0) as stock_value, "
+            + "coalesce(sum(out_of_stock), 0) as out_of_stock from product_stats where slot <> 16) s "
+            + "on conflict (slot) do update set products = excluded.products, stock_value = excluded.stock_value, "
+            + "out_of_stock = excluded.out_of_stock";
+    private static final String RECOMPUTE_BANDS = "insert into product_price_bands (slot, band, products) "
+            + "select 16, band, sum(products) from ("
+            + "select product_price_band(price) as band, count(*) as products from products group by 1 "
+            + "union all select band, -products from product_price_bands where slot <> 16 "
+            + "union all select band, 0 from product_price_bands where slot = 16) d group by band "
+            + "on conflict (slot, band) do update set products = excluded.products";
+
+    private static final RowMapper<PriceBand> BAND_MAPPER = (rs, rowNum) -> priceBand(rs.getInt("band"), rs.getLong("products"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public ProductStats findStats() {
+        List<PriceBand> bands = jdbcTemplate.query(FIND_BANDS, BAND_MAPPER);
+        return jdbcTemplate.queryForObject(FIND_TOTALS, (rs, rowNum) -> new ProductStats(
+                rs.getLong("products"), rs.getDouble("stock_value"), rs.getLong("out_of_stock"), bands));
+    }
+
+    @Override
+    public ProductStats findCorrection() {
+        List<PriceBand> bands = jdbcTemplate.query(FIND_CORRECTION_BANDS, BAND_MAPPER);
+        return jdbcTemplate.queryForObject(FIND_CORRECTION_TOTALS, (rs, rowNum) -> new ProductStats(
+                rs.getLong("products"), rs.getDouble("stock_value"), rs.getLong("out_of_stock"), bands));
+    }
+
+    /**
+     * Takes the reconciliation lock until the transaction ends. Returns false without waiting when another
+     * instance is already reconciling. Counter updates are not blocked.
+     */
+    @Override
+    public boolean lockForRecompute() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class, RECOMPUTE_LOCK_KEY));
+    }
+
+    /**
+     * Sets the correction slot to the recount minus the writers' slots. Each statement reads products and
+     * counters from one snapshot, in which every committed write has updated both, so writes running
+     * concurrently are neither waited for nor double counted.
+     */
+    @Override
+    public void recompute() {
+        jdbcTemplate.update(RECOMPUTE_TOTALS);
+        jdbcTemplate.update(RECOMPUTE_BANDS);
+    }
+
+    static PriceBand priceBand(int band, long products) {
+        return band == 0
+                ? new PriceBand(0, 1, products)
+                : new PriceBand(Math.scalb(1.0, band - 1), Math.scalb(1.0, band), products);
+    }
+}
@@ -0,0 +1,23 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.StockAdjustment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SortedMap;
+
+public interface StockAdjustmentRepository {
+    long enqueue(SortedMap<Long, Integer> deltas);
+
+    long countPending();
+
+    long firstPendingPosition();
+
+    boolean tryLockFlush();
+
+    List<StockAdjustment> takeBatch(int limit);
+
+    List<Long> apply(SortedMap<Long, Integer> deltas, LocalDateTime updatedAt);
+
+    List<Long> applyEach(SortedMap<Long, Integer> deltas, LocalDateTime updatedAt);
+}
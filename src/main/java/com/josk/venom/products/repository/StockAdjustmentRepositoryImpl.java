@@ -0,0 +1,107 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.StockAdjustment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Staging queue for write-behind stock adjustments (see db/migration). Queued rows are applied to products
+ * by a single flusher at a time, which locks the affected products in id order like the synchronous stock
+ * paths do, so flushes cannot deadlock with reservations.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockAdjustmentRepositoryImpl implements StockAdjustmentRepository {
+    private static final long FLUSH_LOCK_KEY = 0x73746f636b666c75L;
+
+    private static final String ENQUEUE = "with queued as (insert into stock_adjustments (product_id, delta) "
+            + "select * from unnest(?::bigint[], ?::int[]) returning id) select max(id) from queued";
+    private static final String COUNT_PENDING = "select count(*) from stock_adjustments";
+    private static final String FIRST_PENDING = "select min(id) from stock_adjustments";
+    private static final String TRY_LOCK = "select pg_try_advisory_xact_lock(?)";
+    private static final String TAKE_BATCH = "delete from stock_adjustments where id in "
+            + "(select id from stock_adjustments order by id limit ?) returning product_id, delta";
+    private static final String LOCK_PRODUCTS = "select id from products where id = any(?) order by id for update";
+    private static final String APPLY = "update products p set stock = p.stock + t.delta, updated_at = ? "
+            + "from unnest(?::bigint[], ?::int[]) as t (id, delta) where p.id = t.id returning p.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long enqueue(SortedMap<Long, Integer> deltas) {
+        return jdbcTemplate.queryForObject(ENQUEUE, Long.class, ids(deltas), values(deltas));
+    }
+
+    @Override
+    public long countPending() {
+        return jdbcTemplate.queryForObject(COUNT_PENDING, Long.class);
+    }
+
+    /**
+     * Position of the oldest adjustment still queued, or {@link Long#MAX_VALUE} when the queue is empty.
+     */
+    @Override
+    public long firstPendingPosition() {
+        Long first = jdbcTemplate.queryForObject(FIRST_PENDING, Long.class);
+        return first == null ? Long.MAX_VALUE : first;
+    }
+
+    @Override
+    public boolean tryLockFlush() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class, FLUSH_LOCK_KEY));
+    }
+
+    @Override
+    public List<StockAdjustment> takeBatch(int limit) {
+        return jdbcTemplate.query(TAKE_BATCH,
+                (rs, rowNum) -> new StockAdjustment(rs.getLong("product_id"), rs.getInt("delta")), limit);
+    }
+
+    @Override
+    public List<Long> apply(SortedMap<Long, Integer> deltas, LocalDateTime updatedAt) {
+        Long[] ids = ids(deltas);
+        jdbcTemplate.queryForList(LOCK_PRODUCTS, Long.class, (Object) ids);
+        return jdbcTemplate.queryForList(APPLY, Long.class, Timestamp.valueOf(updatedAt), ids, values(deltas));
+    }
+
+    /**
+     * Applies every delta behind its own savepoint and returns the ids that were updated. A delta the
+     * database rejects, such as one that overflows the stock column, is rolled back and left out.
+     */
+    @Override
+    public List<Long> applyEach(SortedMap<Long, Integer> deltas, LocalDateTime updatedAt) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> applied = new ArrayList<>();
+            for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    applied.addAll(apply(new TreeMap<>(Map.of(delta.getKey(), delta.getValue())), updatedAt));
+                    connection.releaseSavepoint(savepoint);
+                } catch (DataAccessException e) {
+                    connection.rollback(savepoint);
+                }
+            }
+            return applied;
+        });
+    }
+
+    private static Long[] ids(SortedMap<Long, Integer> deltas) {
+        return deltas.keySet().toArray(Long[]::new);
+    }
+
+    private static Integer[] values(SortedMap<Long, Integer> deltas) {
+        return deltas.values().toArray(Integer[]::new);
+    }
+}
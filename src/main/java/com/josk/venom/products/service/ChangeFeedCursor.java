@@ -0,0 +1,37 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.exception.InvalidRequestException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Position in the change feed. Changes are ordered by the id of the writing transaction and then by
+ * change id, so a position never skips a change that commits after it was handed out.
+ */
+public record ChangeFeedCursor(long txId, long changeId) {
+    public static final ChangeFeedCursor START = new ChangeFeedCursor(0L, 0L);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        return ENCODER.encodeToString(ByteBuffer.allocate(2 * Long.BYTES).putLong(txId).putLong(changeId).array());
+    }
+
+    public static ChangeFeedCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != 2 * Long.BYTES) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new ChangeFeedCursor(buffer.getLong(), buffer.getLong());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
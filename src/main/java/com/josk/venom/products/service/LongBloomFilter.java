@@ -0,0 +1,56 @@
+package com.josk.venom.products.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Bloom filter over long keys. Adds and lookups are lock-free, so the filter can be updated while it
+ * serves reads.
+ */
+final class LongBloomFilter {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+
+    LongBloomFilter(long expectedKeys, double falsePositiveRate) {
+        long keys = Math.max(1, expectedKeys);
+        double bits = -keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.words = new long[(int) Math.min(MAX_WORDS, Math.max(1, (long) Math.ceil(bits / Long.SIZE)))];
+        this.bitCount = (long) words.length * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / keys * Math.log(2)));
+    }
+
+    void add(long key) {
+        long hash = mix(key);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++, hash += step) {
+            long bit = Math.floorMod(hash, bitCount);
+            WORDS.getAndBitwiseOr(words, (int) (bit >>> 6), 1L << bit);
+        }
+    }
+
+    boolean mightContain(long key) {
+        long hash = mix(key);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++, hash += step) {
+            long bit = Math.floorMod(hash, bitCount);
+            if (((long) WORDS.getVolatile(words, (int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,12 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.dto.BatchResult;
+import com.josk.venom.products.model.Product;
+
+import java.util.List;
+
+public interface ProductBatchService {
+   BatchResult createProducts(List<Product> products);
+   BatchResult updateProducts(List<Product> products);
+   BatchResult deleteProducts(List<Long> ids);
+}
@@ -0,0 +1,212 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.BatchProperties;
+import com.josk.venom.products.configuration.CacheConfig;
+import com.josk.venom.products.dto.BatchItemResult;
+import com.josk.venom.products.dto.BatchItemStatus;
+import com.josk.venom.products.dto.BatchResult;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(value = "product.service", histogram = true)
+@RequiredArgsConstructor
+public class ProductBatchServiceImpl implements ProductBatchService {
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final BatchProperties batchProperties;
+    private final ProductExistenceFilter productExistenceFilter;
+    private final ProductShards productShards;
+
+    @Override
+    public BatchResult createProducts(List<Product> products) {
+        checkBatchSize(products);
+        BatchItemResult[] results = new BatchItemResult[products.size()];
+
+        Map<String, List<Integer>> byShard = new LinkedHashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            String error = validate(product);
+            if (error != null) {
+                results[i] = BatchItemResult.failure(i, null, BatchItemStatus.INVALID, error);
+                continue;
+            }
+            product.setId(productShards.newId());
+            String shard = product.getId() == null ? productShards.shards().get(0) : productShards.ownerOf(product.getId());
+            byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+        }
+        byShard.forEach((shard, indices) -> productShards.inTransaction(shard, () -> create(products, indices, results)));
+        return BatchResult.of(Arrays.asList(results));
+    }
+
+    @Override
+    public BatchResult updateProducts(List<Product> products) {
+        checkBatchSize(products);
+        BatchItemResult[] results = new BatchItemResult[products.size()];
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            String error = product == null || product.getId() == null ? "id: must not be null" : validate(product);
+            if (error != null) {
+                results[i] = BatchItemResult.failure(i, product == null ? null : product.getId(), BatchItemStatus.INVALID, error);
+            } else {
+                valid.add(i);
+            }
+        }
+        byShard(valid, i -> products.get(i).getId())
+                .forEach((shard, indices) -> productShards.inTransaction(shard, () -> update(products, indices, results)));
+        return BatchResult.of(Arrays.asList(results));
+    }
+
+    @Override
+    public BatchResult deleteProducts(List<Long> ids) {
+        checkBatchSize(ids);
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = BatchItemResult.failure(i, null, BatchItemStatus.INVALID, "id: must not be null");
+            } else {
+                valid.add(i);
+            }
+        }
+        byShard(valid, ids::get)
+                .forEach((shard, indices) -> productShards.inTransaction(shard, () -> delete(ids, indices, results)));
+        return BatchResult.of(Arrays.asList(results));
+    }
+
+    private void create(List<Product> products, List<Integer> indices, BatchItemResult[] results) {
+        int pending = 0;
+        for (int i : indices) {
+            Product product = products.get(i);
+            entityManager.persist(product);
+            productExistenceFilter.added(product.getId());
+            results[i] = BatchItemResult.success(i, product.getId(), BatchItemStatus.CREATED);
+            if (++pending == batchProperties.getFlushSize()) {
+                flushAndClear();
+                pending = 0;
+            }
+        }
+        flushAndClear();
+    }
+
+    private void update(List<Product> products, List<Integer> indices, BatchItemResult[] results) {
+        Cache cache = productCache();
+        for (int from = 0; from < indices.size(); from += batchProperties.getFlushSize()) {
+            List<Integer> chunk = indices.subList(from, Math.min(from + batchProperties.getFlushSize(), indices.size()));
+            Set<Long> ids = new HashSet<>();
+            chunk.forEach(i -> ids.add(products.get(i).getId()));
+            Map<Long, Product> existing = productRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            for (int i : chunk) {
+                Product product = products.get(i);
+                Product existingProduct = existing.get(product.getId());
+                if (existingProduct == null) {
+                    results[i] = BatchItemResult.failure(i, product.getId(), BatchItemStatus.NOT_FOUND,
+                            "Product not found with id: " + product.getId());
+                    continue;
+                }
+                existingProduct.setName(product.getName());
+                existingProduct.setDescription(product.getDescription());
+                existingProduct.setPrice(product.getPrice());
+                existingProduct.setStock(product.getStock());
+                results[i] = BatchItemResult.success(i, product.getId(), BatchItemStatus.UPDATED);
+            }
+            flushAndClear();
+            ids.forEach(cache::evict);
+        }
+    }
+
+    private void delete(List<Long> ids, List<Integer> indices, BatchItemResult[] results) {
+        Cache cache = productCache();
+        for (int from = 0; from < indices.size(); from += batchProperties.getFlushSize()) {
+            List<Integer> chunk = indices.subList(from, Math.min(from + batchProperties.getFlushSize(), indices.size()));
+            Set<Long> requested = new HashSet<>();
+            chunk.forEach(i -> requested.add(ids.get(i)));
+            List<Long> existing = productRepository.findExistingIds(requested);
+            if (!existing.isEmpty()) {
+                productRepository.deleteAllByIdInBatch(existing);
+            }
+            Set<Long> deleted = new HashSet<>(existing);
+
+            for (int i : chunk) {
+                Long id = ids.get(i);
+                if (deleted.remove(id)) {
+                    results[i] = BatchItemResult.success(i, id, BatchItemStatus.DELETED);
+                } else {
+                    results[i] = BatchItemResult.failure(i, id, BatchItemStatus.NOT_FOUND, "Product not found with id: " + id);
+                }
+            }
+            existing.forEach(cache::evict);
+        }
+    }
+
+    /**
+     * Item indices grouped by the shard holding their product. Each group is written in its own transaction,
+     * so a batch spanning several shards is not atomic.
+     */
+    private Map<String, List<Integer>> byShard(List<Integer> indices, IntFunction<Long> idOf) {
+        Map<Long, List<Integer>> byId = new LinkedHashMap<>();
+        indices.forEach(i -> byId.computeIfAbsent(idOf.apply(i), id -> new ArrayList<>()).add(i));
+        Map<String, List<Integer>> byShard = new LinkedHashMap<>();
+        productShards.locate(byId.keySet()).forEach((shard, ids) ->
+                byShard.put(shard, ids.stream().flatMap(id -> byId.get(id).stream()).sorted().toList()));
+        return byShard;
+    }
+
+    private void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one item");
+        }
+        if (items.size() > batchProperties.getMaxItems()) {
+            throw new InvalidRequestException("Batch must not contain more than " + batchProperties.getMaxItems() + " items");
+        }
+    }
+
+    private String validate(Product product) {
+        if (product == null) {
+            return "item must not be null";
+        }
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        List<String> messages = new ArrayList<>(violations.size());
+        violations.forEach(v -> messages.add(v.getPropertyPath() + ": " + v.getMessage()));
+        return String.join(", ", messages);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Cache productCache() {
+        return cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+    }
+}
@@ -0,0 +1,10 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.dto.ProductChangePage;
+
+public interface ProductChangeService {
+   ProductChangePage getChanges(String since, Integer limit);
+   String checkCursor(String since);
+   void purgeExpiredChanges();
+   void measureLag();
+}
@@ -0,0 +1,172 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.ChangeFeedProperties;
+import com.josk.venom.products.dto.ProductChange;
+import com.josk.venom.products.dto.ProductChangeEvent;
+import com.josk.venom.products.dto.ProductChangePage;
+import com.josk.venom.products.dto.ProductChangeType;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.repository.ProductChangeRepository;
+import com.josk.venom.products.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Timed(value = "product.service", histogram = true)
+public class ProductChangeServiceImpl implements ProductChangeService {
+    static final String LAG_GAUGE = "products.changes.lag";
+
+    private final ProductChangeRepository productChangeRepository;
+    private final ProductRepository productRepository;
+    private final ChangeFeedProperties changeFeedProperties;
+    private final ProductShards productShards;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public ProductChangeServiceImpl(ProductChangeRepository productChangeRepository, ProductRepository productRepository,
+                                    ChangeFeedProperties changeFeedProperties, ProductShards productShards,
+                                    MeterRegistry meterRegistry) {
+        this.productChangeRepository = productChangeRepository;
+        this.productRepository = productRepository;
+        this.changeFeedProperties = changeFeedProperties;
+        this.productShards = productShards;
+        if (changeFeedProperties.isLagEnabled()) {
+            Gauge.builder(LAG_GAUGE, lagMillis, millis -> millis.get() / 1000.0)
+                    .description("How long committed changes have been held back by an older running transaction")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public ProductChangePage getChanges(String since, Integer limit) {
+        if (productShards.isSharded()) {
+            return getShardedChanges(ShardedChangeFeedCursor.decode(since), resolveLimit(limit));
+        }
+        ChangeFeedCursor position = ChangeFeedCursor.decode(since);
+        int pageLimit = resolveLimit(limit);
+
+        List<ProductChange> changes = productChangeRepository.findAfter(position.txId(), position.changeId(), pageLimit);
+        if (changes.isEmpty()) {
+            return new ProductChangePage(List.of(), position.encode(), false);
+        }
+        ProductChange last = changes.get(changes.size() - 1);
+        return new ProductChangePage(coalesce(changes),
+                new ChangeFeedCursor(last.txId(), last.changeId()).encode(), changes.size() == pageLimit);
+    }
+
+    @Override
+    public String checkCursor(String since) {
+        return productShards.isSharded() ? ShardedChangeFeedCursor.decode(since).encode() : ChangeFeedCursor.decode(since).encode();
+    }
+
+    /**
+     * Reads every shard from its own position and takes their changes in turns, so a busy shard cannot starve
+     * the others, until the page is full. A product moved by resharding shows up as created on its new shard
+     * and deleted on the old one, in no particular order; deletions are therefore checked against the shard
+     * now holding the product and reported with its current state if it still exists.
+     */
+    private ProductChangePage getShardedChanges(ShardedChangeFeedCursor position, int pageLimit) {
+        Map<String, List<ProductChange>> byShard = productShards.onShards(productShards.shards(), shard ->
+                productChangeRepository.findAfter(position.of(shard).txId(), position.of(shard).changeId(), pageLimit));
+        List<ProductChange> changes = new ArrayList<>();
+        Map<String, Integer> taken = new HashMap<>();
+        for (int i = 0; changes.size() < pageLimit; i++) {
+            int before = changes.size();
+            for (Map.Entry<String, List<ProductChange>> shard : byShard.entrySet()) {
+                if (i < shard.getValue().size() && changes.size() < pageLimit) {
+                    changes.add(shard.getValue().get(i));
+                    taken.put(shard.getKey(), i + 1);
+                }
+            }
+            if (changes.size() == before) {
+                break;
+            }
+        }
+        ShardedChangeFeedCursor next = position;
+        boolean hasMore = false;
+        for (Map.Entry<String, List<ProductChange>> shard : byShard.entrySet()) {
+            int count = taken.getOrDefault(shard.getKey(), 0);
+            if (count > 0) {
+                ProductChange last = shard.getValue().get(count - 1);
+                next = next.with(shard.getKey(), new ChangeFeedCursor(last.txId(), last.changeId()));
+            }
+            hasMore |= count < shard.getValue().size() || count == pageLimit;
+        }
+        return new ProductChangePage(withCurrentState(coalesce(changes)), next.encode(), hasMore);
+    }
+
+    private List<ProductChangeEvent> withCurrentState(List<ProductChangeEvent> events) {
+        List<Long> deleted = events.stream().filter(event -> event.type() == ProductChangeType.DELETED)
+                .map(ProductChangeEvent::productId).toList();
+        if (deleted.isEmpty()) {
+            return events;
+        }
+        Map<Long, ProductResponse> existing = new HashMap<>();
+        Map<String, List<Long>> byShard = productShards.locate(deleted);
+        productShards.onShards(byShard.keySet(), shard -> productRepository.findResponsesByIdIn(byShard.get(shard)))
+                .values().forEach(products -> products.forEach(product -> existing.put(product.id(), product)));
+        return events.stream().map(event -> existing.containsKey(event.productId())
+                ? new ProductChangeEvent(event.productId(), ProductChangeType.UPDATED, existing.get(event.productId()))
+                : event).toList();
+    }
+
+    private static List<ProductChangeEvent> coalesce(List<ProductChange> changes) {
+        Map<Long, ProductChangeEvent> latest = new LinkedHashMap<>();
+        for (ProductChange change : changes) {
+            latest.remove(change.productId());
+            latest.put(change.productId(), toEvent(change));
+        }
+        return List.copyOf(latest.values());
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${products.changes.purge-interval:PT1H}", fixedDelayString = "${products.changes.purge-interval:PT1H}")
+    public void purgeExpiredChanges() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(changeFeedProperties.getRetention());
+        for (String shard : productShards.shards()) {
+            productShards.inTransaction(shard, () -> productChangeRepository.deleteChangedBefore(cutoff));
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${products.changes.poll-interval:PT1S}")
+    public void measureLag() {
+        if (!changeFeedProperties.isLagEnabled()) {
+            return;
+        }
+        double heldBackSeconds = productShards.isSharded()
+                ? productShards.gather(productChangeRepository::heldBackSeconds).stream().mapToDouble(Double::doubleValue).max().orElse(0)
+                : productChangeRepository.heldBackSeconds();
+        lagMillis.set(Math.round(heldBackSeconds * 1000));
+    }
+
+    private static ProductChangeEvent toEvent(ProductChange change) {
+        if (change.product() == null) {
+            return new ProductChangeEvent(change.productId(), ProductChangeType.DELETED, null);
+        }
+        return new ProductChangeEvent(change.productId(), change.type(), change.product());
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return changeFeedProperties.getDefaultLimit();
+        }
+        if (limit < 1 || limit > changeFeedProperties.getMaxLimit()) {
+            throw new InvalidRequestException("Limit must be between 1 and " + changeFeedProperties.getMaxLimit());
+        }
+        return limit;
+    }
+}
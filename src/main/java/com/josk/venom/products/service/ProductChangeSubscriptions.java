@@ -0,0 +1,113 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.ChangeFeedProperties;
+import com.josk.venom.products.dto.ProductChangePage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds long-poll and SSE consumers of the change feed and serves all of them from one polling loop,
+ * so idle consumers cost one query per distinct position per poll interval instead of a request each.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeSubscriptions {
+    private final ProductChangeService productChangeService;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public DeferredResult<ProductChangePage> await(String since, Integer limit, Duration wait) {
+        ProductChangePage page = productChangeService.getChanges(since, limit);
+        Duration timeout = wait.compareTo(changeFeedProperties.getMaxWait()) > 0 ? changeFeedProperties.getMaxWait() : wait;
+        DeferredResult<ProductChangePage> result = new DeferredResult<>(timeout.toMillis(), page);
+        if (!page.changes().isEmpty() || timeout.isZero()) {
+            result.setResult(page);
+            return result;
+        }
+        Waiter waiter = new Waiter(page.nextCursor(), limit, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        return result;
+    }
+
+    public SseEmitter subscribe(String since) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(changeFeedProperties.getSseTimeout().toMillis()),
+                productChangeService.checkCursor(since));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        deliver(subscriber);
+        return subscriber.emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${products.changes.poll-interval:PT1S}")
+    public void poll() {
+        if (waiters.isEmpty() && subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, ProductChangePage> pages = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            ProductChangePage page = pages.computeIfAbsent(waiter.cursor + "/" + waiter.limit,
+                    key -> productChangeService.getChanges(waiter.cursor, waiter.limit));
+            if (!page.changes().isEmpty()) {
+                waiter.result.setResult(page);
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            deliver(subscriber);
+        }
+    }
+
+    int activeSubscriptions() {
+        return waiters.size() + subscribers.size();
+    }
+
+    private void deliver(Subscriber subscriber) {
+        synchronized (subscriber) {
+            try {
+                ProductChangePage page;
+                do {
+                    page = productChangeService.getChanges(subscriber.cursor, null);
+                    if (page.changes().isEmpty()) {
+                        return;
+                    }
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(page.nextCursor())
+                            .name("changes")
+                            .data(page, MediaType.APPLICATION_JSON));
+                    subscriber.cursor = page.nextCursor();
+                } while (page.hasMore());
+            } catch (IOException | RuntimeException e) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private record Waiter(String cursor, Integer limit, DeferredResult<ProductChangePage> result) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private String cursor;
+
+        private Subscriber(SseEmitter emitter, String cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
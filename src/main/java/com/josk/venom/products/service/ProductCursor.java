@@ -0,0 +1,30 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.exception.InvalidRequestException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+public final class ProductCursor {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private ProductCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+    }
+
+    public static long decode(String cursor) {
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != Long.BYTES) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+            return ByteBuffer.wrap(bytes).getLong();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
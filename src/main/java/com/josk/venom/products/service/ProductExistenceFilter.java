@@ -0,0 +1,131 @@
+package com.josk.venom.products.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.josk.venom.products.configuration.LookupProperties;
+import com.josk.venom.products.dto.ProductChange;
+import com.josk.venom.products.dto.ProductChangeType;
+import com.josk.venom.products.repository.ProductChangeRepository;
+import com.josk.venom.products.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Tells lookups of ids that cannot exist apart without a query: a Bloom filter of every product id plus a
+ * short-lived cache of ids recently found missing. The filter is built at startup and rebuilt every
+ * {@code rebuild-interval}, which also drops deleted ids; in between, writes of every instance are added
+ * from the change feed, so a product created elsewhere can be reported missing for about one sync interval.
+ */
+@Component
+public class ProductExistenceFilter {
+    private static final int SCAN_FETCH_SIZE = 10_000;
+    private static final int SYNC_PAGE_SIZE = 1_000;
+
+    private final ProductRepository productRepository;
+    private final ProductChangeRepository productChangeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LookupProperties.ExistenceFilter properties;
+    private final Cache<Long, Boolean> misses;
+
+    private volatile LongBloomFilter filter;
+    private ChangeFeedCursor cursor = ChangeFeedCursor.START;
+
+    public ProductExistenceFilter(ProductRepository productRepository, ProductChangeRepository productChangeRepository,
+                                  PlatformTransactionManager transactionManager, LookupProperties lookupProperties) {
+        this.productRepository = productRepository;
+        this.productChangeRepository = productChangeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = lookupProperties.getExistenceFilter();
+        this.misses = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getNegativeCacheTtl())
+                .maximumSize(properties.getNegativeCacheSize())
+                .build();
+    }
+
+    /**
+     * False only when the product certainly does not exist. Always true while the filter is disabled or
+     * not built yet.
+     */
+    public boolean mightExist(long id) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        LongBloomFilter current = filter;
+        return (current == null || current.mightContain(id)) && misses.getIfPresent(id) == null;
+    }
+
+    /**
+     * Records a committed lookup or delete that found no product.
+     */
+    public void recordMiss(long id) {
+        if (properties.isEnabled()) {
+            misses.put(id, Boolean.TRUE);
+        }
+    }
+
+    public void added(long id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LongBloomFilter current = filter;
+        if (current != null) {
+            current.add(id);
+        }
+        misses.invalidate(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${products.lookup.existence-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${products.lookup.existence-filter.rebuild-interval:PT1H}")
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LongBloomFilter rebuilt = transactionTemplate.execute(status -> {
+            // changes of transactions the scan cannot see are replayed from the change feed below
+            long xmin = productChangeRepository.currentXmin();
+            long expected = Math.max(properties.getExpectedProducts(), 2 * productRepository.count());
+            LongBloomFilter scanned = new LongBloomFilter(expected, properties.getFalsePositiveRate());
+            productRepository.streamIds(SCAN_FETCH_SIZE, scanned::add);
+            cursor = new ChangeFeedCursor(xmin - 1, Long.MAX_VALUE);
+            return scanned;
+        });
+        cursor = replay(rebuilt, cursor);
+        filter = rebuilt;
+    }
+
+    @Scheduled(fixedDelayString = "${products.lookup.existence-filter.sync-interval:PT1S}")
+    public synchronized void sync() {
+        LongBloomFilter current = filter;
+        if (properties.isEnabled() && current != null) {
+            cursor = replay(current, cursor);
+        }
+    }
+
+    private ChangeFeedCursor replay(LongBloomFilter target, ChangeFeedCursor from) {
+        List<ProductChange> changes;
+        do {
+            changes = productChangeRepository.findIdsAfter(from.txId(), from.changeId(), SYNC_PAGE_SIZE);
+            for (ProductChange change : changes) {
+                if (change.type() == ProductChangeType.DELETED) {
+                    misses.put(change.productId(), Boolean.TRUE);
+                } else {
+                    target.add(change.productId());
+                    misses.invalidate(change.productId());
+                }
+                from = new ChangeFeedCursor(change.txId(), change.changeId());
+            }
+        } while (changes.size() == SYNC_PAGE_SIZE);
+        return from;
+    }
+}
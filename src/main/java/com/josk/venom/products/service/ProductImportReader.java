@@ -0,0 +1,119 @@
+package com.josk.venom.products.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.josk.venom.products.dto.ProductImportRow;
+import com.josk.venom.products.dto.ProductTransferFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads import rows one at a time. A row that cannot be converted is returned with an error and the import
+ * goes on; input that cannot be split into rows any more (broken CSV quoting, I/O errors) fails with an
+ * {@link IOException}.
+ */
+abstract class ProductImportReader implements Closeable {
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder().enable(CsvParser.Feature.SKIP_EMPTY_LINES).build();
+
+    static ProductImportReader of(ProductTransferFormat format, Reader reader, ObjectMapper objectMapper) throws IOException {
+        return format == ProductTransferFormat.NDJSON
+                ? new NdjsonReader(new BufferedReader(reader), objectMapper)
+                : new CsvReader(reader);
+    }
+
+    /**
+     * The next row, or null at the end of the input.
+     */
+    abstract Entry next() throws IOException;
+
+    record Entry(long line, ProductImportRow row, String error) {
+    }
+
+    private static final class NdjsonReader extends ProductImportReader {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        private NdjsonReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Entry next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                if (text == null) {
+                    return null;
+                }
+                line++;
+            } while (text.isBlank());
+            try {
+                return new Entry(line, objectMapper.readValue(text, ProductImportRow.class), null);
+            } catch (JsonProcessingException e) {
+                return new Entry(line, null, "malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class CsvReader extends ProductImportReader {
+        private final MappingIterator<Map<String, String>> rows;
+
+        private CsvReader(Reader reader) throws IOException {
+            this.rows = CSV_MAPPER.readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(reader);
+        }
+
+        @Override
+        Entry next() throws IOException {
+            if (!rows.hasNextValue()) {
+                return null;
+            }
+            long line = rows.getCurrentLocation().getLineNr();
+            Map<String, String> values = rows.nextValue();
+            try {
+                return new Entry(line, new ProductImportRow(
+                        parse(values, "id", Long::valueOf),
+                        values.get("name"),
+                        values.get("description"),
+                        parse(values, "price", Double::valueOf),
+                        parse(values, "stock", Integer::valueOf)), null);
+            } catch (NumberFormatException e) {
+                return new Entry(line, null, e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+
+        private static <T> T parse(Map<String, String> values, String column, Function<String, T> parser) {
+            String value = values.get(column);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return parser.apply(value.trim());
+            } catch (NumberFormatException e) {
+                throw new NumberFormatException(column + ": not a number: " + value);
+            }
+        }
+    }
+}
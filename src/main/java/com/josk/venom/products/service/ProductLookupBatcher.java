@@ -0,0 +1,129 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.LookupProperties;
+import com.josk.venom.products.datasource.ReadYourWritesContext;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects id lookups arriving within a short window into one {@code IN (...)} query.
+ * The caller that opens a batch waits out the window, or until the batch is full, then loads
+ * every id collected so far and hands each waiting caller its product; concurrent lookups of
+ * the same id share one result.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductLookupBatcher {
+    private final ProductRepository productRepository;
+    private final LookupProperties lookupProperties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Batch open;
+
+    public Optional<ProductResponse> find(Long id) {
+        return Optional.ofNullable(findAll(List.of(id)).get(id));
+    }
+
+    public Map<Long, ProductResponse> findAll(Collection<Long> ids) {
+        if (ReadYourWritesContext.lastWrite() != null) {
+            // The batch may be loaded by another caller's connection, which need not see this client's writes.
+            return load(List.copyOf(ids));
+        }
+        Map<Long, CompletableFuture<ProductResponse>> lookups = new LinkedHashMap<>();
+        List<Batch> led = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Long id : ids) {
+                if (lookups.containsKey(id)) {
+                    continue;
+                }
+                if (open == null) {
+                    open = new Batch();
+                    led.add(open);
+                }
+                lookups.put(id, open.lookups.computeIfAbsent(id, key -> new CompletableFuture<>()));
+                if (open.lookups.size() >= lookupProperties.getMaxBatchSize()) {
+                    open.full.countDown();
+                    open = null;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        led.forEach(this::dispatch);
+
+        Map<Long, ProductResponse> found = new LinkedHashMap<>();
+        lookups.forEach((id, lookup) -> {
+            ProductResponse product = join(lookup);
+            if (product != null) {
+                found.put(id, product);
+            }
+        });
+        return found;
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            batch.full.await(lookupProperties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Long> ids;
+        lock.lock();
+        try {
+            if (open == batch) {
+                open = null;
+            }
+            ids = new ArrayList<>(batch.lookups.keySet());
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            Map<Long, ProductResponse> found = load(ids);
+            batch.lookups.forEach((id, lookup) -> lookup.complete(found.get(id)));
+        } catch (RuntimeException e) {
+            batch.lookups.values().forEach(lookup -> lookup.completeExceptionally(e));
+        }
+    }
+
+    private Map<Long, ProductResponse> load(List<Long> ids) {
+        Map<Long, ProductResponse> found = new HashMap<>();
+        if (ids.size() == 1) {
+            productRepository.findResponseById(ids.get(0)).ifPresent(product -> found.put(product.id(), product));
+        } else if (!ids.isEmpty()) {
+            productRepository.findResponsesByIdIn(ids).forEach(product -> found.put(product.id(), product));
+        }
+        return found;
+    }
+
+    private static ProductResponse join(CompletableFuture<ProductResponse> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Batch {
+        private final Map<Long, CompletableFuture<ProductResponse>> lookups = new HashMap<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+    }
+}
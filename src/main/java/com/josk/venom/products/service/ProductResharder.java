@@ -0,0 +1,116 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.ShardingProperties;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.repository.ProductRelocationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves products to their owner after the shard list changed, while products.sharding.previous-shards is set.
+ * Every run scans the next products.sharding.reshard-batch-size ids of each shard and moves the misplaced
+ * ones, so resharding runs online at a bounded rate. Once a full scan of every shard finds nothing to move,
+ * the products.sharding.misplaced gauge drops to zero and previous-shards can be removed.
+ */
+@Component
+public class ProductResharder {
+    static final String RELOCATED_COUNTER = "products.sharding.relocated";
+    static final String MISPLACED_GAUGE = "products.sharding.misplaced";
+
+    private final ProductShards productShards;
+    private final ProductRelocationRepository productRelocationRepository;
+    private final ShardingProperties shardingProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Scan> scans = new ConcurrentHashMap<>();
+
+    public ProductResharder(ProductShards productShards, ProductRelocationRepository productRelocationRepository,
+                            ShardingProperties shardingProperties, MeterRegistry meterRegistry) {
+        this.productShards = productShards;
+        this.productRelocationRepository = productRelocationRepository;
+        this.shardingProperties = shardingProperties;
+        this.meterRegistry = meterRegistry;
+        if (productShards.isResharding()) {
+            Gauge.builder(MISPLACED_GAUGE, this, ProductResharder::misplaced).register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${products.sharding.reshard-interval:PT1S}")
+    public void reshard() {
+        if (!productShards.isResharding()) {
+            return;
+        }
+        productShards.shards().forEach(this::scanNext);
+    }
+
+    /**
+     * Misplaced products found by the last complete scan of every shard, or -1 before each shard was scanned once.
+     */
+    long misplaced() {
+        long misplaced = 0;
+        for (String shard : productShards.shards()) {
+            Scan scan = scans.get(shard);
+            if (scan == null || scan.lastMisplaced < 0) {
+                return -1;
+            }
+            misplaced += scan.lastMisplaced;
+        }
+        return misplaced;
+    }
+
+    private void scanNext(String shard) {
+        Scan scan = scans.computeIfAbsent(shard, key -> new Scan());
+        int batchSize = shardingProperties.getReshardBatchSize();
+        List<Long> ids = productShards.onShard(shard, () -> productRelocationRepository.findIdsAfter(scan.afterId, batchSize));
+
+        Map<String, List<Long>> misplaced = new LinkedHashMap<>();
+        for (Long id : ids) {
+            String owner = productShards.ownerOf(id);
+            if (!owner.equals(shard)) {
+                misplaced.computeIfAbsent(owner, key -> new ArrayList<>()).add(id);
+            }
+        }
+        misplaced.forEach((owner, moving) -> {
+            scan.misplaced += moving.size();
+            relocate(shard, owner, moving);
+        });
+
+        if (ids.size() < batchSize) {
+            scan.lastMisplaced = scan.misplaced;
+            scan.misplaced = 0;
+            scan.afterId = Long.MIN_VALUE;
+        } else {
+            scan.afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Copies the products to their owner and deletes them from the source in the same source transaction, so
+     * writers locating a product find it on one of the two shards at any time.
+     */
+    private void relocate(String source, String owner, List<Long> ids) {
+        int moved = productShards.inTransaction(source, () -> {
+            List<Product> products = productRelocationRepository.lock(ids);
+            if (products.isEmpty()) {
+                return 0;
+            }
+            productShards.inTransaction(owner, () -> productRelocationRepository.insertAbsent(products));
+            return productRelocationRepository.deleteAll(products.stream().map(Product::getId).toList());
+        });
+        meterRegistry.counter(RELOCATED_COUNTER).increment(moved);
+    }
+
+    private static final class Scan {
+        private long afterId = Long.MIN_VALUE;
+        private long misplaced;
+        private long lastMisplaced = -1;
+    }
+}
@@ -1,13 +1,26 @@
 package com.josk.venom.products.service;
 
+import com.josk.venom.products.dto.ProductPage;
+import com.josk.venom.products.dto.ProductPatch;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.dto.ProductSearchCriteria;
+import com.josk.venom.products.dto.ProductSearchPage;
 import com.josk.venom.products.model.Product;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
-   List<Product> getAllProducts();
-   Product getProductById(Long id);
-   Product createProduct(Product product);
-   Product updateProduct(Long id, Product product);
+   ProductPage<ProductResponse> getProducts(String cursor, Integer size);
+   void streamProducts(Consumer<ProductResponse> consumer);
+   ProductSearchPage<ProductResponse> searchProducts(ProductSearchCriteria criteria);
+   ProductResponse getProductById(Long id);
+   List<ProductResponse> getProductsByIds(List<Long> ids);
+   ProductResponse createProduct(Product product);
+   ProductResponse updateProduct(Long id, Product product);
+   ProductResponse updateProduct(Long id, Product product, LocalDateTime expectedUpdatedAt);
+   ProductResponse patchProduct(Long id, ProductPatch patch);
    void deleteProduct(Long id);
+   void deleteProduct(Long id, LocalDateTime expectedUpdatedAt);
 }
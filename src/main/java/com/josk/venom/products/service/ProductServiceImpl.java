@@ -1,51 +1,289 @@
 package com.josk.venom.products.service;
 
+import com.josk.venom.products.configuration.CacheConfig;
+import com.josk.venom.products.configuration.ListingProperties;
+import com.josk.venom.products.configuration.LookupProperties;
+import com.josk.venom.products.configuration.SearchProperties;
+import com.josk.venom.products.dto.ProductPage;
+import com.josk.venom.products.dto.ProductPatch;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.dto.ProductSearchCriteria;
+import com.josk.venom.products.dto.ProductSearchPage;
+import com.josk.venom.products.dto.ProductSearchSort;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.exception.PreconditionFailedException;
 import com.josk.venom.products.exception.ProductNotFoundException;
 import com.josk.venom.products.model.Product;
 import com.josk.venom.products.repository.ProductRepository;
+import com.josk.venom.products.repository.ProductRepositoryCustom.RankedProduct;
+import com.josk.venom.products.snapshot.ProductSnapshot;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
+@Timed(value = "product.service", histogram = true)
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
+    private static final Comparator<ProductResponse> BY_ID = Comparator.comparing(ProductResponse::id);
+    private static final Comparator<RankedProduct> BY_RANK = Comparator.comparingDouble(RankedProduct::rank).reversed()
+            .thenComparing(ranked -> ranked.product().id());
+
     private final ProductRepository productRepository;
+    private final ListingProperties listingProperties;
+    private final SearchProperties searchProperties;
+    private final LookupProperties lookupProperties;
+    private final ProductLookupBatcher productLookupBatcher;
+    private final ProductExistenceFilter productExistenceFilter;
+    private final ProductSnapshot productSnapshot;
+    private final ProductShards productShards;
+
+    @Override
+    public ProductPage<ProductResponse> getProducts(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long afterId = cursor == null || cursor.isBlank() ? 0L : ProductCursor.decode(cursor);
+
+        List<ProductResponse> products = productSnapshot.isServing()
+                ? productSnapshot.findAfter(afterId, pageSize + 1)
+                : merge(productShards.gather(() -> productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1))),
+                BY_ID, ProductResponse::id, pageSize + 1);
+        if (products.size() <= pageSize) {
+            return new ProductPage<>(products, null);
+        }
+        List<ProductResponse> items = products.subList(0, pageSize);
+        return new ProductPage<>(items, ProductCursor.encode(items.get(pageSize - 1).id()));
+    }
+
+    @Override
+    public void streamProducts(Consumer<ProductResponse> consumer) {
+        productShards.forEachShard(() -> productRepository.streamAll(listingProperties.getStreamFetchSize(), consumer));
+    }
+
+    @Override
+    public ProductSearchPage<ProductResponse> searchProducts(ProductSearchCriteria criteria) {
+        if (criteria.size() == null) {
+            criteria = criteria.withSize(searchProperties.getDefaultPageSize());
+        }
+        if (criteria.page() < 0) {
+            throw new InvalidRequestException("Page must not be negative");
+        }
+        if (criteria.size() < 1 || criteria.size() > searchProperties.getMaxPageSize()) {
+            throw new InvalidRequestException("Page size must be between 1 and " + searchProperties.getMaxPageSize());
+        }
+        if (criteria.minPrice() != null && criteria.maxPrice() != null && criteria.minPrice() > criteria.maxPrice()) {
+            throw new InvalidRequestException("minPrice must not be greater than maxPrice");
+        }
+        long offset = (long) criteria.page() * criteria.size();
+        if (offset > searchProperties.getMaxOffset()) {
+            throw new InvalidRequestException("Search results are limited to the first " + searchProperties.getMaxOffset() + " products");
+        }
+
+        List<ProductResponse> products = productShards.isSharded()
+                ? searchShards(criteria, (int) offset + criteria.size() + 1).stream().skip(offset).toList()
+                : searchSingle(criteria, (int) offset);
+        boolean hasNext = products.size() > criteria.size();
+        List<ProductResponse> items = hasNext ? products.subList(0, criteria.size()) : products;
+        return new ProductSearchPage<>(items, criteria.page(), criteria.size(), hasNext);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id", sync = true)
+    public ProductResponse getProductById(Long id) {
+        if (!productExistenceFilter.mightExist(id)) {
+            throw ProductNotFoundException.forId(id);
+        }
+        Optional<ProductResponse> product;
+        if (productSnapshot.isServing()) {
+            product = productSnapshot.find(id);
+        } else if (lookupProperties.isBatchingEnabled() && !productShards.isSharded()) {
+            product = productLookupBatcher.find(id);
+        } else {
+            product = productShards.onShardOf(id, () -> productRepository.findResponseById(id));
+        }
+        if (product.isEmpty()) {
+            productExistenceFilter.recordMiss(id);
+            throw ProductNotFoundException.forId(id);
+        }
+        return product.get();
+    }
+
+    @Override
+    public List<ProductResponse> getProductsByIds(List<Long> ids) {
+        if (ids.size() > lookupProperties.getMaxIds()) {
+            throw new InvalidRequestException("At most " + lookupProperties.getMaxIds() + " ids can be requested at once");
+        }
+        List<Long> candidates = ids.stream().filter(productExistenceFilter::mightExist).toList();
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductResponse> found;
+        if (productSnapshot.isServing()) {
+            found = new HashMap<>();
+            candidates.forEach(id -> productSnapshot.find(id).ifPresent(product -> found.put(id, product)));
+        } else if (lookupProperties.isBatchingEnabled() && !productShards.isSharded()) {
+            found = productLookupBatcher.findAll(candidates);
+        } else {
+            found = new HashMap<>();
+            Map<String, List<Long>> byShard = productShards.locate(candidates);
+            productShards.onShards(byShard.keySet(), shard -> productRepository.findResponsesByIdIn(byShard.get(shard)))
+                    .values().forEach(products -> products.forEach(product -> found.put(product.id(), product)));
+        }
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).toList();
+    }
 
     @Override
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#result.id")
+    public ProductResponse createProduct(Product product) {
+        Long id = productShards.newId();
+        if (id != null) {
+            product.setId(id);
+        }
+        ProductResponse created = id == null
+                ? ProductResponse.from(productRepository.save(product))
+                : productShards.onShard(productShards.ownerOf(id), () -> ProductResponse.from(productRepository.save(product)));
+        productExistenceFilter.added(created.id());
+        productSnapshot.put(created);
+        return created;
     }
 
     @Override
-    public Product getProductById(Long id) {
-        return productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+    @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public ProductResponse updateProduct(Long id, Product product) {
+        ProductResponse updated = productShards.writeOnShardOf(id, () -> productRepository.updateReturning(id, product), Optional::isEmpty)
+                .orElseThrow(() -> ProductNotFoundException.forId(id));
+        productSnapshot.put(updated);
+        return updated;
     }
 
     @Override
-    public Product createProduct(Product product) {
-        return productRepository.save(product);
+    @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public ProductResponse updateProduct(Long id, Product product, LocalDateTime expectedUpdatedAt) {
+        ProductResponse updated = productShards.writeOnShardOf(id,
+                        () -> productRepository.updateReturning(id, product, expectedUpdatedAt), Optional::isEmpty)
+                .orElseThrow(() -> conditionalWriteFailure(id));
+        productSnapshot.put(updated);
+        return updated;
     }
 
     @Override
-    public Product updateProduct(Long id, Product product) {
-        return productRepository.findById(id)
-                .map(existingCategory -> {
-                            existingCategory.setName(product.getName());
-                            existingCategory.setDescription(product.getDescription());
-                            existingCategory.setPrice(product.getPrice());
-                            existingCategory.setStock(product.getStock());
-                            return productRepository.save(existingCategory);
-                        }
-                ).orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+    @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public ProductResponse patchProduct(Long id, ProductPatch patch) {
+        if (patch.isEmpty()) {
+            throw new InvalidRequestException("At least one field must be provided");
+        }
+        ProductResponse patched = productShards.writeOnShardOf(id, () -> productRepository.patchReturning(id, patch), Optional::isEmpty)
+                .orElseThrow(() -> ProductNotFoundException.forId(id));
+        productSnapshot.put(patched);
+        return patched;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ProductNotFoundException("Product not found with id: " + id);
+        if (productShards.writeOnShardOf(id, () -> productRepository.deleteProductById(id), deleted -> deleted == 0) == 0) {
+            throw ProductNotFoundException.forId(id);
+        }
+        productExistenceFilter.recordMiss(id);
+        productSnapshot.remove(id);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public void deleteProduct(Long id, LocalDateTime expectedUpdatedAt) {
+        if (productShards.writeOnShardOf(id, () -> productRepository.deleteProductByIdAndUpdatedAt(id, expectedUpdatedAt),
+                deleted -> deleted == 0) == 0) {
+            throw conditionalWriteFailure(id);
+        }
+        productExistenceFilter.recordMiss(id);
+        productSnapshot.remove(id);
+    }
+
+    private RuntimeException conditionalWriteFailure(Long id) {
+        if (!productShards.onShardOf(id, () -> productRepository.existsById(id))) {
+            return ProductNotFoundException.forId(id);
+        }
+        return new PreconditionFailedException("Product with id " + id + " has been modified");
+    }
+
+    /**
+     * A search page of the only database, read like listings in a read-only transaction so replicas can serve it.
+     */
+    private List<ProductResponse> searchSingle(ProductSearchCriteria criteria, int offset) {
+        return productShards.gather(() -> productRepository.search(criteria, criteria.size() + 1, offset)).get(0);
+    }
+
+    /**
+     * The first limit products of all shards for a search; every shard is asked for limit products and
+     * the results are merged in the order of the search.
+     */
+    private List<ProductResponse> searchShards(ProductSearchCriteria criteria, int limit) {
+        if (criteria.sort() == ProductSearchSort.RELEVANCE && criteria.hasQuery()) {
+            return merge(productShards.gather(() -> productRepository.searchRanked(criteria, limit)), BY_RANK,
+                    ranked -> ranked.product().id(), limit).stream().map(RankedProduct::product).toList();
+        }
+        return merge(productShards.gather(() -> productRepository.search(criteria, limit, 0)), searchOrder(criteria.sort()),
+                ProductResponse::id, limit);
+    }
+
+    private static Comparator<ProductResponse> searchOrder(ProductSearchSort sort) {
+        return switch (sort) {
+            case RELEVANCE -> BY_ID;
+            case PRICE_ASC -> Comparator.comparingDouble(ProductResponse::price).thenComparing(BY_ID);
+            case PRICE_DESC -> Comparator.comparingDouble(ProductResponse::price).reversed().thenComparing(BY_ID);
+            case NAME -> Comparator.comparing(ProductResponse::name).thenComparing(BY_ID);
+            case NEWEST -> Comparator.comparing(ProductResponse::createdAt, Comparator.nullsFirst(Comparator.<LocalDateTime>reverseOrder()))
+                    .thenComparing(BY_ID.reversed());
+        };
+    }
+
+    /**
+     * Merges sorted results of several shards into the first limit items. A product that is being moved
+     * between shards can be returned by both, so ids seen before are skipped.
+     */
+    private static <T> List<T> merge(List<List<T>> results, Comparator<T> order, Function<T, Long> id, int limit) {
+        if (results.size() == 1) {
+            return results.get(0);
+        }
+        List<T> all = new ArrayList<>();
+        results.forEach(all::addAll);
+        all.sort(order);
+        List<T> merged = new ArrayList<>(Math.min(limit, all.size()));
+        Set<Long> seen = new HashSet<>();
+        for (T item : all) {
+            if (merged.size() == limit) {
+                break;
+            }
+            if (seen.add(id.apply(item))) {
+                merged.add(item);
+            }
+        }
+        return merged;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return listingProperties.getDefaultPageSize();
+        }
+        if (size < 1 || size > listingProperties.getMaxPageSize()) {
+            throw new InvalidRequestException("Page size must be between 1 and " + listingProperties.getMaxPageSize());
         }
-        productRepository.deleteById(id);
+        return size;
     }
 }
@@ -0,0 +1,242 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.ShardingProperties;
+import com.josk.venom.products.datasource.ShardContext;
+import com.josk.venom.products.datasource.ShardRing;
+import com.josk.venom.products.datasource.SnowflakeIdGenerator;
+import com.josk.venom.products.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Runs product queries on the shard that holds a product, or on every shard in parallel. Without sharding
+ * there is a single shard and everything runs on the calling thread.
+ * <p>
+ * While products.sharding.previous-shards is set, products whose owner changed may still sit on their
+ * previous owner until {@link ProductResharder} has moved them; lookups check the new owner first.
+ */
+@Component
+public class ProductShards {
+    static final String SINGLE = "default";
+
+    private final ProductRepository productRepository;
+    private final ShardRing ring;
+    private final ShardRing previousRing;
+    private final List<String> shards;
+    private final SnowflakeIdGenerator idSource;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService executor;
+
+    public ProductShards(ProductRepository productRepository, ShardingProperties properties,
+                         PlatformTransactionManager transactionManager, Optional<SnowflakeIdGenerator> idSource) {
+        this.productRepository = productRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        if (!properties.isEnabled()) {
+            this.ring = null;
+            this.previousRing = null;
+            this.shards = List.of(SINGLE);
+            this.idSource = null;
+            this.executor = null;
+            return;
+        }
+        this.shards = properties.getShards().stream().map(ShardingProperties.Shard::getName).toList();
+        this.ring = new ShardRing(properties.getShards().stream()
+                .filter(shard -> !shard.isRetired()).map(ShardingProperties.Shard::getName).toList(),
+                properties.getVirtualNodes());
+        this.previousRing = properties.getPreviousShards().isEmpty()
+                ? null : new ShardRing(properties.getPreviousShards(), properties.getVirtualNodes());
+        this.idSource = idSource.orElseThrow();
+        // a transaction on one shard must not join one that is open on another
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    public boolean isSharded() {
+        return ring != null;
+    }
+
+    public boolean isResharding() {
+        return previousRing != null;
+    }
+
+    /**
+     * Every shard holding products, including retired ones that are being drained.
+     */
+    public List<String> shards() {
+        return shards;
+    }
+
+    /**
+     * Id for a new product, or null to let the database sequence assign one.
+     */
+    public Long newId() {
+        return idSource == null ? null : idSource.getAsLong();
+    }
+
+    public String ownerOf(long id) {
+        return ring == null ? SINGLE : ring.shardOf(id);
+    }
+
+    /**
+     * Shard that currently holds the product, or its owner if it does not exist.
+     */
+    public String locate(long id) {
+        String owner = ownerOf(id);
+        if (previousRing == null) {
+            return owner;
+        }
+        String previous = previousRing.shardOf(id);
+        if (previous.equals(owner) || onShard(owner, () -> productRepository.existsById(id))) {
+            return owner;
+        }
+        return onShard(previous, () -> productRepository.existsById(id)) ? previous : owner;
+    }
+
+    /**
+     * Ids grouped by the shard that currently holds them, keeping their order within each group.
+     */
+    public Map<String, List<Long>> locate(Collection<Long> ids) {
+        Map<String, List<Long>> byOwner = new LinkedHashMap<>();
+        ids.forEach(id -> byOwner.computeIfAbsent(ownerOf(id), shard -> new ArrayList<>()).add(id));
+        if (previousRing == null) {
+            return byOwner;
+        }
+        Set<Long> found = new HashSet<>();
+        onShards(byOwner.keySet(), shard -> productRepository.findExistingIds(byOwner.get(shard)))
+                .values().forEach(found::addAll);
+        Map<String, List<Long>> located = new LinkedHashMap<>();
+        for (Long id : ids) {
+            String shard = found.contains(id) ? ownerOf(id) : previousRing.shardOf(id);
+            located.computeIfAbsent(shard, key -> new ArrayList<>()).add(id);
+        }
+        return located;
+    }
+
+    public <T> T onShard(String shard, Supplier<T> action) {
+        if (ring == null) {
+            return action.get();
+        }
+        String previous = ShardContext.shard();
+        ShardContext.setShard(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                ShardContext.clear();
+            } else {
+                ShardContext.setShard(previous);
+            }
+        }
+    }
+
+    public <T> T onShardOf(long id, Supplier<T> action) {
+        return onShard(locate(id), action);
+    }
+
+    /**
+     * Runs a single-product write on the shard holding the product. While resharding, a write that missed
+     * on the previous shard is run again on the owner: the product may have been moved there while the
+     * write waited for the row lock held by the resharder.
+     */
+    public <T> T writeOnShardOf(long id, Supplier<T> write, Predicate<T> missed) {
+        String shard = locate(id);
+        T result = onShard(shard, write);
+        if (previousRing != null && missed.test(result) && !shard.equals(ownerOf(id))) {
+            return onShard(ownerOf(id), write);
+        }
+        return result;
+    }
+
+    public <T> T inTransaction(String shard, Supplier<T> action) {
+        return onShard(shard, () -> writeTransaction.execute(status -> action.get()));
+    }
+
+    public void inTransaction(String shard, Runnable action) {
+        inTransaction(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action on every shard in parallel, each in a read-only transaction, and returns the results
+     * in shard order.
+     */
+    public <T> List<T> gather(Supplier<T> action) {
+        return List.copyOf(onShards(shards, shard -> action.get()).values());
+    }
+
+    /**
+     * Runs the action on each shard in turn, each in a read-only transaction.
+     */
+    public void forEachShard(Runnable action) {
+        for (String shard : shards) {
+            onShard(shard, () -> readTransaction.execute(status -> {
+                action.run();
+                return null;
+            }));
+        }
+    }
+
+    public <T> Map<String, T> onShards(Collection<String> targets, Function<String, T> action) {
+        Map<String, T> results = new LinkedHashMap<>();
+        if (executor == null || targets.size() == 1) {
+            targets.forEach(shard -> results.put(shard, read(shard, action)));
+            return results;
+        }
+        Map<String, Future<T>> pending = targets.stream().collect(Collectors.toMap(Function.identity(),
+                shard -> executor.submit(() -> read(shard, action)), (a, b) -> a, LinkedHashMap::new));
+        pending.forEach((shard, result) -> results.put(shard, join(result)));
+        return results;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> T read(String shard, Function<String, T> action) {
+        return onShard(shard, () -> readTransaction.execute(status -> action.apply(shard)));
+    }
+
+    private static <T> T join(Future<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.dto.ProductStats;
+
+public interface ProductStatsService {
+   ProductStats getStats();
+   void reconcileStats();
+}
@@ -0,0 +1,78 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.dto.PriceBand;
+import com.josk.venom.products.dto.ProductStats;
+import com.josk.venom.products.repository.ProductStatsRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@Service
+@Timed(value = "product.service", histogram = true)
+@RequiredArgsConstructor
+public class ProductStatsServiceImpl implements ProductStatsService {
+    static final String DRIFT_COUNTER = "products.stats.drift";
+    private static final double STOCK_VALUE_TOLERANCE = 0.01;
+
+    private final ProductStatsRepository productStatsRepository;
+    private final MeterRegistry meterRegistry;
+    private final ProductShards productShards;
+
+    @Override
+    public ProductStats getStats() {
+        List<ProductStats> shards = productShards.gather(productStatsRepository::findStats);
+        return shards.size() == 1 ? shards.get(0) : combine(shards);
+    }
+
+    /**
+     * Recounts the catalog and corrects the trigger-maintained counters by the difference, fixing rounding
+     * drift in the stock value and anything written while the triggers were disabled. Writes carry on
+     * during the recount.
+     */
+    @Override
+    @Scheduled(cron = "${products.stats.reconcile-cron:0 30 * * * *}")
+    public void reconcileStats() {
+        for (String shard : productShards.shards()) {
+            productShards.inTransaction(shard, this::reconcileShard);
+        }
+    }
+
+    private void reconcileShard() {
+        if (!productStatsRepository.lockForRecompute()) {
+            return;
+        }
+        ProductStats correction = productStatsRepository.findCorrection();
+        productStatsRepository.recompute();
+        if (drifted(correction, productStatsRepository.findCorrection())) {
+            meterRegistry.counter(DRIFT_COUNTER).increment();
+        }
+    }
+
+    private static ProductStats combine(List<ProductStats> shards) {
+        long totalProducts = 0;
+        double totalStockValue = 0;
+        long outOfStock = 0;
+        SortedMap<Double, PriceBand> bands = new TreeMap<>();
+        for (ProductStats stats : shards) {
+            totalProducts += stats.totalProducts();
+            totalStockValue += stats.totalStockValue();
+            outOfStock += stats.outOfStock();
+            stats.priceDistribution().forEach(band -> bands.merge(band.minPrice(), band,
+                    (a, b) -> new PriceBand(a.minPrice(), a.maxPrice(), a.products() + b.products())));
+        }
+        return new ProductStats(totalProducts, totalStockValue, outOfStock, List.copyOf(bands.values()));
+    }
+
+    private static boolean drifted(ProductStats counted, ProductStats actual) {
+        return counted.totalProducts() != actual.totalProducts()
+                || counted.outOfStock() != actual.outOfStock()
+                || Math.abs(counted.totalStockValue() - actual.totalStockValue()) > STOCK_VALUE_TOLERANCE
+                || !counted.priceDistribution().equals(actual.priceDistribution());
+    }
+}
@@ -0,0 +1,13 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.dto.ProductImportProgress;
+import com.josk.venom.products.dto.ProductTransferFormat;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+public interface ProductTransferService {
+   void exportProducts(ProductTransferFormat format, OutputStream out);
+   ProductImportProgress importProducts(ProductTransferFormat format, Reader reader, Consumer<ProductImportProgress> listener);
+}
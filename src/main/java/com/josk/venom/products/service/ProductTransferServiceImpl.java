@@ -0,0 +1,205 @@
+package com.josk.venom.products.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josk.venom.products.configuration.CacheConfig;
+import com.josk.venom.products.configuration.JpaAuditingConfig;
+import com.josk.venom.products.configuration.TransferProperties;
+import com.josk.venom.products.dto.ProductImportError;
+import com.josk.venom.products.dto.ProductImportProgress;
+import com.josk.venom.products.dto.ProductImportRow;
+import com.josk.venom.products.dto.ProductImportStatus;
+import com.josk.venom.products.dto.ProductTransferFormat;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.repository.ProductCopyRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import and export over COPY. Imports are validated and upserted in chunks of
+ * {@code products.transfer.chunk-size} rows, each committed on its own, so memory stays flat for any input
+ * size and an aborted import keeps the chunks committed before the failure.
+ */
+@Service
+@Timed(value = "product.service", histogram = true)
+@RequiredArgsConstructor
+public class ProductTransferServiceImpl implements ProductTransferService {
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final ProductCopyRepository productCopyRepository;
+    private final TransferProperties transferProperties;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ProductExistenceFilter productExistenceFilter;
+    private final ProductShards productShards;
+
+    /**
+     * Exports the shards one after another, each in id order.
+     */
+    @Override
+    public void exportProducts(ProductTransferFormat format, OutputStream out) {
+        AtomicBoolean header = new AtomicBoolean(true);
+        productShards.forEachShard(() -> productCopyRepository.copyOut(format, out, header.getAndSet(false)));
+    }
+
+    @Override
+    public ProductImportProgress importProducts(ProductTransferFormat format, Reader reader,
+                                                Consumer<ProductImportProgress> listener) {
+        Run run = new Run();
+        try (ProductImportReader rows = ProductImportReader.of(format, reader, objectMapper)) {
+            ProductImportReader.Entry entry;
+            while ((entry = rows.next()) != null) {
+                run.processed++;
+                run.line = entry.line();
+                String error = entry.error() != null ? entry.error() : validate(entry.row());
+                if (error != null) {
+                    run.reject(entry.line(), error);
+                } else if (run.add(entry.row()) == transferProperties.getChunkSize()) {
+                    upsertChunk(run);
+                    listener.accept(run.progress(ProductImportStatus.RUNNING));
+                }
+            }
+            upsertChunk(run);
+            return run.progress(ProductImportStatus.COMPLETED);
+        } catch (IOException | DataAccessException e) {
+            run.errors.add(new ProductImportError(run.line, "import aborted: " + e.getMessage()));
+            return run.progress(ProductImportStatus.ABORTED);
+        }
+    }
+
+    private void upsertChunk(Run run) {
+        if (run.keyed.isEmpty() && run.unkeyed.isEmpty()) {
+            return;
+        }
+        if (productShards.isSharded()) {
+            upsertChunkOnShards(run);
+        } else {
+            upsertChunkOnSingle(run);
+        }
+        run.keyed.clear();
+        run.unkeyed.clear();
+    }
+
+    private void upsertChunkOnSingle(Run run) {
+        ProductCopyRepository.UpsertResult result = new TransactionTemplate(transactionManager).execute(status -> {
+            List<ProductImportRow> rows = new ArrayList<>(run.keyed.values());
+            if (!run.unkeyed.isEmpty()) {
+                List<Long> ids = productCopyRepository.allocateIds(run.unkeyed.size());
+                for (int i = 0; i < run.unkeyed.size(); i++) {
+                    rows.add(run.unkeyed.get(i).withId(ids.get(i)));
+                }
+            }
+            ProductCopyRepository.UpsertResult upserted = productCopyRepository.upsert(rows, JpaAuditingConfig.now());
+            rows.forEach(row -> productExistenceFilter.added(row.id()));
+            if (!run.keyed.isEmpty()) {
+                productCopyRepository.alignSequence();
+            }
+            return upserted;
+        });
+        run.inserted += result.inserted();
+        run.updated += result.updated();
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        run.keyed.keySet().forEach(cache::evict);
+    }
+
+    /**
+     * Upserts a chunk one shard at a time, each in its own transaction. Rows with an id go to the shard holding
+     * the product, new rows get an id from {@link ProductShards} and go to its owner. When a shard fails the
+     * import aborts and keeps the shards committed before it.
+     */
+    private void upsertChunkOnShards(Run run) {
+        Map<String, List<ProductImportRow>> byShard = new LinkedHashMap<>();
+        productShards.locate(run.keyed.keySet()).forEach((shard, ids) ->
+                ids.forEach(id -> byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(run.keyed.get(id))));
+        for (ProductImportRow row : run.unkeyed) {
+            long id = productShards.newId();
+            byShard.computeIfAbsent(productShards.ownerOf(id), key -> new ArrayList<>()).add(row.withId(id));
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        LocalDateTime now = JpaAuditingConfig.now();
+        byShard.forEach((shard, rows) -> {
+            ProductCopyRepository.UpsertResult result = productShards.inTransaction(shard,
+                    () -> productCopyRepository.upsert(rows, now));
+            run.inserted += result.inserted();
+            run.updated += result.updated();
+            rows.forEach(row -> cache.evict(row.id()));
+        });
+    }
+
+    private String validate(ProductImportRow row) {
+        List<String> messages = new ArrayList<>();
+        Product product = Product.builder().name(row.name()).description(row.description()).build();
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        violations.forEach(v -> messages.add(v.getPropertyPath() + ": " + v.getMessage()));
+        if (row.name() != null && row.name().length() > MAX_TEXT_LENGTH) {
+            messages.add("name: size must be at most " + MAX_TEXT_LENGTH);
+        }
+        if (row.description() != null && row.description().length() > MAX_TEXT_LENGTH) {
+            messages.add("description: size must be at most " + MAX_TEXT_LENGTH);
+        }
+        if (row.price() == null) {
+            messages.add("price: must not be null");
+        } else if (!Double.isFinite(row.price())) {
+            messages.add("price: must be a finite number");
+        }
+        if (row.stock() == null) {
+            messages.add("stock: must not be null");
+        }
+        return messages.isEmpty() ? null : String.join(", ", messages);
+    }
+
+    private final class Run {
+        // rows with an id keep only their last occurrence in a chunk, since one upsert cannot touch a row twice
+        private final Map<Long, ProductImportRow> keyed = new LinkedHashMap<>();
+        private final List<ProductImportRow> unkeyed = new ArrayList<>();
+        private final List<ProductImportError> errors = new ArrayList<>();
+        private long line;
+        private long processed;
+        private long inserted;
+        private long updated;
+        private long rejected;
+
+        private int add(ProductImportRow row) {
+            if (row.id() == null) {
+                unkeyed.add(row);
+            } else {
+                keyed.remove(row.id());
+                keyed.put(row.id(), row);
+            }
+            return keyed.size() + unkeyed.size();
+        }
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < transferProperties.getMaxReportedErrors()) {
+                errors.add(new ProductImportError(line, message));
+            }
+        }
+
+        private ProductImportProgress progress(ProductImportStatus status) {
+            return new ProductImportProgress(status, processed, inserted, updated, rejected,
+                    status == ProductImportStatus.RUNNING ? List.of() : List.copyOf(errors));
+        }
+    }
+}
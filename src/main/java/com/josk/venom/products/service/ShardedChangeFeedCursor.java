@@ -0,0 +1,67 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.exception.InvalidRequestException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Position in the change feed of a sharded catalog: one {@link ChangeFeedCursor} per shard, since transaction and
+ * change ids are local to a database. Shards missing from the cursor, such as newly added ones, are read from
+ * the start.
+ */
+public record ShardedChangeFeedCursor(Map<String, ChangeFeedCursor> positions) {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public ShardedChangeFeedCursor {
+        positions = Map.copyOf(positions);
+    }
+
+    public ChangeFeedCursor of(String shard) {
+        return positions.getOrDefault(shard, ChangeFeedCursor.START);
+    }
+
+    public ShardedChangeFeedCursor with(String shard, ChangeFeedCursor position) {
+        Map<String, ChangeFeedCursor> moved = new LinkedHashMap<>(positions);
+        moved.put(shard, position);
+        return new ShardedChangeFeedCursor(moved);
+    }
+
+    public String encode() {
+        byte[][] names = positions.keySet().stream().sorted().map(name -> name.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        int size = 0;
+        for (byte[] name : names) {
+            size += Short.BYTES + name.length + 2 * Long.BYTES;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] name : names) {
+            ChangeFeedCursor position = positions.get(new String(name, StandardCharsets.UTF_8));
+            buffer.putShort((short) name.length).put(name).putLong(position.txId()).putLong(position.changeId());
+        }
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    public static ShardedChangeFeedCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new ShardedChangeFeedCursor(Map.of());
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(DECODER.decode(cursor));
+            Map<String, ChangeFeedCursor> positions = new LinkedHashMap<>();
+            while (buffer.hasRemaining()) {
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                positions.put(new String(name, StandardCharsets.UTF_8), new ChangeFeedCursor(buffer.getLong(), buffer.getLong()));
+            }
+            return new ShardedChangeFeedCursor(positions);
+        } catch (IllegalArgumentException | BufferUnderflowException | NegativeArraySizeException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.dto.StockAdjustment;
+import com.josk.venom.products.dto.StockAdjustmentReceipt;
+
+import java.util.List;
+
+public interface StockAdjustmentService {
+   StockAdjustmentReceipt adjust(List<StockAdjustment> adjustments);
+   StockAdjustmentReceipt getStatus(long position);
+   void flush();
+}
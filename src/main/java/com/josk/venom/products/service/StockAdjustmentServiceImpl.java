@@ -0,0 +1,188 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.CacheConfig;
+import com.josk.venom.products.configuration.JpaAuditingConfig;
+import com.josk.venom.products.configuration.StockProperties;
+import com.josk.venom.products.dto.StockAdjustment;
+import com.josk.venom.products.dto.StockAdjustmentReceipt;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.exception.ProductNotFoundException;
+import com.josk.venom.products.exception.QueueFullException;
+import com.josk.venom.products.repository.ProductRepository;
+import com.josk.venom.products.repository.StockAdjustmentRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies stock adjustments from inventory feeds. With write-behind enabled, adjustments are acknowledged
+ * once they are committed to the staging queue and applied by {@link #flush()}, which coalesces every
+ * queued adjustment of a product into one update; otherwise they are applied before returning.
+ */
+@Service
+@Timed(value = "product.service", histogram = true)
+@RequiredArgsConstructor
+public class StockAdjustmentServiceImpl implements StockAdjustmentService {
+    static final String DROPPED_COUNTER = "products.stock.adjustments.dropped";
+
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final ProductRepository productRepository;
+    private final StockProperties stockProperties;
+    private final CacheManager cacheManager;
+    private final ProductShards productShards;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * Applies adjustments synchronously in one transaction per shard, so adjustments spanning several shards
+     * are not atomic.
+     */
+    @Override
+    public StockAdjustmentReceipt adjust(List<StockAdjustment> adjustments) {
+        SortedMap<Long, Integer> deltas = coalesce(adjustments);
+        if (deltas.isEmpty()) {
+            return new StockAdjustmentReceipt(0, true);
+        }
+        StockProperties.WriteBehind writeBehind = stockProperties.getWriteBehind();
+        if (!writeBehind.isEnabled()) {
+            productShards.locate(deltas.keySet()).forEach((shard, ids) -> {
+                SortedMap<Long, Integer> shardDeltas = new TreeMap<>();
+                ids.forEach(id -> shardDeltas.put(id, deltas.get(id)));
+                productShards.inTransaction(shard, () -> {
+                    List<Long> updated = stockAdjustmentRepository.apply(shardDeltas, JpaAuditingConfig.now());
+                    checkFound(shardDeltas, updated);
+                    evictAfterCommit(updated);
+                });
+            });
+            return new StockAdjustmentReceipt(0, true);
+        }
+        if (pending.get() + deltas.size() > writeBehind.getMaxPending()) {
+            throw new QueueFullException("Stock adjustment queue is full", writeBehind.getRetryAfter());
+        }
+        long position = productShards.inTransaction(productShards.shards().get(0), () -> {
+            checkFound(deltas, productRepository.findExistingIds(deltas.keySet()));
+            return stockAdjustmentRepository.enqueue(deltas);
+        });
+        pending.addAndGet(deltas.size());
+        return new StockAdjustmentReceipt(position, false);
+    }
+
+    @Override
+    public StockAdjustmentReceipt getStatus(long position) {
+        return new StockAdjustmentReceipt(position, position < stockAdjustmentRepository.firstPendingPosition());
+    }
+
+    /**
+     * Applies the oldest queued adjustments. When the combined update fails, the same batch is taken again and
+     * applied product by product, so an adjustment the database rejects is dropped (and counted) instead of
+     * blocking the queue.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${products.stock.write-behind.flush-interval:PT1S}")
+    public void flush() {
+        if (!stockProperties.getWriteBehind().isEnabled()) {
+            return;
+        }
+        String shard = productShards.shards().get(0);
+        try {
+            productShards.inTransaction(shard, () -> flushBatch(false));
+        } catch (DataAccessException e) {
+            productShards.inTransaction(shard, () -> flushBatch(true));
+        }
+        pending.set(stockAdjustmentRepository.countPending());
+    }
+
+    private void flushBatch(boolean isolated) {
+        if (!stockAdjustmentRepository.tryLockFlush()) {
+            return;
+        }
+        List<StockAdjustment> batch = stockAdjustmentRepository.takeBatch(stockProperties.getWriteBehind().getBatchSize());
+        SortedMap<Long, Long> sums = new TreeMap<>();
+        batch.forEach(adjustment -> sums.merge(adjustment.productId(), (long) adjustment.delta(), Long::sum));
+        SortedMap<Long, Integer> deltas = new TreeMap<>();
+        sums.forEach((productId, sum) -> {
+            if (sum != 0 && sum == sum.intValue()) {
+                deltas.put(productId, sum.intValue());
+            }
+        });
+        int dropped = (int) sums.values().stream().filter(sum -> sum != sum.intValue()).count();
+        if (!deltas.isEmpty()) {
+            LocalDateTime now = JpaAuditingConfig.now();
+            List<Long> updated = isolated
+                    ? stockAdjustmentRepository.applyEach(deltas, now) : stockAdjustmentRepository.apply(deltas, now);
+            if (isolated) {
+                dropped += deltas.size() - updated.size();
+            }
+            evictAfterCommit(updated);
+        }
+        if (dropped > 0) {
+            meterRegistry.counter(DROPPED_COUNTER).increment(dropped);
+        }
+    }
+
+    private SortedMap<Long, Integer> coalesce(List<StockAdjustment> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            throw new InvalidRequestException("At least one stock adjustment must be provided");
+        }
+        long maxDelta = stockProperties.getMaxDelta();
+        SortedMap<Long, Long> sums = new TreeMap<>();
+        for (StockAdjustment adjustment : adjustments) {
+            if (adjustment.productId() == null) {
+                throw new InvalidRequestException("Product id must not be null");
+            }
+            sums.merge(adjustment.productId(), (long) adjustment.delta(), Long::sum);
+        }
+        SortedMap<Long, Integer> deltas = new TreeMap<>();
+        sums.forEach((productId, sum) -> {
+            if (Math.abs(sum) > maxDelta) {
+                throw new InvalidRequestException("Stock adjustment for product " + productId
+                        + " must be between -" + maxDelta + " and " + maxDelta);
+            }
+            if (sum != 0) {
+                deltas.put(productId, sum.intValue());
+            }
+        });
+        return deltas;
+    }
+
+    private void checkFound(SortedMap<Long, Integer> deltas, List<Long> found) {
+        if (found.size() == deltas.size()) {
+            return;
+        }
+        Set<Long> existing = new HashSet<>(found);
+        Long missing = deltas.keySet().stream().filter(id -> !existing.contains(id)).findFirst().orElseThrow();
+        throw ProductNotFoundException.forId(missing);
+    }
+
+    private void evictAfterCommit(List<Long> productIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productIds.forEach(this::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productIds.forEach(StockAdjustmentServiceImpl.this::evict);
+            }
+        });
+    }
+
+    private void evict(Long productId) {
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).evict(productId);
+    }
+}
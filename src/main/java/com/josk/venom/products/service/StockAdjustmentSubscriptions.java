@@ -0,0 +1,62 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.StockProperties;
+import com.josk.venom.products.dto.StockAdjustmentReceipt;
+import com.josk.venom.products.repository.StockAdjustmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds clients waiting for queued stock adjustments to be flushed and checks all of them with one query
+ * per flush interval. Flushes by any instance count, since only the staging queue is consulted.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockAdjustmentSubscriptions {
+    private final StockAdjustmentService stockAdjustmentService;
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final StockProperties stockProperties;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+    public DeferredResult<StockAdjustmentReceipt> await(long position, Duration wait) {
+        StockAdjustmentReceipt receipt = stockAdjustmentService.getStatus(position);
+        Duration maxWait = stockProperties.getWriteBehind().getMaxWait();
+        Duration timeout = wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        DeferredResult<StockAdjustmentReceipt> result = new DeferredResult<>(timeout.toMillis(), receipt);
+        if (receipt.flushed() || timeout.isZero()) {
+            result.setResult(receipt);
+            return result;
+        }
+        Waiter waiter = new Waiter(position, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${products.stock.write-behind.flush-interval:PT1S}")
+    public void poll() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        long firstPending = stockAdjustmentRepository.firstPendingPosition();
+        for (Waiter waiter : waiters) {
+            if (waiter.position < firstPending) {
+                waiter.result.setResult(new StockAdjustmentReceipt(waiter.position, true));
+            }
+        }
+    }
+
+    int activeWaiters() {
+        return waiters.size();
+    }
+
+    private record Waiter(long position, DeferredResult<StockAdjustmentReceipt> result) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.JpaAuditingConfig;
+import com.josk.venom.products.configuration.StockProperties;
+import com.josk.venom.products.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Combines concurrent reservations on the same product into a single conditional UPDATE.
+ * Whichever caller holds a product's lock drains every queued reservation for it; when the
+ * combined quantity cannot be satisfied the drained reservations are applied one by one.
+ * If the update fails, every drained reservation that was not applied fails with the same exception.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockReservationCombiner {
+    private final ProductRepository productRepository;
+    private final StockProperties stockProperties;
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    public boolean reserve(Long productId, int quantity) {
+        Lane lane = lanes.computeIfAbsent(productId, Lane::new);
+        Reservation reservation = new Reservation(quantity);
+        lane.queue.add(reservation);
+
+        lane.lock.lock();
+        try {
+            while (!reservation.done) {
+                drain(lane);
+            }
+        } finally {
+            if (lane.queue.isEmpty()) {
+                lanes.remove(productId, lane);
+            }
+            lane.lock.unlock();
+        }
+        if (reservation.failure != null) {
+            throw reservation.failure;
+        }
+        return reservation.reserved;
+    }
+
+    private void drain(Lane lane) {
+        List<Reservation> batch = new ArrayList<>();
+        int total = 0;
+        Reservation next;
+        while (batch.size() < stockProperties.getMaxCombinedRequests()
+                && (next = lane.queue.peek()) != null
+                && total <= Integer.MAX_VALUE - next.quantity) {
+            batch.add(lane.queue.poll());
+            total += next.quantity;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = JpaAuditingConfig.now();
+        try {
+            if (productRepository.reserveStock(lane.productId, total, now) == 1) {
+                batch.forEach(reservation -> reservation.complete(true));
+            } else if (batch.size() == 1) {
+                batch.get(0).complete(false);
+            } else {
+                batch.forEach(reservation -> reservation.complete(
+                        productRepository.reserveStock(lane.productId, reservation.quantity, now) == 1));
+            }
+        } catch (RuntimeException e) {
+            batch.stream().filter(reservation -> !reservation.done).forEach(reservation -> reservation.fail(e));
+        }
+    }
+
+    private static final class Lane {
+        private final Long productId;
+        private final Queue<Reservation> queue = new ConcurrentLinkedQueue<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Lane(Long productId) {
+            this.productId = productId;
+        }
+    }
+
+    private static final class Reservation {
+        private final int quantity;
+        private volatile boolean done;
+        private volatile boolean reserved;
+        private volatile RuntimeException failure;
+
+        private Reservation(int quantity) {
+            this.quantity = quantity;
+        }
+
+        private void complete(boolean reserved) {
+            this.reserved = reserved;
+            this.done = true;
+        }
+
+        private void fail(RuntimeException failure) {
+            this.failure = failure;
+            this.done = true;
+        }
+    }
+}
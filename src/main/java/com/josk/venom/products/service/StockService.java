@@ -0,0 +1,12 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.dto.StockItem;
+
+import java.util.List;
+
+public interface StockService {
+   void reserve(Long productId, int quantity);
+   void release(Long productId, int quantity);
+   void reserveAll(List<StockItem> items);
+   void releaseAll(List<StockItem> items);
+}
@@ -0,0 +1,164 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.CacheConfig;
+import com.josk.venom.products.configuration.JpaAuditingConfig;
+import com.josk.venom.products.configuration.StockProperties;
+import com.josk.venom.products.dto.StockItem;
+import com.josk.venom.products.exception.InsufficientStockException;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.exception.ProductNotFoundException;
+import com.josk.venom.products.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@Service
+@Timed(value = "product.service", histogram = true)
+@RequiredArgsConstructor
+public class StockServiceImpl implements StockService {
+    static final String LEAKED_COUNTER = "products.stock.reservations.leaked";
+
+    private final ProductRepository productRepository;
+    private final StockReservationCombiner stockReservationCombiner;
+    private final StockProperties stockProperties;
+    private final CacheManager cacheManager;
+    private final ProductShards productShards;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void reserve(Long productId, int quantity) {
+        checkQuantity(quantity);
+        boolean reserved = productShards.writeOnShardOf(productId, () -> stockProperties.isCombiningEnabled()
+                ? stockReservationCombiner.reserve(productId, quantity)
+                : productRepository.reserveStock(productId, quantity, JpaAuditingConfig.now()) == 1, ok -> !ok);
+        if (!reserved) {
+            throw reservationFailure(productId, productShards.onShardOf(productId, () -> productRepository.existsById(productId)));
+        }
+        evict(productId);
+    }
+
+    @Override
+    public void release(Long productId, int quantity) {
+        checkQuantity(quantity);
+        releaseOne(productId, quantity, JpaAuditingConfig.now());
+        evict(productId);
+    }
+
+    /**
+     * Reserves all items or none. Items on different shards are reserved one shard at a time, and the
+     * shards already reserved are released again, item by item, when a later one fails. An item that
+     * cannot be released is added to the failure as suppressed and its quantity counted as leaked.
+     */
+    @Override
+    public void reserveAll(List<StockItem> items) {
+        LocalDateTime now = JpaAuditingConfig.now();
+        SortedMap<Long, Integer> quantities = mergeInLockOrder(items);
+        Map<String, SortedMap<Long, Integer>> byShard = partition(quantities);
+        List<Map.Entry<String, SortedMap<Long, Integer>>> reserved = new ArrayList<>(byShard.size());
+        try {
+            for (Map.Entry<String, SortedMap<Long, Integer>> shard : byShard.entrySet()) {
+                productShards.inTransaction(shard.getKey(), () -> reserve(shard.getValue(), now));
+                reserved.add(shard);
+            }
+        } catch (RuntimeException e) {
+            reserved.forEach(shard -> compensate(shard.getValue(), now, e));
+            throw e;
+        }
+        quantities.keySet().forEach(this::evict);
+    }
+
+    @Override
+    public void releaseAll(List<StockItem> items) {
+        LocalDateTime now = JpaAuditingConfig.now();
+        SortedMap<Long, Integer> quantities = mergeInLockOrder(items);
+        partition(quantities).forEach((shard, shardQuantities) ->
+                productShards.inTransaction(shard, () -> release(shardQuantities, now)));
+        quantities.keySet().forEach(this::evict);
+    }
+
+    private void reserve(SortedMap<Long, Integer> quantities, LocalDateTime now) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (productRepository.reserveStock(entry.getKey(), entry.getValue(), now) == 0) {
+                throw reservationFailure(entry.getKey(), productRepository.existsById(entry.getKey()));
+            }
+        }
+    }
+
+    private void release(SortedMap<Long, Integer> quantities, LocalDateTime now) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (productRepository.releaseStock(entry.getKey(), entry.getValue(), now) == 0) {
+                throw ProductNotFoundException.forId(entry.getKey());
+            }
+        }
+    }
+
+    private void compensate(SortedMap<Long, Integer> quantities, LocalDateTime now, RuntimeException failure) {
+        quantities.forEach((productId, quantity) -> {
+            try {
+                releaseOne(productId, quantity, now);
+            } catch (RuntimeException e) {
+                failure.addSuppressed(e);
+                meterRegistry.counter(LEAKED_COUNTER).increment(quantity);
+            }
+        });
+    }
+
+    private void releaseOne(Long productId, int quantity, LocalDateTime now) {
+        if (productShards.writeOnShardOf(productId, () -> productRepository.releaseStock(productId, quantity, now),
+                released -> released == 0) == 0) {
+            throw ProductNotFoundException.forId(productId);
+        }
+    }
+
+    private Map<String, SortedMap<Long, Integer>> partition(SortedMap<Long, Integer> quantities) {
+        Map<String, SortedMap<Long, Integer>> byShard = new LinkedHashMap<>();
+        productShards.locate(quantities.keySet()).forEach((shard, ids) -> {
+            SortedMap<Long, Integer> shardQuantities = new TreeMap<>();
+            ids.forEach(id -> shardQuantities.put(id, quantities.get(id)));
+            byShard.put(shard, shardQuantities);
+        });
+        return byShard;
+    }
+
+    private SortedMap<Long, Integer> mergeInLockOrder(List<StockItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidRequestException("At least one stock item must be provided");
+        }
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (StockItem item : items) {
+            if (item.productId() == null) {
+                throw new InvalidRequestException("Product id must not be null");
+            }
+            checkQuantity(item.quantity());
+            quantities.merge(item.productId(), item.quantity(), Math::addExact);
+        }
+        return quantities;
+    }
+
+    private RuntimeException reservationFailure(Long productId, boolean exists) {
+        if (!exists) {
+            return ProductNotFoundException.forId(productId);
+        }
+        return new InsufficientStockException("Insufficient stock for product with id: " + productId);
+    }
+
+    private void checkQuantity(int quantity) {
+        if (quantity < 1) {
+            throw new InvalidRequestException("Quantity must be positive");
+        }
+    }
+
+    private void evict(Long productId) {
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).evict(productId);
+    }
+}
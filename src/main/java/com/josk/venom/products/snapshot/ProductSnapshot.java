@@ -0,0 +1,296 @@
+package com.josk.venom.products.snapshot;
+
+import com.josk.venom.products.configuration.ChangeFeedProperties;
+import com.josk.venom.products.configuration.SnapshotProperties;
+import com.josk.venom.products.dto.ProductChange;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.repository.ProductChangeRepository;
+import com.josk.venom.products.repository.ProductRepository;
+import com.josk.venom.products.service.ChangeFeedCursor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Serves product reads from a memory-mapped {@link SnapshotFile} instead of the database. Changes since
+ * the file was written are read from the change feed every {@code refresh-interval} into an in-memory
+ * overlay; once the overlay holds {@code compact-threshold} products, it is merged into a new file that
+ * replaces the old one. A snapshot file that is still covered by the change feed retention is reused at
+ * startup, and reads go on from the last refreshed state while the database is unreachable.
+ */
+@Component
+public class ProductSnapshot {
+    private static final int SCAN_FETCH_SIZE = 10_000;
+    private static final int REFRESH_PAGE_SIZE = 1_000;
+    private static final Change DELETED = new Change(null);
+
+    private final ProductRepository productRepository;
+    private final ProductChangeRepository productChangeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SnapshotProperties properties;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    private volatile State state;
+    private volatile long refreshedAt;
+    private ChangeFeedCursor cursor;
+
+    public ProductSnapshot(ProductRepository productRepository, ProductChangeRepository productChangeRepository,
+                           PlatformTransactionManager transactionManager, SnapshotProperties properties,
+                           ChangeFeedProperties changeFeedProperties, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.productChangeRepository = productChangeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.changeFeedProperties = changeFeedProperties;
+        Gauge.builder("products.snapshot.age", this, ProductSnapshot::ageSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isServing() {
+        return properties.isEnabled() && state != null;
+    }
+
+    public Optional<ProductResponse> find(long id) {
+        State current = state;
+        Change change = current.changed(id);
+        return change != null ? Optional.ofNullable(change.product()) : Optional.ofNullable(current.base().find(id));
+    }
+
+    /**
+     * Up to limit products with an id greater than afterId, in id order.
+     */
+    public List<ProductResponse> findAfter(long afterId, int limit) {
+        return state.findAfter(afterId, limit);
+    }
+
+    /**
+     * Applies a write of this instance right away; the change feed brings the same change later.
+     */
+    public void put(ProductResponse product) {
+        State current = state;
+        if (current != null) {
+            current.live().put(product.id(), new Change(product));
+        }
+    }
+
+    public void remove(long id) {
+        State current = state;
+        if (current != null) {
+            current.live().put(id, DELETED);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() throws IOException {
+        if (!properties.isEnabled() || state != null) {
+            return;
+        }
+        SnapshotFile base = reuse();
+        if (base == null) {
+            try {
+                base = build();
+            } catch (DataAccessException e) {
+                // nothing to serve yet; the next refresh tries again
+                return;
+            }
+        }
+        State loaded = new State(base, Collections.emptyNavigableMap(), new ConcurrentSkipListMap<>());
+        try {
+            replay(loaded.live());
+        } catch (DataAccessException e) {
+            // serve the file as it is; the next refresh catches up once the database is back
+        }
+        state = loaded;
+    }
+
+    @Scheduled(fixedDelayString = "${products.snapshot.refresh-interval:PT1S}")
+    public synchronized void refresh() throws IOException {
+        State current = state;
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (current == null) {
+            load();
+            return;
+        }
+        replay(current.live());
+        if (current.live().size() >= properties.getCompactThreshold()) {
+            compact(current);
+        }
+    }
+
+    private SnapshotFile reuse() {
+        if (!Files.exists(properties.getFile())) {
+            return null;
+        }
+        try {
+            SnapshotFile file = SnapshotFile.open(properties.getFile());
+            if (file.writtenAt().isBefore(Instant.now().minus(changeFeedProperties.getRetention()))) {
+                return null;
+            }
+            cursor = file.cursor();
+            refreshedAt = file.writtenAt().toEpochMilli();
+            return file;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private SnapshotFile build() {
+        return transactionTemplate.execute(status -> {
+            // changes of transactions the scan cannot see are replayed from the change feed afterwards
+            ChangeFeedCursor scanned = new ChangeFeedCursor(productChangeRepository.currentXmin() - 1, Long.MAX_VALUE);
+            try (SnapshotWriter writer = SnapshotWriter.create(properties.getFile())) {
+                productRepository.streamAll(SCAN_FETCH_SIZE, product -> {
+                    try {
+                        writer.write(product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                cursor = scanned;
+                refreshedAt = System.currentTimeMillis();
+                return writer.finish(scanned);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void replay(ConcurrentNavigableMap<Long, Change> target) {
+        List<ProductChange> changes;
+        do {
+            changes = productChangeRepository.findAfter(cursor.txId(), cursor.changeId(), REFRESH_PAGE_SIZE);
+            for (ProductChange change : changes) {
+                target.put(change.productId(), change.product() == null ? DELETED : new Change(change.product()));
+                cursor = new ChangeFeedCursor(change.txId(), change.changeId());
+            }
+        } while (changes.size() == REFRESH_PAGE_SIZE);
+        refreshedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Merges the overlay into a new snapshot file. Reads keep using the old file and the frozen overlay
+     * until the new file is in place; writes of this instance go to a fresh overlay meanwhile. If the file
+     * cannot be written, the frozen changes go back into the overlay so the next compaction includes them.
+     */
+    private void compact(State current) throws IOException {
+        State freezing = new State(current.base(), current.live(), new ConcurrentSkipListMap<>());
+        state = freezing;
+        try {
+            state = new State(write(freezing), Collections.emptyNavigableMap(), freezing.live());
+        } catch (IOException | RuntimeException e) {
+            current.live().forEach(freezing.live()::putIfAbsent);
+            state = new State(current.base(), Collections.emptyNavigableMap(), freezing.live());
+            throw e;
+        }
+    }
+
+    private SnapshotFile write(State freezing) throws IOException {
+        try (SnapshotWriter writer = SnapshotWriter.create(properties.getFile())) {
+            long afterId = Long.MIN_VALUE;
+            List<ProductResponse> page;
+            do {
+                page = freezing.findAfter(afterId, SCAN_FETCH_SIZE);
+                for (ProductResponse product : page) {
+                    writer.write(product);
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).id();
+                }
+            } while (page.size() == SCAN_FETCH_SIZE);
+            return writer.finish(cursor);
+        }
+    }
+
+    private double ageSeconds() {
+        return state == null ? Double.NaN : (System.currentTimeMillis() - refreshedAt) / 1000.0;
+    }
+
+    private static <T> T next(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private record Change(ProductResponse product) {
+    }
+
+    private record State(SnapshotFile base, NavigableMap<Long, Change> frozen, ConcurrentNavigableMap<Long, Change> live) {
+        Change changed(long id) {
+            Change change = live.get(id);
+            return change != null ? change : frozen.get(id);
+        }
+
+        /**
+         * Merges the overlays into the file; a change in the live overlay wins over one in the frozen
+         * overlay, which wins over the file, and deleted products are left out.
+         */
+        List<ProductResponse> findAfter(long afterId, int limit) {
+            Iterator<Map.Entry<Long, Change>> liveChanges = live.tailMap(afterId, false).entrySet().iterator();
+            Iterator<Map.Entry<Long, Change>> frozenChanges = frozen.tailMap(afterId, false).entrySet().iterator();
+            Map.Entry<Long, Change> nextLive = next(liveChanges);
+            Map.Entry<Long, Change> nextFrozen = next(frozenChanges);
+            long index = base.indexAfter(afterId);
+
+            List<ProductResponse> products = new ArrayList<>(limit);
+            while (products.size() < limit) {
+                long id = Long.MAX_VALUE;
+                if (nextLive != null) {
+                    id = nextLive.getKey();
+                }
+                if (nextFrozen != null) {
+                    id = Math.min(id, nextFrozen.getKey());
+                }
+                if (index < base.size()) {
+                    id = Math.min(id, base.idAt(index));
+                } else if (nextLive == null && nextFrozen == null) {
+                    break;
+                }
+                ProductResponse product = null;
+                boolean changed = false;
+                if (nextLive != null && nextLive.getKey() == id) {
+                    product = nextLive.getValue().product();
+                    changed = true;
+                    nextLive = next(liveChanges);
+                }
+                if (nextFrozen != null && nextFrozen.getKey() == id) {
+                    if (!changed) {
+                        product = nextFrozen.getValue().product();
+                        changed = true;
+                    }
+                    nextFrozen = next(frozenChanges);
+                }
+                if (index < base.size() && base.idAt(index) == id) {
+                    if (!changed) {
+                        product = base.read(index);
+                    }
+                    index++;
+                }
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+            return products;
+        }
+    }
+}
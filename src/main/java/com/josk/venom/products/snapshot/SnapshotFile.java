@@ -0,0 +1,169 @@
+package com.josk.venom.products.snapshot;
+
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.service.ChangeFeedCursor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Read-only view of a snapshot file mapped into memory. The file holds a header, fixed-width product
+ * records sorted by id and a string area:
+ * <pre>
+ * header  magic, version, record count, string area offset, change feed cursor, write time
+ * record  id, price, stock, flags, created at, updated at, name offset, description offset (56 bytes)
+ * string  length, UTF-8 bytes; records point into the area, and repeated strings are stored once
+ * </pre>
+ * Records are found by binary search over their ids, so the records double as the index and nothing of
+ * the catalog is kept on the heap. The file is mapped in overlapping windows of 1 GB, so a record or
+ * string that starts in a window always ends in it.
+ */
+final class SnapshotFile {
+    static final long MAGIC = 0x56454e4f4d534e50L;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 128;
+    static final int RECORD_SIZE = 56;
+    static final int NULL_CREATED_AT = 1;
+    static final int NULL_UPDATED_AT = 2;
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final long WINDOW = 1L << 30;
+    private static final long OVERLAP = 1L << 12;
+    static final int MAX_STRING_BYTES = (int) OVERLAP - Integer.BYTES;
+
+    private final Path path;
+    private final MappedByteBuffer[] windows;
+    private final long size;
+    private final long stringsOffset;
+    private final ChangeFeedCursor cursor;
+    private final Instant writtenAt;
+
+    private SnapshotFile(Path path, MappedByteBuffer[] windows) throws IOException {
+        this.path = path;
+        this.windows = windows;
+        if (windows.length == 0 || getLong(0) != MAGIC || getInt(8) != VERSION) {
+            throw new IOException("Not a product snapshot: " + path);
+        }
+        this.size = getLong(16);
+        this.stringsOffset = getLong(24);
+        this.cursor = new ChangeFeedCursor(getLong(32), getLong(40));
+        this.writtenAt = Instant.ofEpochMilli(getLong(48));
+    }
+
+    static SnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int count = (int) ((length + WINDOW - 1) / WINDOW);
+            MappedByteBuffer[] windows = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = i * WINDOW;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW + OVERLAP, length - start));
+            }
+            return new SnapshotFile(path, windows);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long size() {
+        return size;
+    }
+
+    ChangeFeedCursor cursor() {
+        return cursor;
+    }
+
+    Instant writtenAt() {
+        return writtenAt;
+    }
+
+    long idAt(long index) {
+        return getLong(recordOffset(index));
+    }
+
+    /**
+     * Index of the first record with an id greater than the given one, or {@link #size()} if there is none.
+     */
+    long indexAfter(long id) {
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (idAt(mid) <= id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    ProductResponse find(long id) {
+        long index = indexAfter(id) - 1;
+        return index >= 0 && idAt(index) == id ? read(index) : null;
+    }
+
+    ProductResponse read(long index) {
+        long offset = recordOffset(index);
+        int flags = getInt(offset + 20);
+        return new ProductResponse(
+                getLong(offset),
+                string(stringsOffset + getLong(offset + 40)),
+                string(stringsOffset + getLong(offset + 48)),
+                getDouble(offset + 8),
+                getInt(offset + 16),
+                (flags & NULL_CREATED_AT) != 0 ? null : time(getLong(offset + 24)),
+                (flags & NULL_UPDATED_AT) != 0 ? null : time(getLong(offset + 32)));
+    }
+
+    static long micros(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime time(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000,
+                ZoneOffset.UTC);
+    }
+
+    private static long recordOffset(long index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private String string(long offset) {
+        int length = getInt(offset);
+        byte[] bytes = new byte[length];
+        ByteBuffer window = window(offset);
+        window.get((int) (offset - start(offset)) + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long getLong(long offset) {
+        return window(offset).getLong((int) (offset - start(offset)));
+    }
+
+    private int getInt(long offset) {
+        return window(offset).getInt((int) (offset - start(offset)));
+    }
+
+    private double getDouble(long offset) {
+        return window(offset).getDouble((int) (offset - start(offset)));
+    }
+
+    private ByteBuffer window(long offset) {
+        return windows[(int) (offset / WINDOW)];
+    }
+
+    private static long start(long offset) {
+        return offset / WINDOW * WINDOW;
+    }
+}
@@ -0,0 +1,128 @@
+package com.josk.venom.products.snapshot;
+
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.service.ChangeFeedCursor;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a {@link SnapshotFile} from products passed in id order. Records and strings go to separate
+ * temporary files that are joined and moved over the target when the snapshot is finished, so readers of
+ * the previous snapshot are never affected.
+ */
+final class SnapshotWriter implements Closeable {
+    private static final int MAX_INTERNED = 1 << 16;
+
+    private final Path target;
+    private final Path recordsFile;
+    private final Path stringsFile;
+    private final DataOutputStream records;
+    private final DataOutputStream strings;
+    private final Map<String, Long> interned = new HashMap<>();
+    private long size;
+    private long stringsLength;
+    private long lastId = Long.MIN_VALUE;
+    private boolean finished;
+
+    private SnapshotWriter(Path target) throws IOException {
+        this.target = target;
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        this.recordsFile = Files.createTempFile(directory, target.getFileName().toString(), ".records");
+        this.stringsFile = Files.createTempFile(directory, target.getFileName().toString(), ".strings");
+        this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile), 1 << 16));
+        this.strings = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(stringsFile), 1 << 16));
+        records.write(new byte[SnapshotFile.HEADER_SIZE]);
+    }
+
+    static SnapshotWriter create(Path target) throws IOException {
+        return new SnapshotWriter(target);
+    }
+
+    void write(ProductResponse product) throws IOException {
+        if (product.id() <= lastId) {
+            throw new IllegalStateException("Products must be written in id order");
+        }
+        lastId = product.id();
+        int flags = (product.createdAt() == null ? SnapshotFile.NULL_CREATED_AT : 0)
+                | (product.updatedAt() == null ? SnapshotFile.NULL_UPDATED_AT : 0);
+        records.writeLong(product.id());
+        records.writeDouble(product.price());
+        records.writeInt(product.stock());
+        records.writeInt(flags);
+        records.writeLong(SnapshotFile.micros(product.createdAt()));
+        records.writeLong(SnapshotFile.micros(product.updatedAt()));
+        records.writeLong(string(product.name()));
+        records.writeLong(string(product.description()));
+        size++;
+    }
+
+    SnapshotFile finish(ChangeFeedCursor cursor) throws IOException {
+        records.close();
+        strings.close();
+        long stringsOffset = SnapshotFile.HEADER_SIZE + size * SnapshotFile.RECORD_SIZE;
+        try (FileChannel out = FileChannel.open(recordsFile, StandardOpenOption.WRITE);
+             FileChannel in = FileChannel.open(stringsFile, StandardOpenOption.READ)) {
+            for (long copied = 0; copied < stringsLength; ) {
+                copied += in.transferTo(copied, stringsLength - copied, out.position(stringsOffset + copied));
+            }
+            ByteBuffer header = ByteBuffer.allocate(SnapshotFile.HEADER_SIZE)
+                    .putLong(SnapshotFile.MAGIC)
+                    .putInt(SnapshotFile.VERSION)
+                    .putInt(0)
+                    .putLong(size)
+                    .putLong(stringsOffset)
+                    .putLong(cursor.txId())
+                    .putLong(cursor.changeId())
+                    .putLong(System.currentTimeMillis());
+            header.rewind();
+            out.write(header, 0);
+            out.force(true);
+        }
+        Files.move(recordsFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+        return SnapshotFile.open(target);
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+        strings.close();
+        Files.deleteIfExists(stringsFile);
+        if (!finished) {
+            Files.deleteIfExists(recordsFile);
+        }
+    }
+
+    private long string(String value) throws IOException {
+        Long offset = interned.get(value);
+        if (offset != null) {
+            return offset;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > SnapshotFile.MAX_STRING_BYTES) {
+            throw new IOException("String of " + bytes.length + " bytes does not fit into a snapshot");
+        }
+        offset = stringsLength;
+        strings.writeInt(bytes.length);
+        strings.write(bytes);
+        stringsLength += Integer.BYTES + bytes.length;
+        if (interned.size() == MAX_INTERNED) {
+            interned.clear();
+        }
+        interned.put(value, offset);
+        return offset;
+    }
+}
@@ -0,0 +1,14 @@
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS products (
+    id          BIGINT           NOT NULL PRIMARY KEY,
+    name        VARCHAR(255)     NOT NULL,
+    description VARCHAR(255)     NOT NULL,
+    price       DOUBLE PRECISION NOT NULL,
+    stock       INTEGER          NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS products_price_idx ON products (price);
+CREATE INDEX IF NOT EXISTS products_stock_idx ON products (stock);
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS products_search_idx
+    ON products USING gin (to_tsvector('simple', name || ' ' || description));
@@ -0,0 +1,27 @@
+CREATE TABLE IF NOT EXISTS product_changes (
+    change_id   BIGSERIAL PRIMARY KEY,
+    product_id  BIGINT      NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    tx_id       BIGINT      NOT NULL DEFAULT pg_current_xact_id()::text::bigint,
+    changed_at  TIMESTAMP   NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS product_changes_position_idx ON product_changes (tx_id, change_id);
+CREATE INDEX IF NOT EXISTS product_changes_changed_at_idx ON product_changes (changed_at);
+
+CREATE OR REPLACE FUNCTION record_product_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO product_changes (product_id, change_type) VALUES (OLD.id, 'DELETED');
+        RETURN OLD;
+    END IF;
+    INSERT INTO product_changes (product_id, change_type)
+    VALUES (NEW.id, CASE TG_OP WHEN 'INSERT' THEN 'CREATED' ELSE 'UPDATED' END);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS products_change_feed ON products;
+CREATE TRIGGER products_change_feed
+    AFTER INSERT OR UPDATE OR DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION record_product_change();
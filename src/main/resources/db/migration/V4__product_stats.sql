@@ -0,0 +1,89 @@
+-- Catalog totals are kept as per-slot deltas: each connection adds to the slot picked by its backend pid, so
+-- concurrent writers rarely wait on the same row and a transaction never locks more than one slot.
+CREATE TABLE IF NOT EXISTS product_stats (
+    slot         SMALLINT         NOT NULL PRIMARY KEY,
+    products     BIGINT           NOT NULL DEFAULT 0,
+    stock_value  DOUBLE PRECISION NOT NULL DEFAULT 0,
+    out_of_stock BIGINT           NOT NULL DEFAULT 0
+);
+
+-- Band 0 holds prices below 1, band n prices in [2^(n-1), 2^n).
+CREATE TABLE IF NOT EXISTS product_price_bands (
+    slot     SMALLINT NOT NULL,
+    band     SMALLINT NOT NULL,
+    products BIGINT   NOT NULL DEFAULT 0,
+    PRIMARY KEY (slot, band)
+);
+
+CREATE OR REPLACE FUNCTION product_price_band(price DOUBLE PRECISION) RETURNS SMALLINT AS $$
+    SELECT CASE WHEN price < 1 THEN 0 ELSE floor(log(2, price::numeric))::smallint + 1 END;
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION apply_product_stats(stats_slot SMALLINT,
+                                               old_prices DOUBLE PRECISION[], old_stocks INTEGER[],
+                                               new_prices DOUBLE PRECISION[], new_stocks INTEGER[]) RETURNS void AS $$
+    WITH changes AS (
+        SELECT -1 AS sign, price, stock FROM unnest(old_prices, old_stocks) AS o (price, stock)
+        UNION ALL
+        SELECT 1, price, stock FROM unnest(new_prices, new_stocks) AS n (price, stock)
+    ), totals AS (
+        INSERT INTO product_stats (slot, products, stock_value, out_of_stock)
+        SELECT stats_slot, sum(sign), sum(sign * price * stock), coalesce(sum(sign) FILTER (WHERE stock <= 0), 0)
+        FROM changes
+        HAVING sum(sign) <> 0 OR sum(sign * price * stock) <> 0 OR sum(sign) FILTER (WHERE stock <= 0) <> 0
+        ON CONFLICT (slot) DO UPDATE SET
+            products     = product_stats.products + EXCLUDED.products,
+            stock_value  = product_stats.stock_value + EXCLUDED.stock_value,
+            out_of_stock = product_stats.out_of_stock + EXCLUDED.out_of_stock
+    )
+    INSERT INTO product_price_bands (slot, band, products)
+    SELECT stats_slot, product_price_band(price), sum(sign)
+    FROM changes
+    GROUP BY product_price_band(price)
+    HAVING sum(sign) <> 0
+    ON CONFLICT (slot, band) DO UPDATE SET products = product_price_bands.products + EXCLUDED.products;
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION record_product_stats() RETURNS trigger AS $$
+DECLARE
+    stats_slot SMALLINT := pg_backend_pid() % 16;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM apply_product_stats(stats_slot, NULL, NULL, array_agg(price), array_agg(stock)) FROM new_rows;
+    ELSIF TG_OP = 'UPDATE' THEN
+        PERFORM apply_product_stats(stats_slot, o.prices, o.stocks, n.prices, n.stocks)
+        FROM (SELECT array_agg(price) AS prices, array_agg(stock) AS stocks FROM old_rows) o,
+             (SELECT array_agg(price) AS prices, array_agg(stock) AS stocks FROM new_rows) n;
+    ELSE
+        PERFORM apply_product_stats(stats_slot, array_agg(price), array_agg(stock), NULL, NULL) FROM old_rows;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS products_stats_insert ON products;
+CREATE TRIGGER products_stats_insert
+    AFTER INSERT ON products REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_product_stats();
+
+DROP TRIGGER IF EXISTS products_stats_update ON products;
+CREATE TRIGGER products_stats_update
+    AFTER UPDATE ON products REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_product_stats();
+
+DROP TRIGGER IF EXISTS products_stats_delete ON products;
+CREATE TRIGGER products_stats_delete
+    AFTER DELETE ON products REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_product_stats();
+
+-- Seed the counters for catalogs that existed before this migration.
+INSERT INTO product_stats (slot, products, stock_value, out_of_stock)
+SELECT 0, count(*), coalesce(sum(price * stock), 0), count(*) FILTER (WHERE stock <= 0)
+FROM products
+HAVING NOT EXISTS (SELECT 1 FROM product_stats);
+
+INSERT INTO product_price_bands (slot, band, products)
+SELECT 0, product_price_band(price), count(*)
+FROM products
+WHERE NOT EXISTS (SELECT 1 FROM product_price_bands)
+GROUP BY product_price_band(price);
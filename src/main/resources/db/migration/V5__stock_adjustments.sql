@@ -0,0 +1,7 @@
+-- Staging queue for write-behind stock adjustments. Rows are deleted as they are applied, so vacuum it eagerly.
+CREATE TABLE IF NOT EXISTS stock_adjustments (
+    id         BIGSERIAL PRIMARY KEY,
+    product_id BIGINT    NOT NULL,
+    delta      INTEGER   NOT NULL,
+    queued_at  TIMESTAMP NOT NULL DEFAULT now()
+) WITH (autovacuum_vacuum_scale_factor = 0, autovacuum_vacuum_threshold = 10000);
@@ -0,0 +1,20 @@
+-- Pick the counter slot per transaction instead of per connection. A pooled connection keeps its backend pid for
+-- its whole life, so connections that shared pid % 16 waited on each other for every write; the transaction id
+-- spreads writers over the slots anew each time while a transaction still locks only one slot.
+-- Slot 16 is never picked by writers: it holds the corrections written by the hourly reconciliation.
+CREATE OR REPLACE FUNCTION record_product_stats() RETURNS trigger AS $$
+DECLARE
+    stats_slot SMALLINT := (pg_current_xact_id()::text::bigint % 16)::smallint;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM apply_product_stats(stats_slot, NULL, NULL, array_agg(price), array_agg(stock)) FROM new_rows;
+    ELSIF TG_OP = 'UPDATE' THEN
+        PERFORM apply_product_stats(stats_slot, o.prices, o.stocks, n.prices, n.stocks)
+        FROM (SELECT array_agg(price) AS prices, array_agg(stock) AS stocks FROM old_rows) o,
+             (SELECT array_agg(price) AS prices, array_agg(stock) AS stocks FROM new_rows) n;
+    ELSE
+        PERFORM apply_product_stats(stats_slot, array_agg(price), array_agg(stock), NULL, NULL) FROM old_rows;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
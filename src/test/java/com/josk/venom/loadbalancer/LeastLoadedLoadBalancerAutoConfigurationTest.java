@@ -0,0 +1,62 @@
+package com.josk.venom.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClientAutoConfiguration;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.commons.util.UtilAutoConfiguration;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerAutoConfiguration;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class LeastLoadedLoadBalancerAutoConfigurationTest {
+    private static final String INSTANCES = "spring.cloud.discovery.client.simple.instances."
+            + LeastLoadedLoadBalancerAutoConfiguration.PRODUCT_SERVICE;
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(UtilAutoConfiguration.class,
+                    SimpleDiscoveryClientAutoConfiguration.class, LoadBalancerAutoConfiguration.class,
+                    LeastLoadedLoadBalancerAutoConfiguration.class))
+            .withPropertyValues(
+                    "spring.cloud.loadbalancer.cache.enabled=false",
+                    INSTANCES + "[0].instance-id=loaded",
+                    INSTANCES + "[0].uri=http://loaded:8080",
+                    INSTANCES + "[1].instance-id=idle",
+                    INSTANCES + "[1].uri=http://idle:8080");
+
+    @Test
+    void loadBalancer_ShouldAvoidTheLoadedInstance_WhenEnabled() {
+        long now = System.currentTimeMillis();
+        contextRunner.withPropertyValues("products.load-balancing.client.enabled=true")
+                .withPropertyValues(metadata(0, new InstanceLoad(40, 300, 0.9, 0.2, now)))
+                .withPropertyValues(metadata(1, new InstanceLoad(1, 10, 0.1, 0.9, now)))
+                .run(context -> {
+                    ReactiveLoadBalancer<ServiceInstance> loadBalancer = context.getBean(LoadBalancerClientFactory.class)
+                            .getInstance(LeastLoadedLoadBalancerAutoConfiguration.PRODUCT_SERVICE);
+                    assertInstanceOf(LeastLoadedLoadBalancer.class, loadBalancer);
+                    for (int i = 0; i < 50; i++) {
+                        Response<ServiceInstance> response = Mono.from(loadBalancer.choose()).block();
+                        assertEquals("idle", response.getServer().getInstanceId());
+                    }
+                });
+    }
+
+    @Test
+    void loadBalancer_ShouldStayRoundRobin_WhenNotEnabled() {
+        contextRunner.run(context -> assertInstanceOf(RoundRobinLoadBalancer.class, context.getBean(LoadBalancerClientFactory.class)
+                .getInstance(LeastLoadedLoadBalancerAutoConfiguration.PRODUCT_SERVICE)));
+    }
+
+    private static String[] metadata(int index, InstanceLoad load) {
+        return load.toMetadata().entrySet().stream()
+                .map(entry -> INSTANCES + "[" + index + "].metadata[" + entry.getKey() + "]=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+}
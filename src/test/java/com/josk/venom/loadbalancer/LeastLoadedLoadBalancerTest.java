@@ -0,0 +1,82 @@
+package com.josk.venom.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeastLoadedLoadBalancerTest {
+    private static final long NOW = 1_000_000;
+
+    private final LeastLoadedLoadBalancer loadBalancer = new LeastLoadedLoadBalancer(null, Duration.ofSeconds(90), () -> NOW);
+
+    @Test
+    void choose_ShouldPreferLessLoadedInstance() {
+        ServiceInstance busy = instance("busy", new InstanceLoad(40, 250, 0.9, 0.5, NOW).toMetadata());
+        ServiceInstance idle = instance("idle", new InstanceLoad(2, 40, 0.1, 0.9, NOW).toMetadata());
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("idle", loadBalancer.choose(List.of(busy, idle)).getServer().getInstanceId());
+        }
+    }
+
+    @Test
+    void choose_ShouldNeverPickMostLoadedOfSeveralInstances() {
+        List<ServiceInstance> instances = List.of(
+                instance("a", new InstanceLoad(1, 20, 0, 1, NOW).toMetadata()),
+                instance("b", new InstanceLoad(5, 20, 0, 1, NOW).toMetadata()),
+                instance("c", new InstanceLoad(50, 900, 0.95, 0, NOW).toMetadata()));
+
+        Set<String> chosen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            chosen.add(loadBalancer.choose(instances).getServer().getInstanceId());
+        }
+
+        assertFalse(chosen.contains("c"));
+        assertTrue(chosen.contains("b"));
+    }
+
+    @Test
+    void choose_ShouldIgnoreStaleLoad() {
+        ServiceInstance busy = instance("busy", new InstanceLoad(40, 250, 0.9, 0.5, NOW).toMetadata());
+        ServiceInstance stale = instance("stale", new InstanceLoad(0, 1, 0, 1, NOW - 91_000).toMetadata());
+
+        Set<String> chosen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            chosen.add(loadBalancer.choose(List.of(busy, stale)).getServer().getInstanceId());
+        }
+
+        assertEquals(Set.of("busy", "stale"), chosen);
+    }
+
+    @Test
+    void choose_ShouldReturnEmptyResponse_WhenNoInstanceIsAvailable() {
+        Response<ServiceInstance> response = loadBalancer.choose(List.of());
+
+        assertFalse(response.hasServer());
+    }
+
+    @Test
+    void fromMetadata_ShouldReadPublishedLoad() {
+        InstanceLoad load = new InstanceLoad(3, 12.4, 0.25, Double.NaN, NOW);
+
+        InstanceLoad read = InstanceLoad.fromMetadata(load.toMetadata()).orElseThrow();
+
+        assertEquals(new InstanceLoad(3, 12, 0.25, Double.NaN, NOW), read);
+        assertTrue(InstanceLoad.fromMetadata(Map.of(InstanceLoad.IN_FLIGHT, "x", InstanceLoad.UPDATED_AT, "1")).isEmpty());
+    }
+
+    private static ServiceInstance instance(String id, Map<String, String> metadata) {
+        return new DefaultServiceInstance(id, "venom_product_service", id, 8080, false, metadata);
+    }
+}
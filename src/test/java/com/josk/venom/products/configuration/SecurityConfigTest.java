@@ -0,0 +1,112 @@
+package com.josk.venom.products.configuration;
+
+import com.josk.venom.products.dto.ProductPage;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.service.ProductService;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "products.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+    private static final String PRODUCT_JSON = "{\"name\":\"Product\",\"price\":10}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Test
+    void reads_ShouldBePublic() throws Exception {
+        when(productService.getProducts(null, null)).thenReturn(new ProductPage<>(List.of(), null));
+
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void writes_ShouldRequireBearerToken() throws Exception {
+        mockMvc.perform(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON).content(PRODUCT_JSON))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+    }
+
+    @Test
+    void writes_ShouldBeAccepted_WithValidToken() throws Exception {
+        when(productService.createProduct(any())).thenReturn(ProductResponse.from(
+                Product.builder().id(1L).name("Product").price(10).build()));
+
+        mockMvc.perform(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON).content(PRODUCT_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(secret)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void writes_ShouldBeRejected_WithForgedToken() throws Exception {
+        mockMvc.perform(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON).content(PRODUCT_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("another-secret-for-hmac-sha256-signatures")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void actuator_ShouldRequireBearerToken_ExceptHealth() throws Exception {
+        mockMvc.perform(delete("/actuator/caches"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(result -> assertNotEquals(401, result.getResponse().getStatus()));
+    }
+
+    @Test
+    void apiDocs_ShouldRequireBearerToken() throws Exception {
+        mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/v3/api-docs").header(HttpHeaders.AUTHORIZATION, "Bearer " + token(secret)))
+                .andExpect(status().isOk());
+    }
+
+    private static String token(String secret) {
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(
+                new ImmutableSecret<>(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256")));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("alice")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims)).getTokenValue();
+    }
+}
@@ -0,0 +1,67 @@
+package com.josk.venom.products.controller;
+
+import com.josk.venom.products.dto.ProductChangeEvent;
+import com.josk.venom.products.dto.ProductChangePage;
+import com.josk.venom.products.dto.ProductChangeType;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.service.ProductChangeServiceImpl;
+import com.josk.venom.products.service.ProductChangeSubscriptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductChangeController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ProductChangeControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ProductChangeServiceImpl productChangeService;
+    @MockBean
+    private ProductChangeSubscriptions productChangeSubscriptions;
+
+    private final ProductChangePage page = new ProductChangePage(List.of(
+            new ProductChangeEvent(1L, ProductChangeType.UPDATED, new ProductResponse(1L, "Product", "Description", 10.0, 3, null, null)),
+            new ProductChangeEvent(2L, ProductChangeType.DELETED, null)), "next", false);
+
+    @Test
+    void getChanges_ShouldReturnChangesSinceCursor() throws Exception {
+        when(productChangeService.getChanges("abc", null)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/products/changes").param("since", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[0].product.name").value("Product"))
+                .andExpect(jsonPath("$.changes[1].type").value("DELETED"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getChanges_ShouldLongPoll_WhenWaitIsGiven() throws Exception {
+        DeferredResult<ProductChangePage> result = new DeferredResult<>();
+        result.setResult(page);
+        when(productChangeSubscriptions.await("abc", null, Duration.ofSeconds(20))).thenReturn(result);
+
+        var asyncResult = mockMvc.perform(get("/api/v1/products/changes").param("since", "abc").param("wait", "20"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+}
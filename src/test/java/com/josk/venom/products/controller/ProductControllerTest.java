@@ -1,35 +1,64 @@
 package com.josk.venom.products.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.josk.venom.products.configuration.JacksonConfig;
+import com.josk.venom.products.dto.ProductPage;
+import com.josk.venom.products.dto.ProductPatch;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.dto.ProductSearchCriteria;
+import com.josk.venom.products.dto.ProductSearchPage;
+import com.josk.venom.products.dto.ProductSearchSort;
+import com.josk.venom.products.exception.PreconditionFailedException;
 import com.josk.venom.products.exception.ProductNotFoundException;
 import com.josk.venom.products.model.Product;
 import com.josk.venom.products.service.ProductServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ProductController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(JacksonConfig.class)
 public class ProductControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -49,21 +78,105 @@ public class ProductControllerTest {
 
     @Test
     void getAllProducts_ShouldReturnListOfProducts() throws Exception {
-        List<Product> productList = Collections.singletonList(testProduct);
-        when(productService.getAllProducts()).thenReturn(productList);
+        List<ProductResponse> productList = Collections.singletonList(ProductResponse.from(testProduct));
+        when(productService.getProducts(null, null)).thenReturn(new ProductPage<>(productList, "cursor"));
 
         mockMvc.perform(get("/api/v1/products")
                 .contentType(APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(APPLICATION_JSON))
+                .andExpect(jsonPath("$.items[0].name").value(PRODUCT_NAME))
+                .andExpect(jsonPath("$.items[0].price").value(PRODUCT_PRICE))
+                .andExpect(jsonPath("$.nextCursor").value("cursor"));
+    }
+
+    @Test
+    void getProductsByIds_ShouldReturnRequestedProducts() throws Exception {
+        testProduct.setId(1L);
+        when(productService.getProductsByIds(List.of(1L, 2L))).thenReturn(List.of(ProductResponse.from(testProduct)));
+
+        mockMvc.perform(get("/api/v1/products").param("ids", "1,2").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].name").value(PRODUCT_NAME))
-                .andExpect(jsonPath("$[0].price").value(PRODUCT_PRICE));
+                .andExpect(jsonPath("$[0].price").doesNotExist());
+    }
+
+    @Test
+    void getAllProducts_ShouldNegotiateCbor() throws Exception {
+        List<ProductResponse> productList = Collections.singletonList(ProductResponse.from(testProduct));
+        when(productService.getProducts(null, null)).thenReturn(new ProductPage<>(productList, "cursor"));
+
+        byte[] body = mockMvc.perform(get("/api/v1/products").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new CBORMapper().readTree(body);
+        assertEquals(PRODUCT_NAME, page.path("items").path(0).path("name").asText());
+        assertEquals("cursor", page.path("nextCursor").asText());
+    }
+
+    @Test
+    void getAllProducts_ShouldNegotiateSmile() throws Exception {
+        List<ProductResponse> productList = Collections.singletonList(ProductResponse.from(testProduct));
+        when(productService.getProducts(null, null)).thenReturn(new ProductPage<>(productList, null));
+
+        byte[] body = mockMvc.perform(get("/api/v1/products").accept(ProductController.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProductController.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new SmileMapper().readTree(body);
+        assertEquals(PRODUCT_PRICE, page.path("items").path(0).path("price").asInt());
+    }
+
+    @Test
+    void getAllProducts_ShouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductResponse> consumer = invocation.getArgument(0);
+            consumer.accept(ProductResponse.from(testProduct));
+            consumer.accept(ProductResponse.from(testProduct));
+            return null;
+        }).when(productService).streamProducts(any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/products").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(2, body.lines().count());
+    }
+
+    @Test
+    void searchProducts_ShouldPassCriteriaToService() throws Exception {
+        ProductSearchCriteria criteria = new ProductSearchCriteria("test", 50.0, null, true, ProductSearchSort.PRICE_DESC, 0, null);
+        when(productService.searchProducts(criteria))
+                .thenReturn(new ProductSearchPage<>(List.of(ProductResponse.from(testProduct)), 0, 20, false));
+
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "test")
+                        .param("minPrice", "50")
+                        .param("inStock", "true")
+                        .param("sort", "price_desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value(PRODUCT_NAME))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void searchProducts_ShouldRejectUnknownSort() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search").param("sort", "popularity"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void getProductById_ShouldReturnProductById() throws Exception {
         testProduct.setId(1L);
-        when(productService.getProductById(1L)).thenReturn(testProduct);
+        when(productService.getProductById(1L)).thenReturn(ProductResponse.from(testProduct));
 
         mockMvc.perform(get("/api/v1/products/{id}", 1L)
                         .contentType(APPLICATION_JSON))
@@ -73,9 +186,168 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("price").value(PRODUCT_PRICE));
     }
 
+    @Test
+    void getProductById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        testProduct.setId(1L);
+        testProduct.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000));
+        when(productService.getProductById(1L)).thenReturn(ProductResponse.from(testProduct));
+
+        String eTag = mockMvc.perform(get("/api/v1/products/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/products/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllProducts_ShouldReturnNotModified_WhenPageUnchanged() throws Exception {
+        testProduct.setId(1L);
+        testProduct.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 12, 30));
+        when(productService.getProducts(null, null))
+                .thenReturn(new ProductPage<>(List.of(ProductResponse.from(testProduct)), null));
+
+        String eTag = mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/products").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/products").param("fields", "name").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateProduct_ShouldUseIfMatchVersion() throws Exception {
+        LocalDateTime version = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+        Product current = Product.builder().id(1L).name(PRODUCT_NAME).price(100).updatedAt(version).build();
+        when(productService.getProductById(1L)).thenReturn(ProductResponse.from(current));
+        Product updatedProduct = Product.builder().id(1L).name("Updated product").price(200).updatedAt(version.plusSeconds(1)).build();
+        when(productService.updateProduct(eq(1L), any(Product.class), eq(version))).thenReturn(ProductResponse.from(updatedProduct));
+
+        String eTag = mockMvc.perform(get("/api/v1/products/{id}", 1L))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/v1/products/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(APPLICATION_JSON)
+                        .content("{\"name\": \"Updated product\", \"price\": 200}"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("name").value("Updated product"));
+    }
+
+    @Test
+    void updateProduct_ShouldAcceptEveryFormOfItsOwnTag() throws Exception {
+        LocalDateTime version = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+        Product current = Product.builder().id(1L).name(PRODUCT_NAME).price(100).updatedAt(version).build();
+        when(productService.getProductById(1L)).thenReturn(ProductResponse.from(current));
+        when(productService.updateProduct(eq(1L), any(Product.class), eq(version))).thenReturn(ProductResponse.from(current));
+        String eTag = mockMvc.perform(get("/api/v1/products/{id}", 1L))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String fieldsETag = mockMvc.perform(get("/api/v1/products/{id}", 1L).param("fields", "name"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String bare = eTag.substring(0, eTag.length() - 1);
+
+        for (String ifMatch : List.of("W/" + eTag, fieldsETag, bare + "-gzip\"", bare + "-zstd\"",
+                fieldsETag.substring(0, fieldsETag.length() - 1) + "-zstd\"", "\"2-abc\", " + eTag)) {
+            mockMvc.perform(put("/api/v1/products/{id}", 1L)
+                            .header(HttpHeaders.IF_MATCH, ifMatch)
+                            .contentType(APPLICATION_JSON)
+                            .content("{\"name\": \"Updated product\", \"price\": 200}"))
+                    .andExpect(status().isOk());
+        }
+        verify(productService, times(6)).updateProduct(eq(1L), any(Product.class), eq(version));
+        verify(productService, never()).updateProduct(eq(1L), any(Product.class));
+    }
+
+    @Test
+    void updateProduct_ShouldWriteUnconditionally_WhenIfMatchIsStar() throws Exception {
+        Product updatedProduct = Product.builder().id(1L).name("Updated product").price(200).build();
+        when(productService.updateProduct(eq(1L), any(Product.class))).thenReturn(ProductResponse.from(updatedProduct));
+
+        mockMvc.perform(put("/api/v1/products/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(APPLICATION_JSON)
+                        .content("{\"name\": \"Updated product\", \"price\": 200}"))
+                .andExpect(status().isOk());
+
+        verify(productService).updateProduct(eq(1L), any(Product.class));
+    }
+
+    @Test
+    void deleteProduct_ShouldTryEachListedVersion() throws Exception {
+        doThrow(new PreconditionFailedException("modified")).when(productService)
+                .deleteProduct(eq(1L), eq(LocalDateTime.of(1970, 1, 1, 0, 0, 0, 10_000)));
+
+        mockMvc.perform(delete("/api/v1/products/{id}", 1L).header(HttpHeaders.IF_MATCH, "\"1-a\", W/\"1-b-gzip\""))
+                .andExpect(status().isNoContent());
+
+        verify(productService).deleteProduct(1L, LocalDateTime.of(1970, 1, 1, 0, 0, 0, 11_000));
+    }
+
+    @Test
+    void deleteProduct_ShouldReturnPreconditionFailed_WhenNoListedVersionIsCurrent() throws Exception {
+        doThrow(new PreconditionFailedException("modified")).when(productService).deleteProduct(eq(1L), any(LocalDateTime.class));
+
+        mockMvc.perform(delete("/api/v1/products/{id}", 1L).header(HttpHeaders.IF_MATCH, "\"1-a\", \"1-b\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(productService, times(2)).deleteProduct(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void updateProduct_ShouldReturnPreconditionFailed_WhenIfMatchIsForAnotherProduct() throws Exception {
+        mockMvc.perform(put("/api/v1/products/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"2-abc\"")
+                        .contentType(APPLICATION_JSON)
+                        .content("{\"name\": \"Updated product\", \"price\": 200}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void deleteProduct_ShouldReturnPreconditionFailed_WhenVersionIsStale() throws Exception {
+        doThrow(new PreconditionFailedException("modified")).when(productService).deleteProduct(eq(1L), any(LocalDateTime.class));
+
+        mockMvc.perform(delete("/api/v1/products/{id}", 1L).header(HttpHeaders.IF_MATCH, "\"1-abc\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void getProductById_ShouldReturnOnlyRequestedFields() throws Exception {
+        testProduct.setId(1L);
+        when(productService.getProductById(1L)).thenReturn(ProductResponse.from(testProduct));
+
+        mockMvc.perform(get("/api/v1/products/{id}", 1L).param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(1))
+                .andExpect(jsonPath("name").value(PRODUCT_NAME))
+                .andExpect(jsonPath("price").doesNotExist())
+                .andExpect(jsonPath("createdAt").doesNotExist());
+    }
+
+    @Test
+    void getAllProducts_ShouldApplyFieldsToEveryItem() throws Exception {
+        when(productService.getProducts(null, null))
+                .thenReturn(new ProductPage<>(List.of(ProductResponse.from(testProduct)), null));
+
+        mockMvc.perform(get("/api/v1/products").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value(PRODUCT_NAME))
+                .andExpect(jsonPath("$.items[0].price").doesNotExist());
+    }
+
+    @Test
+    void getProductById_ShouldRejectUnknownField() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", 1L).param("fields", "id,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createProduct_ShouldReturnCreatedProduct() throws Exception {
-        when(productService.createProduct(any(Product.class))).thenReturn(testProduct);
+        when(productService.createProduct(any(Product.class))).thenReturn(ProductResponse.from(testProduct));
 
         mockMvc.perform(post("/api/v1/products")
                         .contentType(APPLICATION_JSON)
@@ -90,7 +362,7 @@ public class ProductControllerTest {
     @Test
     void updateProduct_ShouldReturnUpdatedProduct() throws Exception {
         Product updatedProduct = Product.builder().id(1L).name("Updated product").price(200).build();
-        when(productService.updateProduct(anyLong(), any(Product.class))).thenReturn(updatedProduct);
+        when(productService.updateProduct(anyLong(), any(Product.class))).thenReturn(ProductResponse.from(updatedProduct));
 
         mockMvc.perform(put("/api/v1/products/{id}", 1L)
                         .contentType(APPLICATION_JSON)
@@ -102,6 +374,20 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("price").value(200));
     }
 
+    @Test
+    void patchProduct_ShouldReturnPatchedProduct() throws Exception {
+        Product patchedProduct = Product.builder().id(1L).name(PRODUCT_NAME).price(150).build();
+        when(productService.patchProduct(anyLong(), any(ProductPatch.class))).thenReturn(ProductResponse.from(patchedProduct));
+
+        mockMvc.perform(patch("/api/v1/products/{id}", 1L)
+                        .contentType(APPLICATION_JSON)
+                        .content("{\"price\": 150}")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value(PRODUCT_NAME))
+                .andExpect(jsonPath("price").value(150));
+    }
+
     @Test
     void deleteProduct_ShouldReturnNoContent() throws Exception {
         doNothing().when(productService).deleteProduct(1L);
@@ -0,0 +1,42 @@
+package com.josk.venom.products.controller;
+
+import com.josk.venom.products.dto.PriceBand;
+import com.josk.venom.products.dto.ProductStats;
+import com.josk.venom.products.service.ProductStatsServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductStatsController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ProductStatsControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ProductStatsServiceImpl productStatsService;
+
+    @Test
+    void getStats_ShouldReturnCatalogTotalsAndPriceDistribution() throws Exception {
+        when(productStatsService.getStats()).thenReturn(new ProductStats(3, 150.0, 1, List.of(
+                new PriceBand(8, 16, 2), new PriceBand(32, 64, 1))));
+
+        mockMvc.perform(get("/api/v1/products/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProducts").value(3))
+                .andExpect(jsonPath("$.totalStockValue").value(150.0))
+                .andExpect(jsonPath("$.outOfStock").value(1))
+                .andExpect(jsonPath("$.priceDistribution[0].minPrice").value(8.0))
+                .andExpect(jsonPath("$.priceDistribution[0].maxPrice").value(16.0))
+                .andExpect(jsonPath("$.priceDistribution[1].products").value(1));
+    }
+}
@@ -0,0 +1,77 @@
+package com.josk.venom.products.controller;
+
+import com.josk.venom.products.dto.ProductImportError;
+import com.josk.venom.products.dto.ProductImportProgress;
+import com.josk.venom.products.dto.ProductImportStatus;
+import com.josk.venom.products.dto.ProductTransferFormat;
+import com.josk.venom.products.service.ProductTransferServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductTransferController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ProductTransferControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ProductTransferServiceImpl productTransferService;
+
+    @Test
+    void exportProducts_ShouldStreamTheAcceptedFormat() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(productTransferService).exportProducts(eq(ProductTransferFormat.NDJSON), any());
+
+        var asyncResult = mockMvc.perform(get("/api/v1/products/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"products.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void importProducts_ShouldWriteOneProgressLinePerChunk() throws Exception {
+        when(productTransferService.importProducts(eq(ProductTransferFormat.CSV), any(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<ProductImportProgress>>getArgument(2).accept(
+                    new ProductImportProgress(ProductImportStatus.RUNNING, 2, 2, 0, 0, List.of()));
+            return new ProductImportProgress(ProductImportStatus.COMPLETED, 3, 2, 0, 1,
+                    List.of(new ProductImportError(4, "stock: must not be null")));
+        });
+
+        mockMvc.perform(post("/api/v1/products/import").contentType("text/csv").content("name\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("""
+                        {"status":"RUNNING","processed":2,"inserted":2,"updated":0,"rejected":0,"errors":[]}
+                        {"status":"COMPLETED","processed":3,"inserted":2,"updated":0,"rejected":1,\
+                        "errors":[{"line":4,"message":"stock: must not be null"}]}
+                        """));
+    }
+}
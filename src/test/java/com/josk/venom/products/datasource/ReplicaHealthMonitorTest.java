@@ -0,0 +1,52 @@
+package com.josk.venom.products.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class ReplicaHealthMonitorTest {
+
+    @Test
+    void lagMillis_ShouldTrustReplicaThatReachedPrimaryPosition() {
+        assertEquals(0L, ReplicaHealthMonitor.lagMillis(true, true, 60_000, false));
+    }
+
+    @Test
+    void lagMillis_ShouldRejectReplicaWithoutWalReceiver() {
+        assertNull(ReplicaHealthMonitor.lagMillis(false, true, 0, false));
+        assertNull(ReplicaHealthMonitor.lagMillis(null, true, 0, false));
+    }
+
+    @Test
+    void lagMillis_ShouldUseReplayAgeWhileReceiving() {
+        assertEquals(1_500L, ReplicaHealthMonitor.lagMillis(false, false, 1_500, true));
+        assertEquals(0L, ReplicaHealthMonitor.lagMillis(null, true, 1_500, true));
+    }
+
+    @Test
+    void lagMillis_ShouldUseReplayAge_WhenReplayedAllReceivedButBehindPrimary() {
+        assertEquals(1_500L, ReplicaHealthMonitor.lagMillis(false, true, 1_500, true));
+    }
+
+    @Test
+    void health_ShouldStayUp_WhenNoReplicaIsHealthy() {
+        ReplicaNode replica = new ReplicaNode("replica-0", mock(DataSource.class));
+        ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(mock(DataSource.class), List.of(replica));
+
+        Health health = monitor.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(true, health.getDetails().get("degraded"));
+
+        replica.markHealthy(0);
+        assertFalse((Boolean) monitor.health().getDetails().get("degraded"));
+    }
+}
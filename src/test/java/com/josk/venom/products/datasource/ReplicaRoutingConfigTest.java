@@ -0,0 +1,47 @@
+package com.josk.venom.products.datasource;
+
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.repository.ProductRepository;
+import com.josk.venom.products.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(properties = {
+        "products.replicas.enabled=true",
+        "products.replicas.urls[0]=jdbc:h2:mem:venom;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+class ReplicaRoutingConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private List<ReplicaNode> replicaNodes;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void readOnlyServiceCalls_ShouldBeServedThroughReplicaRouting() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        assertEquals(1, replicaNodes.size());
+        replicaNodes.get(0).markHealthy(0);
+
+        Product saved = productRepository.save(Product.builder().name("Replica Product").description("Description").price(10).build());
+        ProductResponse product = productService.getProductById(saved.getId());
+
+        assertEquals("Replica Product", product.name());
+    }
+}
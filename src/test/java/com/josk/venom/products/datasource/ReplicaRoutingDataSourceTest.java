@@ -0,0 +1,93 @@
+package com.josk.venom.products.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+    private ReplicaNode replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replica = new ReplicaNode("replica-0", database("replica"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica),
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUseHealthyReplica() {
+        replica.markHealthy(0);
+
+        assertEquals("replica", currentNode(readOnly));
+        assertEquals("primary", currentNode(readWrite));
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldFallBackToPrimary_WhenReplicaIsUnhealthyOrLagging() {
+        assertEquals("primary", currentNode(readOnly));
+
+        replica.markHealthy(Duration.ofSeconds(30).toMillis());
+        assertEquals("primary", currentNode(readOnly));
+    }
+
+    @Test
+    void recentWrites_ShouldOnlyReadFromReplicasThatCaughtUp() {
+        replica.markHealthy(2_000);
+        ReadYourWritesContext.setLastWrite(System.currentTimeMillis() - 1_000);
+        assertEquals("primary", currentNode(readOnly));
+
+        ReadYourWritesContext.setLastWrite(System.currentTimeMillis() - 3_000);
+        assertEquals("replica", currentNode(readOnly));
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUsePrimary_WhenNoReplicaIsConfigured() {
+        DataSource primary = database("primary");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(),
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+        assertEquals("primary", new JdbcTemplate(routing).queryForObject("select name from node", String.class));
+    }
+
+    private String currentNode(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(16))");
+        jdbcTemplate.execute("delete from node");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,46 @@
+package com.josk.venom.products.datasource;
+
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.dto.ProductSearchCriteria;
+import com.josk.venom.products.dto.ProductSearchSort;
+import com.josk.venom.products.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "products.replicas.enabled=true",
+        "products.replicas.urls[0]=jdbc:h2:mem:venom-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+                + ";INIT=RUNSCRIPT FROM 'classpath:shard-schema.sql'"
+})
+class ReplicaSearchRoutingTest {
+
+    @Autowired
+    private List<ReplicaNode> replicaNodes;
+
+    @Autowired
+    private ProductService productService;
+
+    // the real monitor cannot query replication state on H2 and would mark the replica unhealthy
+    @MockBean
+    private ReplicaHealthMonitor replicaHealthMonitor;
+
+    @Test
+    void searchProducts_ShouldBeServedByReplica() {
+        ReplicaNode replica = replicaNodes.get(0);
+        replica.markHealthy(0);
+        new JdbcTemplate(replica.getDataSource()).update("insert into products (id, name, description, price, stock) "
+                + "values (1, 'Replica Only', 'Description', 98765, 1)");
+
+        List<ProductResponse> found = productService.searchProducts(
+                new ProductSearchCriteria(null, 98765.0, null, false, ProductSearchSort.PRICE_ASC, 0, 10)).items();
+
+        assertEquals(List.of("Replica Only"), found.stream().map(ProductResponse::name).toList());
+    }
+}
@@ -0,0 +1,60 @@
+package com.josk.venom.products.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardRingTest {
+
+    @Test
+    void shardOf_ShouldSpreadSnowflakeIdsEvenly() {
+        ShardRing ring = new ShardRing(List.of("a", "b", "c"), 128);
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(1);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(ring.shardOf(ids.getAsLong()), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 8_000 && count < 12_000, "unbalanced: " + counts));
+    }
+
+    @Test
+    void shardOf_ShouldOnlyMoveIdsToAddedShard() {
+        ShardRing before = new ShardRing(List.of("a", "b"), 128);
+        ShardRing after = new ShardRing(List.of("a", "b", "c"), 128);
+
+        int moved = 0;
+        for (long id = 0; id < 10_000; id++) {
+            String owner = after.shardOf(id);
+            if (!owner.equals(before.shardOf(id))) {
+                assertEquals("c", owner);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > 2_000 && moved < 4_700, "moved " + moved);
+    }
+
+    @Test
+    void shardOf_ShouldNotDependOnShardOrder() {
+        ShardRing ring = new ShardRing(List.of("a", "b", "c"), 64);
+        ShardRing reordered = new ShardRing(List.of("c", "a", "b"), 64);
+
+        for (long id = 0; id < 1_000; id++) {
+            assertEquals(ring.shardOf(id), reordered.shardOf(id));
+        }
+    }
+
+    @Test
+    void constructor_ShouldRejectEmptyShardList() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(List.of(), 128));
+    }
+}
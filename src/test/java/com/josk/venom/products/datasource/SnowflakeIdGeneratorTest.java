@@ -0,0 +1,51 @@
+package com.josk.venom.products.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void getAsLong_ShouldIncrease_WhenSequenceOverflowsWithinOneMillisecond() {
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(3, () -> SnowflakeIdGenerator.EPOCH + 1000);
+
+        long previous = ids.getAsLong();
+        for (int i = 0; i < 10_000; i++) {
+            long next = ids.getAsLong();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void getAsLong_ShouldIncrease_WhenClockGoesBack() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 5000);
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(3, clock::get);
+
+        long first = ids.getAsLong();
+        clock.addAndGet(-2000);
+
+        assertTrue(ids.getAsLong() > first);
+    }
+
+    @Test
+    void getAsLong_ShouldEncodeWorkerId() {
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(5, () -> SnowflakeIdGenerator.EPOCH + 7);
+
+        long id = ids.getAsLong();
+
+        assertEquals(7, id >>> (SnowflakeIdGenerator.WORKER_BITS + SnowflakeIdGenerator.SEQUENCE_BITS));
+        assertEquals(5, (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_WORKER_ID);
+    }
+
+    @Test
+    void constructor_ShouldRejectWorkerIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.josk.venom.products.discovery;
+
+import com.josk.venom.loadbalancer.InstanceLoad;
+import com.josk.venom.loadbalancer.LeastLoadedLoadBalancer;
+import com.josk.venom.products.configuration.LoadBalancingProperties;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InstanceLoadReporterTest {
+
+    @Test
+    void measure_ShouldSteerTheLoadBalancerAwayFromTheLoadedInstance() {
+        MeterRegistry loaded = new SimpleMeterRegistry();
+        LongTaskTimer active = LongTaskTimer.builder("http.server.requests.active").register(loaded);
+        for (int i = 0; i < 30; i++) {
+            active.start();
+        }
+        record(loaded, "getProductById", 400);
+        MeterRegistry idle = new SimpleMeterRegistry();
+        record(idle, "getProductById", 5);
+
+        ServiceInstance loadedInstance = instance("loaded", reporter(loaded).measure());
+        ServiceInstance idleInstance = instance("idle", reporter(idle).measure());
+        ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+        when(supplier.get(any())).thenReturn(Flux.just(List.of(loadedInstance, idleInstance)));
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ServiceInstanceListSupplier> suppliers = mock(ObjectProvider.class);
+        when(suppliers.getIfAvailable(any())).thenReturn(supplier);
+        LeastLoadedLoadBalancer loadBalancer = new LeastLoadedLoadBalancer(suppliers, Duration.ofSeconds(90));
+
+        for (int i = 0; i < 50; i++) {
+            Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>()).block();
+            assertEquals("idle", response.getServer().getInstanceId());
+        }
+    }
+
+    @Test
+    void measure_ShouldOnlyCountLookupAndListLatency() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        record(meterRegistry, "getProductById", 10);
+        record(meterRegistry, "getProducts", 20);
+        record(meterRegistry, "streamProducts", 5_000);
+        Timer.builder("http.server.requests").tag("uri", "/api/v1/products/export").publishPercentiles(0.99)
+                .register(meterRegistry).record(Duration.ofSeconds(30));
+
+        InstanceLoad load = reporter(meterRegistry).measure();
+
+        assertEquals(20, load.p99Millis(), 2);
+    }
+
+    private static void record(MeterRegistry meterRegistry, String method, long millis) {
+        Timer timer = Timer.builder(InstanceLoadReporter.LATENCY_TIMER).tag("method", method).publishPercentiles(0.99)
+                .register(meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            timer.record(Duration.ofMillis(millis));
+        }
+    }
+
+    private static InstanceLoadReporter reporter(MeterRegistry meterRegistry) {
+        return new InstanceLoadReporter(meterRegistry, new LoadBalancingProperties(), Optional.empty());
+    }
+
+    private static ServiceInstance instance(String id, InstanceLoad load) {
+        return new DefaultServiceInstance(id, "venom_product_service", id, 8080, false, load.toMetadata());
+    }
+}
@@ -0,0 +1,86 @@
+package com.josk.venom.products.filter;
+
+import com.josk.venom.products.configuration.RateLimitProperties;
+import com.josk.venom.products.ratelimit.AdaptiveConcurrencyLimiter;
+import com.josk.venom.products.ratelimit.ClientRateLimiter;
+import com.josk.venom.products.ratelimit.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionControlFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldRejectClientOverItsRateWithRetryAfter() throws Exception {
+        properties.getEndpoints().put(EndpointClass.LIST, new RateLimitProperties.Bucket(1, 2));
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ClientRateLimiter(properties), null, meterRegistry);
+
+        assertEquals(200, execute(filter, "GET", "/api/v1/products", "10.0.0.1").getStatus());
+        assertEquals(200, execute(filter, "GET", "/api/v1/products", "10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = execute(filter, "GET", "/api/v1/products", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("Rate limit exceeded for list requests", rejected.getErrorMessage());
+        assertEquals(200, execute(filter, "GET", "/api/v1/products", "10.0.0.2").getStatus());
+        assertEquals(200, execute(filter, "GET", "/api/v1/products/1", "10.0.0.1").getStatus());
+        assertEquals(1, meterRegistry.get("http.server.requests.rejected")
+                .tag("reason", "rate_limited").tag("endpoint", "list").counter().count());
+    }
+
+    @Test
+    void shouldKeyAuthenticatedClientsByPrincipal() throws Exception {
+        properties.getEndpoints().put(EndpointClass.WRITE, new RateLimitProperties.Bucket(1, 1));
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ClientRateLimiter(properties), null, meterRegistry);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, AuthorityUtils.NO_AUTHORITIES));
+        assertEquals(200, execute(filter, "POST", "/api/v1/products", "10.0.0.1").getStatus());
+        assertEquals(429, execute(filter, "POST", "/api/v1/products", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void shouldShedLoadWhenConcurrencyLimitIsReached() throws Exception {
+        RateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+        concurrency.setInitialLimit(1);
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(concurrency, meterRegistry);
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ClientRateLimiter(properties), concurrencyLimiter, meterRegistry);
+
+        concurrencyLimiter.tryAcquire();
+        MockHttpServletResponse rejected = execute(filter, "GET", "/api/v1/products/1", "10.0.0.1");
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("Server is at its concurrency limit", rejected.getErrorMessage());
+        assertEquals(1, meterRegistry.get("http.server.requests.rejected")
+                .tag("reason", "overloaded").tag("endpoint", "read").counter().count());
+
+        concurrencyLimiter.release(0);
+        assertEquals(200, execute(filter, "GET", "/api/v1/products/1", "10.0.0.1").getStatus());
+    }
+
+    private static MockHttpServletResponse execute(AdmissionControlFilter filter, String method, String uri, String address)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
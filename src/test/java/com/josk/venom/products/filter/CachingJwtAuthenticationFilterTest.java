@@ -0,0 +1,101 @@
+package com.josk.venom.products.filter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CachingJwtAuthenticationFilterTest {
+    private final JwtDecoder jwtDecoder = mock(JwtDecoder.class);
+    private final CachingJwtAuthenticationFilter filter = new CachingJwtAuthenticationFilter(jwtDecoder,
+            new JwtAuthenticationConverter(), new BearerTokenAuthenticationEntryPoint(), 100, Duration.ofHours(1));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldVerifyEachTokenOnlyOnce() throws Exception {
+        when(jwtDecoder.decode("token")).thenReturn(jwt("alice", Instant.now().plusSeconds(300)));
+
+        assertEquals("alice", authenticate("Bearer token").getName());
+        assertEquals("alice", authenticate("Bearer token").getName());
+
+        verify(jwtDecoder, times(1)).decode("token");
+    }
+
+    @Test
+    void shouldVerifyAgain_OnceTokenHasExpired() throws Exception {
+        when(jwtDecoder.decode("token")).thenReturn(jwt("alice", Instant.now().minusSeconds(1)));
+
+        authenticate("Bearer token");
+        authenticate("Bearer token");
+
+        verify(jwtDecoder, times(2)).decode("token");
+    }
+
+    @Test
+    void shouldRejectInvalidToken() throws Exception {
+        when(jwtDecoder.decode(anyString())).thenThrow(new BadJwtException("Signed JWT rejected"));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/products");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer forged");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldPassThroughRequestsWithoutBearerToken() throws Exception {
+        assertNull(authenticate(null));
+        assertNull(authenticate("Basic dXNlcjpwYXNz"));
+        verifyNoInteractions(jwtDecoder);
+    }
+
+    private Authentication authenticate(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> authentication.set(SecurityContextHolder.getContext().getAuthentication()));
+        SecurityContextHolder.clearContext();
+        return authentication.get();
+    }
+
+    private static Jwt jwt(String subject, Instant expiresAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject(subject)
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,213 @@
+package com.josk.venom.products.filter;
+
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class CompressionFilterTest {
+    private static final int THRESHOLD = 1024;
+
+    private final CompressionFilter filter = new CompressionFilter(THRESHOLD, List.of("application/json", "application/x-ndjson"), 3);
+
+    @Test
+    void shouldCompressLargeResponseWithZstd() throws Exception {
+        byte[] body = json(10_000);
+        MockHttpServletResponse response = execute("gzip, zstd", MediaType.APPLICATION_JSON_VALUE, body);
+
+        assertEquals("zstd", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertArrayEquals(body, new ZstdInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes());
+    }
+
+    @Test
+    void shouldFallBackToGzip() throws Exception {
+        byte[] body = json(10_000);
+        MockHttpServletResponse response = execute("gzip, deflate, br", MediaType.APPLICATION_JSON_VALUE, body);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    void shouldLeaveSmallResponsesUncompressed() throws Exception {
+        byte[] body = json(100);
+        MockHttpServletResponse response = execute("zstd", MediaType.APPLICATION_JSON_VALUE, body);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void shouldLeaveOtherContentTypesUncompressed() throws Exception {
+        byte[] body = json(10_000);
+        MockHttpServletResponse response = execute("zstd", MediaType.TEXT_EVENT_STREAM_VALUE, body);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void shouldSuffixETagWithCoding() throws Exception {
+        byte[] body = json(10_000);
+        MockHttpServletResponse zstd = execute("zstd", MediaType.APPLICATION_JSON_VALUE, body, "\"1-abc\"");
+        MockHttpServletResponse gzip = execute("gzip", MediaType.APPLICATION_JSON_VALUE, body, "\"1-abc\"");
+        MockHttpServletResponse identity = execute(null, MediaType.APPLICATION_JSON_VALUE, body, "\"1-abc\"");
+
+        assertEquals("\"1-abc-zstd\"", zstd.getHeader(HttpHeaders.ETAG));
+        assertEquals("\"1-abc-gzip\"", gzip.getHeader(HttpHeaders.ETAG));
+        assertEquals("\"1-abc\"", identity.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void shouldVaryOnEveryCompressibleResponse() throws Exception {
+        assertEquals(HttpHeaders.ACCEPT_ENCODING,
+                execute(null, MediaType.APPLICATION_JSON_VALUE, json(10_000), null).getHeader(HttpHeaders.VARY));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING,
+                execute("zstd", MediaType.APPLICATION_JSON_VALUE, json(100), null).getHeader(HttpHeaders.VARY));
+        assertNull(execute("zstd", MediaType.TEXT_EVENT_STREAM_VALUE, json(10_000), null).getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    void shouldStripCodingFromConditionalHeaders() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-old-gzip\", \"1-abc-zstd\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> seen = new ArrayList<>();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                seen.add(req.getHeader(HttpHeaders.IF_NONE_MATCH));
+                seen.addAll(Collections.list(req.getHeaders(HttpHeaders.IF_NONE_MATCH)));
+                resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                resp.setHeader(HttpHeaders.ETAG, "\"1-abc\"");
+            }
+        };
+
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+
+        assertEquals(List.of("\"1-old\", \"1-abc\"", "\"1-old\", \"1-abc\""), seen);
+        assertEquals(304, response.getStatus());
+        assertEquals("\"1-abc-zstd\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    void shouldHandNonBlockingWritesToTheContainerStream() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/stream");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd");
+        List<WriteListener> listeners = new ArrayList<>();
+        ServletOutputStream containerStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return false;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                listeners.add(writeListener);
+            }
+
+            @Override
+            public void write(int b) {
+            }
+        };
+        HttpServletResponse response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return containerStream;
+            }
+        };
+        WriteListener listener = mock(WriteListener.class);
+        List<Boolean> ready = new ArrayList<>();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.getOutputStream().setWriteListener(listener);
+                ready.add(resp.getOutputStream().isReady());
+            }
+        };
+
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+
+        assertEquals(List.of(listener), listeners);
+        assertEquals(List.of(false), ready);
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void shouldHonourQualityValues() {
+        assertEquals(CompressionFilter.Encoding.GZIP, CompressionFilter.negotiate("zstd;q=0.5, gzip"));
+        assertEquals(CompressionFilter.Encoding.ZSTD, CompressionFilter.negotiate("gzip, zstd"));
+        assertNull(CompressionFilter.negotiate("zstd;q=0, identity"));
+        assertNull(CompressionFilter.negotiate(null));
+    }
+
+    private MockHttpServletResponse execute(String acceptEncoding, String contentType, byte[] body) throws Exception {
+        return execute(acceptEncoding, contentType, body, null);
+    }
+
+    private MockHttpServletResponse execute(String acceptEncoding, String contentType, byte[] body, String eTag)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(contentType);
+                if (eTag != null) {
+                    resp.setHeader(HttpHeaders.ETAG, eTag);
+                }
+                resp.setContentLength(body.length);
+                for (int offset = 0; offset < body.length; offset += 100) {
+                    resp.getOutputStream().write(body, offset, Math.min(100, body.length - offset));
+                    resp.getOutputStream().flush();
+                }
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static byte[] json(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append("{\"name\":\"Product ").append(builder.length()).append("\",\"price\":10.0}\n");
+        }
+        return builder.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] decode(InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return inputStream.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.josk.venom.products.load;
+
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.repository.ProductRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.Limit;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Both modes run with the production bulkhead and pool settings, so requests the bulkhead sheds with 503 are
+ * counted as rejected rather than failing the run. Results are appended to {@link #REPORT}.
+ */
+@Tag("load")
+abstract class AbstractExecutionModeLoadTest {
+    private static final Path REPORT = Path.of("target", "load-test-report.txt");
+    private static final Duration SIMULATED_QUERY_LATENCY = Duration.ofMillis(50);
+    private static final int CONCURRENT_CLIENTS = 400;
+    private static final int REQUESTS = 10000;
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    abstract String mode();
+
+    @Test
+    void listProducts_UnderConcurrentLoad() throws Exception {
+        ProductResponse product = ProductResponse.from(
+                Product.builder().id(1L).name("Load Product").description("Description").price(10).build());
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            Thread.sleep(SIMULATED_QUERY_LATENCY);
+            return List.of(product);
+        });
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/products?size=1"))
+                .GET()
+                .build();
+
+        long[] latencies = new long[REQUESTS];
+        List<Future<Integer>> results = new ArrayList<>(REQUESTS);
+        long started = System.nanoTime();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CLIENTS, Thread.ofVirtual().factory())) {
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                results.add(clients.submit(() -> {
+                    long sent = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies[index] = System.nanoTime() - sent;
+                    return response.statusCode();
+                }));
+            }
+        }
+        int rejected = 0;
+        for (Future<Integer> result : results) {
+            int status = result.get();
+            if (status == 503) {
+                rejected++;
+            } else {
+                assertEquals(200, status);
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(latencies);
+        Files.writeString(REPORT, String.format("mode=%s requests=%d rejected=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms%n",
+                        mode(), REQUESTS, rejected, REQUESTS / elapsedSeconds,
+                        latencies[REQUESTS / 2] / 1e6, latencies[(int) (REQUESTS * 0.99)] / 1e6),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,16 @@
+package com.josk.venom.products.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "products.rate-limit.enabled=false"
+})
+class VirtualThreadLoadTest extends AbstractExecutionModeLoadTest {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,66 @@
+package com.josk.venom.products.metrics;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class StatementCountingDataSourceTest {
+    private StatementCountingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-count");
+        dataSource = new StatementCountingDataSource(h2);
+        StatementCounter.reset();
+    }
+
+    @Test
+    void countsStatementsPreparedOnCurrentThread() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("select 1");
+            }
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement statement = connection.prepareStatement("select ?")) {
+                    statement.setInt(1, i);
+                    statement.executeQuery();
+                }
+            }
+        }
+
+        assertEquals(4, StatementCounter.current());
+
+        StatementCounter.reset();
+        assertEquals(0, StatementCounter.current());
+    }
+
+    @Test
+    void countsStatementsOfThreadsStartedDuringRequest() throws Exception {
+        Thread child = Thread.ofVirtual().start(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("select 1");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        child.join();
+
+        assertEquals(1, StatementCounter.current());
+    }
+
+    @Test
+    void unwrapToConnectionReturnsProxy() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertSame(connection, connection.unwrap(Connection.class));
+        }
+    }
+}
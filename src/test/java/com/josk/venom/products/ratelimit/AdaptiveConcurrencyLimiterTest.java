@@ -0,0 +1,78 @@
+package com.josk.venom.products.ratelimit;
+
+import com.josk.venom.products.configuration.RateLimitProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitProperties.Concurrency properties = new RateLimitProperties.Concurrency();
+
+    @Test
+    void tryAcquire_ShouldRejectBeyondLimit() {
+        properties.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(1_000_000);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void adjust_ShouldBackOff_WhenLatencyExceedsThreshold() {
+        properties.setInitialLimit(100);
+        properties.setLatencyThreshold(Duration.ofMillis(100));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(400));
+        }
+        limiter.adjust();
+
+        assertEquals(90, limiter.limit());
+    }
+
+    @Test
+    void adjust_ShouldBackOff_WhenPoolWaitExceedsThreshold() {
+        properties.setInitialLimit(100);
+        properties.setPoolWaitThreshold(Duration.ofMillis(50));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+        Timer poolWait = meterRegistry.timer(AdaptiveConcurrencyLimiter.POOL_WAIT_TIMER);
+
+        poolWait.record(Duration.ofMillis(200));
+        limiter.adjust();
+        assertEquals(90, limiter.limit());
+
+        poolWait.record(Duration.ofMillis(1));
+        limiter.adjust();
+        assertEquals(90, limiter.limit());
+    }
+
+    @Test
+    void adjust_ShouldGrow_WhenLimitIsReachedWithoutTrouble() {
+        properties.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(1_000_000);
+        limiter.release(1_000_000);
+        limiter.adjust();
+
+        assertEquals(3, limiter.limit());
+        limiter.adjust();
+        assertEquals(3, limiter.limit());
+    }
+}
@@ -0,0 +1,42 @@
+package com.josk.venom.products.ratelimit;
+
+import com.josk.venom.products.configuration.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientRateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(42);
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenSustainedRate() {
+        properties.getEndpoints().put(EndpointClass.LIST, new RateLimitProperties.Bucket(10, 5));
+        ClientRateLimiter limiter = new ClientRateLimiter(properties, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", EndpointClass.LIST));
+        }
+        long wait = limiter.tryAcquire("alice", EndpointClass.LIST);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("alice", EndpointClass.LIST));
+        assertTrue(limiter.tryAcquire("alice", EndpointClass.LIST) > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketsPerClientAndEndpointClass() {
+        properties.getEndpoints().put(EndpointClass.LIST, new RateLimitProperties.Bucket(1, 1));
+        ClientRateLimiter limiter = new ClientRateLimiter(properties, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("alice", EndpointClass.LIST));
+        assertTrue(limiter.tryAcquire("alice", EndpointClass.LIST) > 0);
+        assertEquals(0, limiter.tryAcquire("bob", EndpointClass.LIST));
+        assertEquals(0, limiter.tryAcquire("alice", EndpointClass.READ));
+    }
+}
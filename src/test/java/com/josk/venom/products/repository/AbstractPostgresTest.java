@@ -0,0 +1,22 @@
+package com.josk.venom.products.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs against a PostgreSQL container migrated by Flyway, for SQL that H2 cannot execute. Needs Docker;
+ * run with {@code mvn test -Ppostgres-test}.
+ */
+@Tag("postgres")
+@Testcontainers
+@ActiveProfiles("postgres")
+abstract class AbstractPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+}
@@ -0,0 +1,73 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.ProductChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProductChangeRepositoryImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductChangeRepositoryPostgresTest extends AbstractPostgresTest {
+    private static final String INSERT = "insert into products (id, name, description, price, stock) "
+            + "values (%d, 'Product', 'Description', 10, 1)";
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from products");
+        jdbcTemplate.update("delete from product_changes");
+    }
+
+    @Test
+    void runningTransaction_ShouldHoldBackLaterChanges() throws Exception {
+        jdbcTemplate.update(INSERT.formatted(1));
+        ProductChange first = last(productChangeRepository.findIdsAfter(0, 0, 100));
+        assertEquals(0, productChangeRepository.heldBackSeconds());
+
+        try (Connection running = dataSource.getConnection()) {
+            running.setAutoCommit(false);
+            try (Statement statement = running.createStatement()) {
+                statement.execute(INSERT.formatted(2));
+            }
+            jdbcTemplate.update(INSERT.formatted(3));
+            Thread.sleep(1100);
+
+            assertTrue(productChangeRepository.findIdsAfter(first.txId(), first.changeId(), 100).isEmpty());
+            assertTrue(productChangeRepository.heldBackSeconds() >= 1);
+
+            running.commit();
+        }
+
+        List<ProductChange> released = productChangeRepository.findIdsAfter(first.txId(), first.changeId(), 100);
+        assertEquals(List.of(2L, 3L), released.stream().map(ProductChange::productId).sorted().toList());
+        assertEquals(0, productChangeRepository.heldBackSeconds());
+    }
+
+    private static ProductChange last(List<ProductChange> changes) {
+        return changes.get(changes.size() - 1);
+    }
+}
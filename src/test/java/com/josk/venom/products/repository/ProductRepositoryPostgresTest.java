@@ -0,0 +1,81 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.ProductPatch;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProductRepositoryPostgresTest extends AbstractPostgresTest {
+    private static final LocalDateTime VERSION = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void updateReturning_ShouldReturnUpdatedRow() {
+        Product saved = persist();
+        Product replacement = Product.builder().name("Renamed").description("New description").price(25).stock(7).build();
+
+        ProductResponse updated = productRepository.updateReturning(saved.getId(), replacement).orElseThrow();
+
+        assertEquals(saved.getId(), updated.id());
+        assertEquals("Renamed", updated.name());
+        assertEquals("New description", updated.description());
+        assertEquals(25, updated.price());
+        assertEquals(7, updated.stock());
+        assertEquals(VERSION, updated.createdAt());
+        assertNotEquals(VERSION, updated.updatedAt());
+        assertEquals(updated, productRepository.findResponseById(saved.getId()).orElseThrow());
+        assertTrue(productRepository.updateReturning(saved.getId() + 1000, replacement).isEmpty());
+    }
+
+    @Test
+    void updateReturning_ShouldOnlyUpdateExpectedVersion() {
+        Product saved = persist();
+        Product replacement = Product.builder().name("Renamed").description("New description").price(25).stock(7).build();
+
+        assertTrue(productRepository.updateReturning(saved.getId(), replacement, VERSION.minusNanos(1000)).isEmpty());
+        assertEquals("Product", productRepository.findResponseById(saved.getId()).orElseThrow().name());
+
+        ProductResponse updated = productRepository.updateReturning(saved.getId(), replacement, VERSION).orElseThrow();
+        assertEquals("Renamed", updated.name());
+        assertTrue(productRepository.updateReturning(saved.getId(), replacement, VERSION).isEmpty());
+    }
+
+    @Test
+    void patchReturning_ShouldOnlyChangeGivenFields() {
+        Product saved = persist();
+
+        ProductResponse patched = productRepository.patchReturning(saved.getId(), new ProductPatch(null, null, 12.5, 0))
+                .orElseThrow();
+
+        assertEquals("Product", patched.name());
+        assertEquals("Description", patched.description());
+        assertEquals(12.5, patched.price());
+        assertEquals(0, patched.stock());
+        assertNotEquals(VERSION, patched.updatedAt());
+        assertTrue(productRepository.patchReturning(saved.getId() + 1000, new ProductPatch("Name", null, null, null)).isEmpty());
+    }
+
+    private Product persist() {
+        Product product = entityManager.persistFlushFind(Product.builder().name("Product").description("Description")
+                .price(10).stock(3).createdAt(VERSION).updatedAt(VERSION).build());
+        entityManager.clear();
+        return product;
+    }
+}
@@ -1,5 +1,6 @@
 package com.josk.venom.products.repository;
 
+import com.josk.venom.products.dto.ProductResponse;
 import com.josk.venom.products.model.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,10 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -30,7 +35,7 @@ public class ProductRepositoryTest {
     @BeforeEach
     public void setupTestData(){
         productRepository.deleteAll();
-        product = Product.builder().name("Test Product").price(200).build();
+        product = Product.builder().name("Test Product").description("Description").price(200).build();
     }
 
     @Test
@@ -45,9 +50,9 @@ public class ProductRepositoryTest {
 
     @Test
     void findAll_ShouldReturnListOfProducts() {
-        Product product1 = Product.builder().name("Product 1").price(100).build();
-        Product product2 = Product.builder().name("Product 2").price(200).build();
-        Product product3 = Product.builder().name("Product 3").price(300).build();
+        Product product1 = Product.builder().name("Product 1").description("Description").price(100).build();
+        Product product2 = Product.builder().name("Product 2").description("Description").price(200).build();
+        Product product3 = Product.builder().name("Product 3").description("Description").price(300).build();
 
         entityManager.persist(product1);
         entityManager.persist(product2);
@@ -83,4 +88,91 @@ public class ProductRepositoryTest {
         assertFalse(productRepository.findById(savedProduct.getId()).isPresent(),
                 "Product should be deleted and not found.");
     }
+
+    @Test
+    void deleteProductById_ShouldReturnAffectedRowCount() {
+        Product savedProduct = entityManager.persist(product);
+        entityManager.flush();
+
+        assertEquals(1, productRepository.deleteProductById(savedProduct.getId()));
+        assertEquals(0, productRepository.deleteProductById(savedProduct.getId()));
+    }
+
+    @Test
+    void reserveStock_ShouldOnlyDecrementWhenEnoughStock() {
+        product.setStock(5);
+        Product savedProduct = entityManager.persist(product);
+        entityManager.flush();
+
+        assertEquals(1, productRepository.reserveStock(savedProduct.getId(), 3, LocalDateTime.now()));
+        assertEquals(0, productRepository.reserveStock(savedProduct.getId(), 3, LocalDateTime.now()));
+        entityManager.clear();
+
+        assertEquals(2, productRepository.findById(savedProduct.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void deleteProductByIdAndUpdatedAt_ShouldOnlyDeleteMatchingVersion() {
+        LocalDateTime version = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+        Product savedProduct = entityManager.persistFlushFind(
+                Product.builder().name("Product").description("Description").price(100).updatedAt(version).build());
+
+        assertEquals(0, productRepository.deleteProductByIdAndUpdatedAt(savedProduct.getId(), version.minusSeconds(1)));
+        assertEquals(1, productRepository.deleteProductByIdAndUpdatedAt(savedProduct.getId(), version));
+    }
+
+    @Test
+    void findByIdGreaterThan_ShouldReturnNextKeysetPage() {
+        Product product1 = entityManager.persist(Product.builder().name("Product 1").description("Description").price(100).build());
+        Product product2 = entityManager.persist(Product.builder().name("Product 2").description("Description").price(200).build());
+        Product product3 = entityManager.persist(Product.builder().name("Product 3").description("Description").price(300).build());
+        entityManager.flush();
+
+        List<ProductResponse> page = productRepository.findByIdGreaterThanOrderByIdAsc(product1.getId(), Limit.of(1));
+
+        assertEquals(1, page.size());
+        assertEquals(product2.getId(), page.get(0).id());
+        assertEquals("Product 2", page.get(0).name());
+        assertTrue(productRepository.findByIdGreaterThanOrderByIdAsc(product3.getId(), Limit.of(10)).isEmpty());
+    }
+
+    @Test
+    void streamAll_ShouldVisitProductsInIdOrder() {
+        entityManager.persist(Product.builder().name("Product 1").description("Description").price(100).build());
+        entityManager.persist(Product.builder().name("Product 2").description("Description").price(200).build());
+        entityManager.flush();
+
+        List<ProductResponse> visited = new ArrayList<>();
+        productRepository.streamAll(1, visited::add);
+
+        assertEquals(2, visited.size());
+        assertEquals("Product 1", visited.get(0).name());
+        assertTrue(visited.get(0).id() < visited.get(1).id());
+    }
+
+    @Test
+    void findResponseById_ShouldReturnProjection() {
+        Product product = entityManager.persist(Product.builder().name("Product 1").description("Description").price(100).stock(4).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        ProductResponse response = productRepository.findResponseById(product.getId()).orElseThrow();
+
+        assertEquals("Product 1", response.name());
+        assertEquals(4, response.stock());
+        assertTrue(productRepository.findResponseById(product.getId() + 1000).isEmpty());
+    }
+
+    @Test
+    void findResponsesByIdIn_ShouldReturnOnlyExistingProducts() {
+        Product first = entityManager.persist(Product.builder().name("Product 1").description("Description").price(100).build());
+        Product second = entityManager.persist(Product.builder().name("Product 2").description("Description").price(200).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ProductResponse> responses = productRepository.findResponsesByIdIn(List.of(first.getId(), second.getId(), second.getId() + 1000));
+
+        assertEquals(2, responses.size());
+        assertTrue(responses.stream().anyMatch(response -> response.name().equals("Product 2")));
+    }
 }
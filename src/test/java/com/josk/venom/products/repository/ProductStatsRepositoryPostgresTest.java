@@ -0,0 +1,117 @@
+package com.josk.venom.products.repository;
+
+import com.josk.venom.products.dto.PriceBand;
+import com.josk.venom.products.dto.ProductStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProductStatsRepositoryImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStatsRepositoryPostgresTest extends AbstractPostgresTest {
+    private static final String INSERT = "insert into products (id, name, description, price, stock) "
+            + "values (%d, 'Product', 'Description', %d, %d)";
+
+    @Autowired
+    private ProductStatsRepository productStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from products");
+        jdbcTemplate.update("delete from product_stats");
+        jdbcTemplate.update("delete from product_price_bands");
+    }
+
+    @Test
+    void triggers_ShouldMaintainCounters() {
+        jdbcTemplate.update(INSERT.formatted(1, 10, 2));
+        jdbcTemplate.update(INSERT.formatted(2, 20, 0));
+        jdbcTemplate.update("update products set stock = 5 where id = 2");
+        jdbcTemplate.update(INSERT.formatted(3, 1, 1));
+        jdbcTemplate.update("delete from products where id = 3");
+
+        assertEquals(new ProductStats(2, 120.0, 0, List.of(new PriceBand(8, 16, 1), new PriceBand(16, 32, 1))),
+                productStatsRepository.findStats());
+    }
+
+    @Test
+    void recompute_ShouldCorrectDrift() {
+        jdbcTemplate.update(INSERT.formatted(1, 10, 2));
+        jdbcTemplate.update("update product_stats set products = products + 5, stock_value = stock_value + 0.5 "
+                + "where slot = (select min(slot) from product_stats)");
+        jdbcTemplate.update("insert into product_price_bands (slot, band, products) values (3, 7, 2)");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(productStatsRepository.lockForRecompute());
+            productStatsRepository.recompute();
+        });
+
+        assertEquals(new ProductStats(1, 20.0, 0, List.of(new PriceBand(8, 16, 1))), productStatsRepository.findStats());
+        assertEquals(new ProductStats(-5, -0.5, 0, List.of(new PriceBand(64, 128, -2))),
+                productStatsRepository.findCorrection());
+    }
+
+    @Test
+    void recompute_ShouldNotBlockOrMissConcurrentWrites() throws Exception {
+        jdbcTemplate.update(INSERT.formatted(1, 10, 2));
+
+        try (Connection running = dataSource.getConnection()) {
+            running.setAutoCommit(false);
+            try (Statement statement = running.createStatement()) {
+                statement.execute(INSERT.formatted(2, 20, 1));
+            }
+
+            TransactionStatus reconciliation = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            assertTrue(productStatsRepository.lockForRecompute());
+            productStatsRepository.recompute();
+            running.commit();
+
+            CompletableFuture<Void> write = CompletableFuture.runAsync(() -> {
+                jdbcTemplate.update(INSERT.formatted(3, 30, 0));
+                jdbcTemplate.update("update products set stock = 3 where id = 1");
+            });
+            CompletableFuture<Boolean> secondInstance = CompletableFuture.supplyAsync(() ->
+                    new TransactionTemplate(transactionManager).execute(status -> productStatsRepository.lockForRecompute()));
+
+            write.get(5, TimeUnit.SECONDS);
+            assertFalse(secondInstance.get(5, TimeUnit.SECONDS));
+            transactionManager.commit(reconciliation);
+        }
+
+        assertEquals(new ProductStats(3, 50.0, 1, List.of(new PriceBand(8, 16, 1), new PriceBand(16, 32, 2))),
+                productStatsRepository.findStats());
+        assertEquals(new ProductStats(0, 0, 0, List.of()), productStatsRepository.findCorrection());
+    }
+}
@@ -0,0 +1,64 @@
+package com.josk.venom.products.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StockAdjustmentRepositoryImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockAdjustmentRepositoryPostgresTest extends AbstractPostgresTest {
+    private static final String INSERT = "insert into products (id, name, description, price, stock) "
+            + "values (%d, 'Product', 'Description', 10, %d)";
+
+    @Autowired
+    private StockAdjustmentRepository stockAdjustmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from products");
+        jdbcTemplate.update("delete from stock_adjustments");
+    }
+
+    @Test
+    void applyEach_ShouldSkipDeltasTheDatabaseRejects() {
+        jdbcTemplate.update(INSERT.formatted(1, 5));
+        jdbcTemplate.update(INSERT.formatted(2, Integer.MAX_VALUE - 1));
+        jdbcTemplate.update(INSERT.formatted(3, 5));
+
+        List<Long> applied = new TransactionTemplate(transactionManager).execute(status -> {
+            stockAdjustmentRepository.enqueue(new TreeMap<>(Map.of(1L, 1)));
+            List<Long> updated = stockAdjustmentRepository.applyEach(
+                    new TreeMap<>(Map.of(1L, 2, 2L, 10, 3L, -7, 4L, 1)), LocalDateTime.now());
+            stockAdjustmentRepository.takeBatch(10);
+            return updated;
+        });
+
+        assertEquals(List.of(1L, 3L), applied);
+        assertEquals(List.of(7, Integer.MAX_VALUE - 1, -2),
+                jdbcTemplate.queryForList("select stock from products order by id", Integer.class));
+        assertEquals(0, stockAdjustmentRepository.countPending());
+    }
+}
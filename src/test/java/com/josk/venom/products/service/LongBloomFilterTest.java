@@ -0,0 +1,36 @@
+package com.josk.venom.products.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldHaveNoFalseNegatives() {
+        LongBloomFilter filter = new LongBloomFilter(100_000, 0.01);
+        for (long id = 1; id <= 100_000; id++) {
+            filter.add(id * 50);
+        }
+
+        for (long id = 1; id <= 100_000; id++) {
+            assertTrue(filter.mightContain(id * 50));
+        }
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositivesNearTheConfiguredRate() {
+        LongBloomFilter filter = new LongBloomFilter(100_000, 0.01);
+        for (long id = 1; id <= 100_000; id++) {
+            filter.add(id);
+        }
+
+        int falsePositives = 0;
+        for (long id = 1_000_001; id <= 1_100_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_500, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,88 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.dto.BatchItemStatus;
+import com.josk.venom.products.dto.BatchResult;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ProductBatchServiceImplTest {
+
+    @Autowired
+    private ProductBatchService productBatchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void createProducts_ShouldPersistValidItemsAndReportInvalidOnes() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            products.add(product("Product " + i));
+        }
+        products.add(Product.builder().name("Missing description").price(1).build());
+
+        BatchResult result = productBatchService.createProducts(products);
+
+        assertEquals(1200, result.succeeded());
+        assertEquals(1, result.failed());
+        assertEquals(BatchItemStatus.INVALID, result.items().get(1200).status());
+        assertNotNull(result.items().get(0).id());
+        assertEquals(1200, productRepository.count());
+    }
+
+    @Test
+    void updateProducts_ShouldReportMissingProducts() {
+        Product existing = productRepository.save(product("Old name"));
+        Product update = product("New name");
+        update.setId(existing.getId());
+        Product missing = product("Missing");
+        missing.setId(Long.MAX_VALUE);
+
+        BatchResult result = productBatchService.updateProducts(List.of(update, missing));
+
+        assertEquals(BatchItemStatus.UPDATED, result.items().get(0).status());
+        assertEquals(BatchItemStatus.NOT_FOUND, result.items().get(1).status());
+        assertEquals("New name", productRepository.findById(existing.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void deleteProducts_ShouldDeleteExistingAndReportMissing() {
+        Product existing = productRepository.save(product("To delete"));
+
+        BatchResult result = productBatchService.deleteProducts(Arrays.asList(existing.getId(), Long.MAX_VALUE, null));
+
+        assertEquals(BatchItemStatus.DELETED, result.items().get(0).status());
+        assertEquals(BatchItemStatus.NOT_FOUND, result.items().get(1).status());
+        assertEquals(BatchItemStatus.INVALID, result.items().get(2).status());
+        assertFalse(productRepository.existsById(existing.getId()));
+    }
+
+    @Test
+    void createProducts_ShouldRejectEmptyBatch() {
+        assertThrows(InvalidRequestException.class, () -> productBatchService.createProducts(List.of()));
+    }
+
+    private Product product(String name) {
+        return Product.builder().name(name).description("Description").price(10).stock(5).build();
+    }
+}
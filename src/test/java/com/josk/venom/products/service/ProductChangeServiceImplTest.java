@@ -0,0 +1,177 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.ChangeFeedProperties;
+import com.josk.venom.products.configuration.ShardingProperties;
+import com.josk.venom.products.datasource.ShardContext;
+import com.josk.venom.products.datasource.SnowflakeIdGenerator;
+import com.josk.venom.products.dto.ProductChange;
+import com.josk.venom.products.dto.ProductChangeEvent;
+import com.josk.venom.products.dto.ProductChangePage;
+import com.josk.venom.products.dto.ProductChangeType;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.repository.ProductChangeRepository;
+import com.josk.venom.products.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeServiceImplTest {
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Spy
+    private ChangeFeedProperties changeFeedProperties = new ChangeFeedProperties();
+
+    @Spy
+    private ProductShards productShards = new ProductShards(null, new ShardingProperties(),
+            mock(PlatformTransactionManager.class), Optional.empty());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ProductChangeServiceImpl productChangeService;
+
+    @Test
+    void getChanges_ShouldCoalesceChangesPerProductAndAdvanceCursor() {
+        ProductResponse product1 = new ProductResponse(1L, "Product 1", "Description", 10.0, 5, null, null);
+        ProductResponse product2 = new ProductResponse(2L, "Product 2", "Description", 20.0, 5, null, null);
+        when(productChangeRepository.findAfter(0L, 0L, 4)).thenReturn(List.of(
+                new ProductChange(100L, 1L, 1L, ProductChangeType.CREATED, product1),
+                new ProductChange(100L, 2L, 2L, ProductChangeType.CREATED, product2),
+                new ProductChange(101L, 3L, 1L, ProductChangeType.UPDATED, product1),
+                new ProductChange(102L, 4L, 3L, ProductChangeType.UPDATED, null)));
+
+        ProductChangePage page = productChangeService.getChanges(null, 4);
+
+        assertEquals(3, page.changes().size());
+        assertEquals(2L, page.changes().get(0).productId());
+        assertEquals(1L, page.changes().get(1).productId());
+        assertEquals(ProductChangeType.UPDATED, page.changes().get(1).type());
+        assertEquals(ProductChangeType.DELETED, page.changes().get(2).type());
+        assertNull(page.changes().get(2).product());
+        assertEquals(new ChangeFeedCursor(102L, 4L), ChangeFeedCursor.decode(page.nextCursor()));
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    void getChanges_ShouldKeepCursor_WhenNothingChanged() {
+        String since = new ChangeFeedCursor(100L, 7L).encode();
+        when(productChangeRepository.findAfter(100L, 7L, changeFeedProperties.getDefaultLimit())).thenReturn(List.of());
+
+        ProductChangePage page = productChangeService.getChanges(since, null);
+
+        assertTrue(page.changes().isEmpty());
+        assertEquals(since, page.nextCursor());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void getChanges_ShouldRejectInvalidCursorAndLimit() {
+        assertThrows(InvalidRequestException.class, () -> productChangeService.getChanges("not-a-cursor", null));
+        assertThrows(InvalidRequestException.class, () -> productChangeService.getChanges(null, 0));
+        assertThrows(InvalidRequestException.class,
+                () -> productChangeService.getChanges(null, changeFeedProperties.getMaxLimit() + 1));
+    }
+
+    @Test
+    void purgeExpiredChanges_ShouldDeleteChangesOlderThanRetention() {
+        LocalDateTime threshold = LocalDateTime.now().minus(changeFeedProperties.getRetention());
+
+        productChangeService.purgeExpiredChanges();
+
+        verify(productChangeRepository).deleteChangedBefore(argThat(before -> !before.isBefore(threshold)));
+    }
+
+    @Test
+    void measureLag_ShouldPublishHeldBackSeconds() {
+        when(productChangeRepository.heldBackSeconds()).thenReturn(42.5, 1.5);
+
+        productChangeService.measureLag();
+        assertEquals(42.5, meterRegistry.get(ProductChangeServiceImpl.LAG_GAUGE).gauge().value());
+
+        productChangeService.measureLag();
+        assertEquals(1.5, meterRegistry.get(ProductChangeServiceImpl.LAG_GAUGE).gauge().value());
+        assertEquals(1, meterRegistry.find(ProductChangeServiceImpl.LAG_GAUGE).gauges().size());
+    }
+
+    @Test
+    void getChanges_ShouldKeepOnePositionPerShard_WhenSharded() {
+        ProductShards sharded = shardedProductShards();
+        productChangeService = new ProductChangeServiceImpl(productChangeRepository, productRepository, changeFeedProperties,
+                sharded, meterRegistry);
+        ProductResponse moved = new ProductResponse(3L, "Product 3", "Description", 30.0, 5, null, null);
+        when(productChangeRepository.findAfter(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> switch (ShardContext.shard()) {
+            case "a" -> List.of(
+                    new ProductChange(10L, 1L, 1L, ProductChangeType.CREATED, null),
+                    new ProductChange(11L, 2L, 2L, ProductChangeType.CREATED, null),
+                    new ProductChange(12L, 3L, 3L, ProductChangeType.DELETED, null));
+            default -> List.of(new ProductChange(500L, 9L, 4L, ProductChangeType.DELETED, null));
+        });
+        when(productRepository.findResponsesByIdIn(any())).thenAnswer(invocation ->
+                ((Collection<?>) invocation.getArgument(0)).contains(3L) ? List.of(moved) : List.of());
+
+        ProductChangePage page = productChangeService.getChanges(null, 3);
+
+        assertEquals(List.of(1L, 4L, 2L), page.changes().stream().map(ProductChangeEvent::productId).toList());
+        ShardedChangeFeedCursor next = ShardedChangeFeedCursor.decode(page.nextCursor());
+        assertEquals(new ChangeFeedCursor(11L, 2L), next.of("a"));
+        assertEquals(new ChangeFeedCursor(500L, 9L), next.of("b"));
+        assertTrue(page.hasMore());
+
+        doAnswer(invocation -> "a".equals(ShardContext.shard())
+                ? List.of(new ProductChange(12L, 3L, 3L, ProductChangeType.DELETED, null)) : List.of())
+                .when(productChangeRepository).findAfter(anyLong(), anyLong(), anyInt());
+
+        ProductChangePage rest = productChangeService.getChanges(page.nextCursor(), 3);
+
+        assertEquals(ProductChangeType.UPDATED, rest.changes().get(0).type());
+        assertEquals(moved, rest.changes().get(0).product());
+        verify(productChangeRepository).findAfter(11L, 2L, 3);
+        verify(productChangeRepository).findAfter(500L, 9L, 3);
+        assertFalse(rest.hasMore());
+    }
+
+    private static ProductShards shardedProductShards() {
+        ShardingProperties shardingProperties = new ShardingProperties();
+        shardingProperties.setEnabled(true);
+        for (String name : List.of("a", "b")) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setName(name);
+            shardingProperties.getShards().add(shard);
+        }
+        return new ProductShards(null, shardingProperties, mock(PlatformTransactionManager.class),
+                Optional.of(new SnowflakeIdGenerator(0)));
+    }
+}
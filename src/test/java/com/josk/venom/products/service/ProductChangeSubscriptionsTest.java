@@ -0,0 +1,67 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.ChangeFeedProperties;
+import com.josk.venom.products.dto.ProductChangeEvent;
+import com.josk.venom.products.dto.ProductChangePage;
+import com.josk.venom.products.dto.ProductChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeSubscriptionsTest {
+    private static final String CURSOR = new ChangeFeedCursor(10L, 1L).encode();
+    private static final ProductChangePage EMPTY = new ProductChangePage(List.of(), CURSOR, false);
+    private static final ProductChangePage CHANGED = new ProductChangePage(
+            List.of(new ProductChangeEvent(1L, ProductChangeType.DELETED, null)), new ChangeFeedCursor(11L, 2L).encode(), false);
+
+    @Mock
+    private ProductChangeService productChangeService;
+
+    private ProductChangeSubscriptions subscriptions;
+
+    @BeforeEach
+    void setUp() {
+        subscriptions = new ProductChangeSubscriptions(productChangeService, new ChangeFeedProperties());
+    }
+
+    @Test
+    void await_ShouldCompleteImmediately_WhenChangesAreAvailable() {
+        when(productChangeService.getChanges(null, null)).thenReturn(CHANGED);
+
+        DeferredResult<ProductChangePage> result = subscriptions.await(null, null, Duration.ofSeconds(30));
+
+        assertSame(CHANGED, result.getResult());
+        assertEquals(0, subscriptions.activeSubscriptions());
+    }
+
+    @Test
+    void await_ShouldParkUntilPollFindsChanges() {
+        when(productChangeService.getChanges(CURSOR, null)).thenReturn(EMPTY, EMPTY, CHANGED);
+
+        DeferredResult<ProductChangePage> first = subscriptions.await(CURSOR, null, Duration.ofSeconds(30));
+        DeferredResult<ProductChangePage> second = subscriptions.await(CURSOR, null, Duration.ofSeconds(30));
+        assertFalse(first.hasResult());
+        assertEquals(2, subscriptions.activeSubscriptions());
+
+        subscriptions.poll();
+
+        assertTrue(first.hasResult());
+        assertSame(CHANGED, second.getResult());
+        verify(productChangeService, times(3)).getChanges(CURSOR, null);
+    }
+}
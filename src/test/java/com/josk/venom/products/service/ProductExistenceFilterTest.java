@@ -0,0 +1,119 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.LookupProperties;
+import com.josk.venom.products.dto.ProductChange;
+import com.josk.venom.products.dto.ProductChangeType;
+import com.josk.venom.products.repository.ProductChangeRepository;
+import com.josk.venom.products.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExistenceFilterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final LookupProperties lookupProperties = new LookupProperties();
+
+    private ProductExistenceFilter productExistenceFilter;
+
+    @BeforeEach
+    void setup() {
+        lookupProperties.getExistenceFilter().setEnabled(true);
+        lookupProperties.getExistenceFilter().setExpectedProducts(1_000);
+        productExistenceFilter = new ProductExistenceFilter(productRepository, productChangeRepository,
+                transactionManager, lookupProperties);
+        lenient().when(productChangeRepository.currentXmin()).thenReturn(100L);
+        lenient().when(productChangeRepository.findIdsAfter(anyLong(), anyLong(), anyInt())).thenReturn(List.of());
+        lenient().doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(1);
+            consumer.accept(1L);
+            consumer.accept(2L);
+            return null;
+        }).when(productRepository).streamIds(anyInt(), any());
+    }
+
+    @Test
+    void mightExist_ShouldAllowEveryId_UntilTheFilterIsBuilt() {
+        assertTrue(productExistenceFilter.mightExist(42L));
+    }
+
+    @Test
+    void mightExist_ShouldRejectIdsMissingFromTheScan() {
+        productExistenceFilter.build();
+
+        assertTrue(productExistenceFilter.mightExist(1L));
+        assertTrue(productExistenceFilter.mightExist(2L));
+        assertFalse(productExistenceFilter.mightExist(42L));
+    }
+
+    @Test
+    void rebuild_ShouldReplayChangesCommittedAfterTheScanStarted() {
+        when(productChangeRepository.findIdsAfter(eq(99L), eq(Long.MAX_VALUE), anyInt())).thenReturn(List.of(
+                new ProductChange(100L, 1L, 42L, ProductChangeType.CREATED, null),
+                new ProductChange(101L, 2L, 2L, ProductChangeType.DELETED, null)));
+
+        productExistenceFilter.build();
+
+        assertTrue(productExistenceFilter.mightExist(42L));
+        assertFalse(productExistenceFilter.mightExist(2L));
+    }
+
+    @Test
+    void sync_ShouldAddProductsCreatedByOtherInstances() {
+        productExistenceFilter.build();
+        when(productChangeRepository.findIdsAfter(eq(99L), eq(Long.MAX_VALUE), anyInt())).thenReturn(List.of(
+                new ProductChange(120L, 7L, 42L, ProductChangeType.CREATED, null)));
+
+        productExistenceFilter.sync();
+
+        assertTrue(productExistenceFilter.mightExist(42L));
+    }
+
+    @Test
+    void added_ShouldClearARecordedMiss() {
+        productExistenceFilter.build();
+        productExistenceFilter.recordMiss(1L);
+        assertFalse(productExistenceFilter.mightExist(1L));
+
+        productExistenceFilter.added(1L);
+
+        assertTrue(productExistenceFilter.mightExist(1L));
+    }
+
+    @Test
+    void build_ShouldDoNothing_WhenDisabled() {
+        lookupProperties.getExistenceFilter().setEnabled(false);
+
+        productExistenceFilter.build();
+        productExistenceFilter.recordMiss(1L);
+
+        assertTrue(productExistenceFilter.mightExist(1L));
+        verifyNoInteractions(productRepository, productChangeRepository);
+    }
+}
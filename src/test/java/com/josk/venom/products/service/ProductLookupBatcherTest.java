@@ -0,0 +1,117 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.LookupProperties;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductLookupBatcherTest {
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final LookupProperties lookupProperties = new LookupProperties();
+    private final ProductLookupBatcher batcher = new ProductLookupBatcher(productRepository, lookupProperties);
+
+    @Test
+    void find_ShouldCoalesceConcurrentLookupsIntoOneQuery() throws Exception {
+        lookupProperties.setWindow(Duration.ofSeconds(5));
+        lookupProperties.setMaxBatchSize(8);
+        stubRepository();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Optional<ProductResponse>>> tasks = new ArrayList<>();
+            for (long id = 1; id <= 8; id++) {
+                long productId = id;
+                tasks.add(() -> batcher.find(productId));
+            }
+            List<Future<Optional<ProductResponse>>> results = executor.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i + 1L, results.get(i).get().orElseThrow().id());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(productRepository, times(1)).findResponsesByIdIn(anyCollection());
+        verify(productRepository, never()).findResponseById(anyLong());
+    }
+
+    @Test
+    void find_ShouldShareResultForDuplicateIds() throws Exception {
+        lookupProperties.setWindow(Duration.ofSeconds(1));
+        stubRepository();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Optional<ProductResponse>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                tasks.add(() -> batcher.find(7L));
+            }
+            for (Future<Optional<ProductResponse>> result : executor.invokeAll(tasks)) {
+                assertEquals(7L, result.get().orElseThrow().id());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(productRepository, atMost(1)).findResponseById(7L);
+        verify(productRepository, never()).findResponsesByIdIn(anyCollection());
+    }
+
+    @Test
+    void findAll_ShouldSplitByMaxBatchSizeAndOmitMissingIds() {
+        lookupProperties.setMaxBatchSize(2);
+        when(productRepository.findResponsesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 3L).map(ProductLookupBatcherTest::product).toList();
+        });
+
+        Map<Long, ProductResponse> found = batcher.findAll(List.of(1L, 2L, 3L, 4L, 1L));
+
+        assertEquals(List.of(1L, 2L, 4L), List.copyOf(found.keySet()));
+        verify(productRepository, times(2)).findResponsesByIdIn(anyCollection());
+    }
+
+    @Test
+    void find_ShouldReturnEmpty_WhenProductDoesNotExist() {
+        when(productRepository.findResponseById(any())).thenReturn(Optional.empty());
+
+        assertTrue(batcher.find(42L).isEmpty());
+    }
+
+    private void stubRepository() {
+        when(productRepository.findResponseById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(product(invocation.getArgument(0))));
+        when(productRepository.findResponsesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(ProductLookupBatcherTest::product).toList();
+        });
+    }
+
+    private static ProductResponse product(Long id) {
+        return ProductResponse.from(Product.builder().id(id).name("Product " + id).price(10.0).build());
+    }
+}
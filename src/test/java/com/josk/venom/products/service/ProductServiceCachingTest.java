@@ -0,0 +1,63 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.CacheConfig;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ProductServiceCachingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    private final ProductResponse product = ProductResponse.from(
+            Product.builder().id(1L).name("Test Product").description("Description").price(100.0).build());
+
+    @BeforeEach
+    void clearCache() {
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void getProductById_ShouldLoadFromRepositoryOnlyOnce() {
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(product));
+
+        productService.getProductById(1L);
+        ProductResponse cached = productService.getProductById(1L);
+
+        assertEquals("Test Product", cached.name());
+        verify(productRepository, times(1)).findResponseById(1L);
+    }
+
+    @Test
+    void deleteProduct_ShouldEvictCachedProduct() {
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.deleteProductById(1L)).thenReturn(1);
+
+        productService.getProductById(1L);
+        productService.deleteProduct(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1L));
+    }
+}
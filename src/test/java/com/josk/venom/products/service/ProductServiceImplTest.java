@@ -1,22 +1,46 @@
 package com.josk.venom.products.service;
 
+import com.josk.venom.products.configuration.ListingProperties;
+import com.josk.venom.products.configuration.LookupProperties;
+import com.josk.venom.products.configuration.SearchProperties;
+import com.josk.venom.products.configuration.ShardingProperties;
+import com.josk.venom.products.dto.ProductPage;
+import com.josk.venom.products.dto.ProductPatch;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.dto.ProductSearchCriteria;
+import com.josk.venom.products.dto.ProductSearchPage;
+import com.josk.venom.products.dto.ProductSearchSort;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.exception.PreconditionFailedException;
 import com.josk.venom.products.exception.ProductNotFoundException;
 import com.josk.venom.products.model.Product;
 import com.josk.venom.products.repository.ProductRepository;
+import com.josk.venom.products.snapshot.ProductSnapshot;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Arrays;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,75 +51,212 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private ListingProperties listingProperties = new ListingProperties();
+
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties();
+
+    @Spy
+    private LookupProperties lookupProperties = new LookupProperties();
+
+    @Mock
+    private ProductLookupBatcher productLookupBatcher;
+
+    @Mock
+    private ProductExistenceFilter productExistenceFilter;
+
+    @Mock
+    private ProductSnapshot productSnapshot;
+
+    @Spy
+    private ProductShards productShards = new ProductShards(null, new ShardingProperties(),
+            mock(PlatformTransactionManager.class), Optional.empty());
+
     @InjectMocks
     private ProductServiceImpl productService;
 
+    @BeforeEach
+    void setup() {
+        lenient().when(productExistenceFilter.mightExist(anyLong())).thenReturn(true);
+    }
+
     @Test
-    void getAllProducts_ShouldReturnAllProducts() {
-        Product product1 = new Product(1L, "Test Product 1", 100.0);
-        Product product2 = new Product(2L, "Test Product 2", 50.0);
-        List<Product> expectedProducts = Arrays.asList(product1, product2);
+    void getProducts_ShouldReturnPageWithNextCursor_WhenMoreProductsExist() {
+        List<ProductResponse> fetched = List.of(
+                ProductResponse.from(Product.builder().id(1L).name("Test Product 1").price(100.0).build()),
+                ProductResponse.from(Product.builder().id(2L).name("Test Product 2").price(50.0).build()),
+                ProductResponse.from(Product.builder().id(3L).name("Test Product 3").price(25.0).build()));
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(fetched);
+
+        ProductPage<ProductResponse> page = productService.getProducts(null, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(2L, page.items().get(1).id());
+        assertEquals(2L, ProductCursor.decode(page.nextCursor()));
+    }
 
-        when(productRepository.findAll()).thenReturn(expectedProducts);
+    @Test
+    void getProducts_ShouldContinueAfterCursor() {
+        ProductResponse product = ProductResponse.from(Product.builder().id(3L).name("Test Product 3").price(25.0).build());
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(List.of(product));
 
-        List<Product> result = productService.getAllProducts();
+        ProductPage<ProductResponse> page = productService.getProducts(ProductCursor.encode(2L), 2);
 
-        assertEquals(expectedProducts.size(), result.size());
-        assertEquals(expectedProducts, result);
-        assertEquals(2, result.size());
-        assertEquals("Test Product 1", result.get(0).getName());
-        assertEquals(100.0, result.get(0).getPrice());
+        assertEquals(List.of(product), page.items());
+        assertNull(page.nextCursor());
+    }
 
-        verify(productRepository).findAll();
+    @Test
+    void getProducts_ShouldRejectInvalidCursorAndSize() {
+        assertThrows(InvalidRequestException.class, () -> productService.getProducts("not-a-cursor", 10));
+        assertThrows(InvalidRequestException.class, () -> productService.getProducts(null, 0));
+        assertThrows(InvalidRequestException.class,
+                () -> productService.getProducts(null, listingProperties.getMaxPageSize() + 1));
     }
 
     @Test
-    void getAllProducts_ShouldReturnEmptyList() {
-        when(productRepository.findAll()).thenReturn(List.of());
-        List<Product> result = productService.getAllProducts();
-        assertEquals(0, result.size());
+    void searchProducts_ShouldReturnPageAndDetectNextPage() {
+        ProductSearchCriteria criteria = new ProductSearchCriteria("phone", 10.0, 500.0, true, ProductSearchSort.PRICE_ASC, 1, 2);
+        List<ProductResponse> fetched = List.of(
+                ProductResponse.from(Product.builder().id(1L).name("Phone 1").price(100.0).build()),
+                ProductResponse.from(Product.builder().id(2L).name("Phone 2").price(200.0).build()),
+                ProductResponse.from(Product.builder().id(3L).name("Phone 3").price(300.0).build()));
+        when(productRepository.search(criteria, 3, 2)).thenReturn(fetched);
+
+        ProductSearchPage<ProductResponse> page = productService.searchProducts(criteria);
+
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasNext());
+        assertEquals(1, page.page());
+    }
+
+    @Test
+    void searchProducts_ShouldRejectInvalidCriteria() {
+        assertThrows(InvalidRequestException.class, () -> productService.searchProducts(
+                new ProductSearchCriteria(null, 50.0, 10.0, false, ProductSearchSort.RELEVANCE, 0, 20)));
+        assertThrows(InvalidRequestException.class, () -> productService.searchProducts(
+                new ProductSearchCriteria(null, null, null, false, ProductSearchSort.RELEVANCE, 0, 1000)));
+        assertThrows(InvalidRequestException.class, () -> productService.searchProducts(
+                new ProductSearchCriteria(null, null, null, false, ProductSearchSort.RELEVANCE, 100000, 100)));
     }
 
     @Test
     void getProductById_ShouldReturnProduct() {
         Long productId = 1L;
-        Product existingProduct = new Product(productId, "Test Product", 100.0);
-        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        ProductResponse existingProduct = ProductResponse.from(Product.builder().id(productId).name("Test Product").price(100.0).build());
+        when(productLookupBatcher.find(productId)).thenReturn(Optional.of(existingProduct));
 
-        Product result = productService.getProductById(productId);
+        ProductResponse result = productService.getProductById(productId);
 
         assertNotNull(result);
-        assertEquals(productId, result.getId());
-        assertEquals("Test Product", result.getName());
-        assertEquals(100.0, result.getPrice());
+        assertEquals(productId, result.id());
+        assertEquals("Test Product", result.name());
+        assertEquals(100.0, result.price());
 
-        verify(productRepository).findById(productId);
+        verify(productLookupBatcher).find(productId);
+    }
+
+    @Test
+    void getProductById_ShouldQueryRepositoryDirectly_WhenBatchingIsDisabled() {
+        lookupProperties.setBatchingEnabled(false);
+        ProductResponse existingProduct = ProductResponse.from(Product.builder().id(1L).name("Test Product").price(100.0).build());
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(existingProduct));
+
+        assertEquals("Test Product", productService.getProductById(1L).name());
+        verify(productLookupBatcher, never()).find(any());
+    }
+
+    @Test
+    void getProductsByIds_ShouldKeepRequestOrderAndSkipMissingIds() {
+        ProductResponse first = ProductResponse.from(Product.builder().id(1L).name("First").price(10.0).build());
+        ProductResponse third = ProductResponse.from(Product.builder().id(3L).name("Third").price(30.0).build());
+        List<Long> ids = List.of(3L, 2L, 1L, 3L);
+        when(productLookupBatcher.findAll(ids)).thenReturn(Map.of(1L, first, 3L, third));
+
+        List<ProductResponse> result = productService.getProductsByIds(ids);
+
+        assertEquals(List.of(third, first), result);
+    }
+
+    @Test
+    void getProductsByIds_ShouldRejectTooManyIds() {
+        lookupProperties.setMaxIds(2);
+
+        assertThrows(InvalidRequestException.class, () -> productService.getProductsByIds(List.of(1L, 2L, 3L)));
+        verify(productLookupBatcher, never()).findAll(any());
     }
 
     @Test
     void getProductById_ShouldThrowNotFoundException() {
         Long invalidProductId = 999L;
-        when(productRepository.findById(invalidProductId)).thenReturn(Optional.empty());
+        when(productLookupBatcher.find(invalidProductId)).thenReturn(Optional.empty());
 
         ProductNotFoundException exception = assertThrows(ProductNotFoundException.class, () -> productService.getProductById(invalidProductId));
 
         assertEquals("Product not found with id: " + invalidProductId, exception.getMessage());
-        verify(productRepository).findById(invalidProductId);
+        verify(productLookupBatcher).find(invalidProductId);
+        verify(productExistenceFilter).recordMiss(invalidProductId);
+    }
+
+    @Test
+    void getProductById_ShouldSkipLookup_WhenProductCannotExist() {
+        when(productExistenceFilter.mightExist(999L)).thenReturn(false);
+
+        ProductNotFoundException exception = assertThrows(ProductNotFoundException.class, () -> productService.getProductById(999L));
+
+        assertEquals("Product not found with id: 999", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+        verify(productLookupBatcher, never()).find(any());
+    }
+
+    @Test
+    void getProductsByIds_ShouldOnlyLookUpIdsThatMightExist() {
+        ProductResponse first = ProductResponse.from(Product.builder().id(1L).name("First").price(10.0).build());
+        when(productExistenceFilter.mightExist(2L)).thenReturn(false);
+        when(productLookupBatcher.findAll(List.of(1L, 3L))).thenReturn(Map.of(1L, first));
+
+        assertEquals(List.of(first), productService.getProductsByIds(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void getProductById_ShouldReadSnapshot_WhenServing() {
+        ProductResponse existingProduct = ProductResponse.from(Product.builder().id(1L).name("Test Product").price(100.0).build());
+        when(productSnapshot.isServing()).thenReturn(true);
+        when(productSnapshot.find(1L)).thenReturn(Optional.of(existingProduct));
+
+        assertEquals(existingProduct, productService.getProductById(1L));
+        verify(productLookupBatcher, never()).find(any());
+        verify(productRepository, never()).findResponseById(any());
+    }
+
+    @Test
+    void getProducts_ShouldReadSnapshot_WhenServing() {
+        ProductResponse first = ProductResponse.from(Product.builder().id(1L).name("First").price(10.0).build());
+        ProductResponse second = ProductResponse.from(Product.builder().id(2L).name("Second").price(20.0).build());
+        when(productSnapshot.isServing()).thenReturn(true);
+        when(productSnapshot.findAfter(0L, 2)).thenReturn(List.of(first, second));
+
+        ProductPage<ProductResponse> page = productService.getProducts(null, 1);
+
+        assertEquals(List.of(first), page.items());
+        assertEquals(ProductCursor.encode(1L), page.nextCursor());
+        verify(productRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
     }
 
     @Test
     void createProduct_ShouldReturnSavedProduct() {
-        Product productToSave = new Product(null, "Test Product", 100.0);
-        Product savedProduct = new Product(1L, "Test Product", 100.0);
+        Product productToSave = Product.builder().name("Test Product").price(100.0).build();
+        Product savedProduct = Product.builder().id(1L).name("Test Product").price(100.0).build();
 
         when(productRepository.save(any(Product.class))).thenReturn(savedProduct);
 
-        Product result = productService.createProduct(productToSave);
+        ProductResponse result = productService.createProduct(productToSave);
 
         assertNotNull(result);
-        assertEquals(savedProduct.getId(), result.getId());
-        assertEquals("Test Product", result.getName());
-        assertEquals(100.0, result.getPrice());
+        assertEquals(savedProduct.getId(), result.id());
+        assertEquals("Test Product", result.name());
+        assertEquals(100.0, result.price());
 
         verify(productRepository).save(productToSave);
     }
@@ -103,50 +264,88 @@ class ProductServiceImplTest {
     @Test
     void updateProduct_ShouldReturnUpdatedProduct_WhenProductExists() {
         Long validProductId = 1L;
-        Product existingProduct = new Product(validProductId, "Old Product", 50.0);
-        Product updatedProduct = new Product(validProductId, "Updated Product", 75.0);
+        Product updatedProduct = Product.builder().id(validProductId).name("Updated Product").price(75.0).build();
 
-        when(productRepository.findById(validProductId)).thenReturn(Optional.of(existingProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.updateReturning(validProductId, updatedProduct)).thenReturn(Optional.of(ProductResponse.from(updatedProduct)));
 
-        Product result = productService.updateProduct(validProductId, updatedProduct);
+        ProductResponse result = productService.updateProduct(validProductId, updatedProduct);
 
         assertNotNull(result);
-        assertEquals("Updated Product", result.getName());
-        assertEquals(75.0, result.getPrice());
+        assertEquals("Updated Product", result.name());
+        assertEquals(75.0, result.price());
 
-        verify(productRepository).save(existingProduct);
+        verify(productRepository, never()).findById(validProductId);
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
     void updateProduct_ShouldThrowNotFoundException() {
         Long invalidProductId = 999L;
-        Product updatedProduct = new Product(invalidProductId, "Updated Product", 75.0);
+        Product updatedProduct = Product.builder().id(invalidProductId).name("Updated Product").price(75.0).build();
 
-        when(productRepository.findById(invalidProductId)).thenReturn(java.util.Optional.empty());
+        when(productRepository.updateReturning(invalidProductId, updatedProduct)).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> productService.updateProduct(invalidProductId, updatedProduct));
 
         verify(productRepository, never()).save(any(Product.class));
     }
 
+    @Test
+    void updateProduct_WithVersion_ShouldFailPrecondition_WhenProductWasModified() {
+        LocalDateTime version = LocalDateTime.of(2024, 5, 1, 12, 30);
+        Product updatedProduct = Product.builder().name("Updated Product").price(75.0).build();
+        when(productRepository.updateReturning(1L, updatedProduct, version)).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> productService.updateProduct(1L, updatedProduct, version));
+    }
+
+    @Test
+    void deleteProduct_WithVersion_ShouldThrowNotFound_WhenProductIsMissing() {
+        LocalDateTime version = LocalDateTime.of(2024, 5, 1, 12, 30);
+        when(productRepository.deleteProductByIdAndUpdatedAt(1L, version)).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.deleteProduct(1L, version));
+    }
+
+    @Test
+    void patchProduct_ShouldReturnPatchedProduct() {
+        ProductPatch patch = new ProductPatch(null, null, 80.0, null);
+        ProductResponse patchedProduct = ProductResponse.from(Product.builder().id(1L).name("Test Product").price(80.0).build());
+
+        when(productRepository.patchReturning(1L, patch)).thenReturn(Optional.of(patchedProduct));
+
+        ProductResponse result = productService.patchProduct(1L, patch);
+
+        assertEquals(80.0, result.price());
+        assertEquals("Test Product", result.name());
+    }
+
+    @Test
+    void patchProduct_ShouldRejectEmptyPatch() {
+        assertThrows(InvalidRequestException.class,
+                () -> productService.patchProduct(1L, new ProductPatch(null, null, null, null)));
+
+        verify(productRepository, never()).patchReturning(any(), any());
+    }
+
     @Test
     void deleteProduct_ShouldDeleteProductById() {
         Long validProductId = 1L;
-        when(productRepository.existsById(validProductId)).thenReturn(true);
+        when(productRepository.deleteProductById(validProductId)).thenReturn(1);
 
         productService.deleteProduct(validProductId);
 
-        verify(productRepository).deleteById(validProductId);
+        verify(productRepository).deleteProductById(validProductId);
+        verify(productRepository, never()).existsById(validProductId);
     }
 
     @Test
     void deleteProduct_ShouldThrowNotFoundException() {
         Long invalidProductId = 999L;
-        when(productRepository.existsById(invalidProductId)).thenReturn(false);
+        when(productRepository.deleteProductById(invalidProductId)).thenReturn(0);
 
         assertThrows(ProductNotFoundException.class, () -> productService.deleteProduct(invalidProductId));
-
-        verify(productRepository, never()).deleteById(invalidProductId);
     }
 }
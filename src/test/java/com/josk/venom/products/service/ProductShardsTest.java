@@ -0,0 +1,174 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.datasource.ShardRing;
+import com.josk.venom.products.datasource.SnowflakeIdGenerator;
+import com.josk.venom.products.dto.ProductPage;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.dto.ProductSearchCriteria;
+import com.josk.venom.products.dto.ProductSearchSort;
+import com.josk.venom.products.model.Product;
+import com.josk.venom.products.repository.ProductRelocationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "products.sharding.enabled=true",
+        "products.sharding.worker-id=1",
+        "products.sharding.reshard-interval=PT1H",
+        "products.sharding.shards[0].name=shard-0",
+        "products.sharding.shards[0].url=" + ProductShardsTest.URL + "0" + ProductShardsTest.OPTIONS,
+        "products.sharding.shards[1].name=shard-1",
+        "products.sharding.shards[1].url=" + ProductShardsTest.URL + "1" + ProductShardsTest.OPTIONS,
+        "products.sharding.shards[2].name=shard-2",
+        "products.sharding.shards[2].url=" + ProductShardsTest.URL + "2" + ProductShardsTest.OPTIONS,
+        "products.sharding.previous-shards=shard-0,shard-1"
+})
+class ProductShardsTest {
+    static final String URL = "jdbc:h2:mem:venom-shard-";
+    static final String OPTIONS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+            + ";INIT=RUNSCRIPT FROM 'classpath:shard-schema.sql'";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductShards productShards;
+
+    @Autowired
+    private ProductResharder productResharder;
+
+    @Autowired
+    private ProductRelocationRepository productRelocationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void cleanUp() {
+        productShards.shards().forEach(shard -> productShards.onShard(shard, () -> jdbcTemplate.update("delete from products")));
+    }
+
+    @Test
+    void products_ShouldBeStoredOnTheirOwnerAndGatheredFromAllShards() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(productService.createProduct(product("Product " + i, i)).id());
+        }
+
+        Set<String> used = new HashSet<>();
+        for (Long id : ids) {
+            String owner = productShards.ownerOf(id);
+            assertEquals(1, countOn(owner, id));
+            used.add(owner);
+        }
+        assertEquals(3, used.size());
+
+        ProductPage<ProductResponse> page = productService.getProducts(null, 100);
+        assertEquals(ids.stream().sorted().toList(), page.items().stream().map(ProductResponse::id).toList());
+
+        List<ProductResponse> cheapest = productService.searchProducts(
+                new ProductSearchCriteria(null, 3.0, null, false, ProductSearchSort.PRICE_ASC, 1, 5)).items();
+        assertEquals(List.of(8.0, 9.0, 10.0, 11.0, 12.0), cheapest.stream().map(ProductResponse::price).toList());
+
+        assertEquals("Product 7", productService.getProductById(ids.get(7)).name());
+        stockService.reserve(ids.get(7), 2);
+        assertEquals(8, productService.getProductsByIds(List.of(ids.get(7))).get(0).stock());
+
+        productService.deleteProduct(ids.get(7));
+        assertEquals(0, countOn(productShards.ownerOf(ids.get(7)), ids.get(7)));
+    }
+
+    @Test
+    void reshard_ShouldMoveProductsToTheirNewOwner() {
+        ShardRing previous = new ShardRing(List.of("shard-0", "shard-1"), 128);
+        SnowflakeIdGenerator idSource = new SnowflakeIdGenerator(7);
+        List<Long> misplaced = new ArrayList<>();
+        int placed = 0;
+        while (misplaced.size() < 20 || placed < 10) {
+            long id = idSource.getAsLong();
+            String from = previous.shardOf(id);
+            if (!from.equals(productShards.ownerOf(id))) {
+                misplaced.add(id);
+            } else {
+                placed++;
+            }
+            Product product = product("Product " + id, 1);
+            product.setId(id);
+            product.setCreatedAt(LocalDateTime.now());
+            productShards.onShard(from, () -> productRelocationRepository.insertAbsent(List.of(product)));
+        }
+        double relocatedBefore = meterRegistry.counter(ProductResharder.RELOCATED_COUNTER).count();
+
+        assertEquals("Product " + misplaced.get(0), productService.getProductById(misplaced.get(0)).name());
+
+        productResharder.reshard();
+        assertEquals(misplaced.size(), productResharder.misplaced());
+        productResharder.reshard();
+
+        assertEquals(0, productResharder.misplaced());
+        assertEquals(misplaced.size(), meterRegistry.counter(ProductResharder.RELOCATED_COUNTER).count() - relocatedBefore);
+        for (Long id : misplaced) {
+            assertEquals(1, countOn(productShards.ownerOf(id), id));
+            assertEquals(0, countOn(previous.shardOf(id), id));
+        }
+        assertEquals(misplaced.size() + placed, productService.getProducts(null, 100).items().size());
+        assertTrue(productService.getProductById(misplaced.get(1)).stock() > 0);
+    }
+
+    @Test
+    void writeOnShardOf_ShouldRetryOnTheOwner_WhenTheProductMovedDuringTheWrite() {
+        ShardRing previous = new ShardRing(List.of("shard-0", "shard-1"), 128);
+        SnowflakeIdGenerator idSource = new SnowflakeIdGenerator(7);
+        long id = idSource.getAsLong();
+        while (previous.shardOf(id).equals(productShards.ownerOf(id))) {
+            id = idSource.getAsLong();
+        }
+        Product product = product("Product " + id, 1);
+        product.setId(id);
+        product.setCreatedAt(LocalDateTime.now());
+        productShards.onShard(previous.shardOf(id), () -> productRelocationRepository.insertAbsent(List.of(product)));
+        long productId = id;
+        AtomicInteger attempts = new AtomicInteger();
+
+        int updated = productShards.writeOnShardOf(productId, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                productResharder.reshard();
+            }
+            return jdbcTemplate.update("update products set stock = stock + 1 where id = ?", productId);
+        }, n -> n == 0);
+
+        assertEquals(1, updated);
+        assertEquals(2, attempts.get());
+        assertEquals(11, productService.getProductById(productId).stock());
+    }
+
+    private int countOn(String shard, Long id) {
+        return productShards.onShard(shard,
+                () -> jdbcTemplate.queryForObject("select count(*) from products where id = ?", Integer.class, id));
+    }
+
+    private static Product product(String name, double price) {
+        return Product.builder().name(name).description("Description").price(price).stock(10).build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.ShardingProperties;
+import com.josk.venom.products.datasource.SnowflakeIdGenerator;
+import com.josk.venom.products.dto.PriceBand;
+import com.josk.venom.products.dto.ProductStats;
+import com.josk.venom.products.repository.ProductStatsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStatsServiceImplTest {
+
+    @Mock
+    private ProductStatsRepository productStatsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProductStatsServiceImpl productStatsService;
+
+    private final ProductStats stats = new ProductStats(2, 100.0, 0, List.of(new PriceBand(16, 32, 2)));
+
+    @BeforeEach
+    void setUp() {
+        productStatsService = new ProductStatsServiceImpl(productStatsRepository, meterRegistry,
+                new ProductShards(null, new ShardingProperties(), transactionManager, Optional.empty()));
+    }
+
+    @Test
+    void getStats_ShouldReturnMaintainedCounters() {
+        when(productStatsRepository.findStats()).thenReturn(stats);
+
+        assertSame(stats, productStatsService.getStats());
+    }
+
+    @Test
+    void getStats_ShouldAddUpShards_WhenSharded() {
+        ShardingProperties shardingProperties = new ShardingProperties();
+        shardingProperties.setEnabled(true);
+        for (String name : List.of("a", "b")) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setName(name);
+            shardingProperties.getShards().add(shard);
+        }
+        ProductShards productShards = new ProductShards(null, shardingProperties, transactionManager,
+                Optional.of(new SnowflakeIdGenerator(0)));
+        productStatsService = new ProductStatsServiceImpl(productStatsRepository, meterRegistry, productShards);
+        when(productStatsRepository.findStats()).thenReturn(stats, new ProductStats(3, 50.0, 1, List.of(
+                new PriceBand(1, 2, 1), new PriceBand(16, 32, 2))));
+
+        ProductStats combined = productStatsService.getStats();
+
+        assertEquals(new ProductStats(5, 150.0, 1, List.of(new PriceBand(1, 2, 1), new PriceBand(16, 32, 4))), combined);
+        productShards.close();
+    }
+
+    @Test
+    void reconcileStats_ShouldRecomputeWithoutCountingDrift_WhenCountersMatch() {
+        when(productStatsRepository.lockForRecompute()).thenReturn(true);
+        when(productStatsRepository.findCorrection()).thenReturn(stats, new ProductStats(2, 100.000001, 0, stats.priceDistribution()));
+
+        productStatsService.reconcileStats();
+
+        verify(productStatsRepository).recompute();
+        assertEquals(0, meterRegistry.counter(ProductStatsServiceImpl.DRIFT_COUNTER).count());
+    }
+
+    @Test
+    void reconcileStats_ShouldCountDrift_WhenCountersDiffer() {
+        when(productStatsRepository.lockForRecompute()).thenReturn(true);
+        when(productStatsRepository.findCorrection()).thenReturn(stats, new ProductStats(3, 130.0, 0, List.of(
+                new PriceBand(16, 32, 2), new PriceBand(32, 64, 1))));
+
+        productStatsService.reconcileStats();
+
+        verify(productStatsRepository).recompute();
+        assertEquals(1, meterRegistry.counter(ProductStatsServiceImpl.DRIFT_COUNTER).count());
+    }
+
+    @Test
+    void reconcileStats_ShouldSkip_WhenAnotherInstanceIsReconciling() {
+        when(productStatsRepository.lockForRecompute()).thenReturn(false);
+
+        productStatsService.reconcileStats();
+
+        verify(productStatsRepository, never()).recompute();
+    }
+}
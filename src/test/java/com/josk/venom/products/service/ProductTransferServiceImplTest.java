@@ -0,0 +1,226 @@
+package com.josk.venom.products.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josk.venom.products.configuration.ShardingProperties;
+import com.josk.venom.products.configuration.TransferProperties;
+import com.josk.venom.products.datasource.ShardContext;
+import com.josk.venom.products.datasource.SnowflakeIdGenerator;
+import com.josk.venom.products.dto.ProductImportProgress;
+import com.josk.venom.products.dto.ProductImportRow;
+import com.josk.venom.products.dto.ProductImportStatus;
+import com.josk.venom.products.dto.ProductTransferFormat;
+import com.josk.venom.products.repository.ProductCopyRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ProductTransferServiceImplTest {
+
+    @Mock
+    private ProductCopyRepository productCopyRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductExistenceFilter productExistenceFilter;
+
+    private final TransferProperties transferProperties = new TransferProperties();
+
+    private ProductTransferServiceImpl productTransferService;
+
+    @BeforeEach
+    void setup() {
+        lenient().when(cacheManager.getCache(anyString())).thenReturn(cache);
+        lenient().when(productCopyRepository.allocateIds(anyInt()))
+                .thenAnswer(invocation -> LongStream.rangeClosed(1001, 1000 + (int) invocation.getArgument(0)).boxed().toList());
+        lenient().when(productCopyRepository.upsert(any(), any()))
+                .thenAnswer(invocation -> new ProductCopyRepository.UpsertResult(((Collection<?>) invocation.getArgument(0)).size(), 0));
+        productTransferService = new ProductTransferServiceImpl(productCopyRepository, transferProperties,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), cacheManager, transactionManager,
+                productExistenceFilter, new ProductShards(null, new ShardingProperties(), transactionManager, Optional.empty()));
+    }
+
+    @Test
+    void importProducts_ShouldUpsertInChunksAndReportProgress() {
+        transferProperties.setChunkSize(2);
+        String csv = """
+                id,name,description,price,stock
+                ,A,first,1.5,3
+                ,B,second,2,0
+
+                ,C,"multi
+                line",3,1
+                """;
+        List<ProductImportProgress> progress = new ArrayList<>();
+
+        ProductImportProgress result = productTransferService.importProducts(ProductTransferFormat.CSV,
+                new StringReader(csv), progress::add);
+
+        assertEquals(ProductImportStatus.COMPLETED, result.status());
+        assertEquals(3, result.processed());
+        assertEquals(3, result.inserted());
+        assertEquals(1, progress.size());
+        assertEquals(2, progress.get(0).inserted());
+        verify(productCopyRepository, times(2)).upsert(any(), any());
+        verify(productCopyRepository, never()).alignSequence();
+    }
+
+    @Test
+    void importProducts_ShouldRejectInvalidRowsWithTheirLine() {
+        String ndjson = """
+                {"name":"A","description":"ok","price":1,"stock":1}
+                {"name":"B","price":1,"stock":1}
+                {"name": broken
+
+                {"name":"C","description":"ok","price":"abc","stock":1}
+                {"name":"D","description":"ok","stock":1}
+                """;
+
+        ProductImportProgress result = productTransferService.importProducts(ProductTransferFormat.NDJSON,
+                new StringReader(ndjson), progress -> {
+                });
+
+        assertEquals(ProductImportStatus.COMPLETED, result.status());
+        assertEquals(5, result.processed());
+        assertEquals(1, result.inserted());
+        assertEquals(4, result.rejected());
+        assertEquals(List.of(2L, 3L, 5L, 6L), result.errors().stream().map(e -> e.line()).toList());
+        assertEquals("description: must not be null", result.errors().get(0).message());
+        assertEquals("price: must not be null", result.errors().get(3).message());
+    }
+
+    @Test
+    void importProducts_ShouldKeepLastRowPerIdAndAllocateIdsForNewRows() {
+        String ndjson = """
+                {"id":7,"name":"old","description":"d","price":1,"stock":1}
+                {"name":"new","description":"d","price":1,"stock":1}
+                {"id":7,"name":"latest","description":"d","price":2,"stock":2}
+                """;
+
+        productTransferService.importProducts(ProductTransferFormat.NDJSON, new StringReader(ndjson), progress -> {
+        });
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ProductImportRow>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(productCopyRepository).upsert(rows.capture(), any());
+        assertEquals(List.of(new ProductImportRow(7L, "latest", "d", 2.0, 2), new ProductImportRow(1001L, "new", "d", 1.0, 1)),
+                List.copyOf(rows.getValue()));
+        verify(productCopyRepository).alignSequence();
+        verify(cache).evict(7L);
+        verify(productExistenceFilter).added(1001L);
+    }
+
+    @Test
+    void importProducts_ShouldCapReportedErrors() {
+        transferProperties.setMaxReportedErrors(2);
+        String ndjson = "{\"name\":\"A\"}\n".repeat(5);
+
+        ProductImportProgress result = productTransferService.importProducts(ProductTransferFormat.NDJSON,
+                new StringReader(ndjson), progress -> {
+                });
+
+        assertEquals(5, result.rejected());
+        assertEquals(2, result.errors().size());
+    }
+
+    @Test
+    void importProducts_ShouldAbortOnBrokenCsvAndKeepCommittedChunks() {
+        transferProperties.setChunkSize(1);
+        String csv = "name,description,price,stock\nA,ok,1,1\n\"unterminated,ok,1,1\n";
+
+        ProductImportProgress result = productTransferService.importProducts(ProductTransferFormat.CSV,
+                new StringReader(csv), progress -> {
+                });
+
+        assertEquals(ProductImportStatus.ABORTED, result.status());
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.errors().size());
+    }
+
+    @Test
+    void importProducts_ShouldAbortWhenTheDatabaseFails() {
+        doThrow(new DataIntegrityViolationException("boom")).when(productCopyRepository).upsert(any(), any());
+
+        ProductImportProgress result = productTransferService.importProducts(ProductTransferFormat.NDJSON,
+                new StringReader("{\"name\":\"A\",\"description\":\"d\",\"price\":1,\"stock\":1}\n"), progress -> {
+                });
+
+        assertEquals(ProductImportStatus.ABORTED, result.status());
+        assertEquals(0, result.inserted());
+        verify(cache, never()).evict(any());
+    }
+
+    @Test
+    void importProducts_ShouldUpsertEachRowOnItsShard_WhenSharded() {
+        ShardingProperties shardingProperties = new ShardingProperties();
+        shardingProperties.setEnabled(true);
+        for (String name : List.of("a", "b")) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setName(name);
+            shardingProperties.getShards().add(shard);
+        }
+        ProductShards productShards = new ProductShards(null, shardingProperties, transactionManager,
+                Optional.of(new SnowflakeIdGenerator(0)));
+        productTransferService = new ProductTransferServiceImpl(productCopyRepository, transferProperties,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), cacheManager, transactionManager,
+                productExistenceFilter, productShards);
+        List<String> shards = new ArrayList<>();
+        doAnswer(invocation -> {
+            Collection<ProductImportRow> rows = invocation.getArgument(0);
+            String shard = ShardContext.shard();
+            assertTrue(rows.stream().allMatch(row -> productShards.ownerOf(row.id()).equals(shard)));
+            shards.add(shard);
+            return new ProductCopyRepository.UpsertResult(rows.size(), 0);
+        }).when(productCopyRepository).upsert(any(), any());
+        String ndjson = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> "{\"id\":" + id + ",\"name\":\"p\",\"description\":\"d\",\"price\":1,\"stock\":1}\n"
+                        + "{\"name\":\"new\",\"description\":\"d\",\"price\":1,\"stock\":1}\n")
+                .reduce("", String::concat);
+
+        ProductImportProgress result = productTransferService.importProducts(ProductTransferFormat.NDJSON,
+                new StringReader(ndjson), progress -> {
+                });
+
+        assertEquals(ProductImportStatus.COMPLETED, result.status());
+        assertEquals(40, result.inserted());
+        assertEquals(2, shards.size());
+        verify(productCopyRepository, never()).allocateIds(anyInt());
+        verify(productCopyRepository, never()).alignSequence();
+        verify(cache).evict(20L);
+    }
+}
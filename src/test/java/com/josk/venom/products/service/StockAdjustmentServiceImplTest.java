@@ -0,0 +1,218 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.ShardingProperties;
+import com.josk.venom.products.configuration.StockProperties;
+import com.josk.venom.products.dto.StockAdjustment;
+import com.josk.venom.products.dto.StockAdjustmentReceipt;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.exception.ProductNotFoundException;
+import com.josk.venom.products.exception.QueueFullException;
+import com.josk.venom.products.repository.ProductRepository;
+import com.josk.venom.products.repository.StockAdjustmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockAdjustmentServiceImplTest {
+
+    @Mock
+    private StockAdjustmentRepository stockAdjustmentRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private StockProperties stockProperties = new StockProperties();
+
+    @Spy
+    private ProductShards productShards = new ProductShards(null, new ShardingProperties(),
+            mock(PlatformTransactionManager.class), Optional.empty());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private StockAdjustmentServiceImpl stockAdjustmentService;
+
+    @BeforeEach
+    void setup() {
+        lenient().when(cacheManager.getCache(anyString())).thenReturn(mock(Cache.class));
+        stockProperties.getWriteBehind().setEnabled(true);
+    }
+
+    @Test
+    void adjust_ShouldQueueDeltasCoalescedPerProduct() {
+        when(productRepository.findExistingIds(any())).thenReturn(List.of(1L, 2L));
+        when(stockAdjustmentRepository.enqueue(any())).thenReturn(42L);
+
+        StockAdjustmentReceipt receipt = stockAdjustmentService.adjust(List.of(
+                new StockAdjustment(2L, 5), new StockAdjustment(1L, 3), new StockAdjustment(2L, -1),
+                new StockAdjustment(3L, 2), new StockAdjustment(3L, -2)));
+
+        assertEquals(new StockAdjustmentReceipt(42L, false), receipt);
+        verify(stockAdjustmentRepository).enqueue(new TreeMap<>(Map.of(1L, 3, 2L, 4)));
+        verify(stockAdjustmentRepository, never()).apply(any(), any());
+    }
+
+    @Test
+    void adjust_ShouldThrowNotFound_WhenProductDoesNotExist() {
+        when(productRepository.findExistingIds(any())).thenReturn(List.of(1L));
+
+        assertThrows(ProductNotFoundException.class, () -> stockAdjustmentService.adjust(List.of(
+                new StockAdjustment(1L, 3), new StockAdjustment(2L, 1))));
+        verify(stockAdjustmentRepository, never()).enqueue(any());
+    }
+
+    @Test
+    void adjust_ShouldRejectWithRetryAfter_WhenQueueIsFull() {
+        stockProperties.getWriteBehind().setMaxPending(10);
+        when(stockAdjustmentRepository.tryLockFlush()).thenReturn(false);
+        when(stockAdjustmentRepository.countPending()).thenReturn(10L);
+        stockAdjustmentService.flush();
+
+        QueueFullException exception = assertThrows(QueueFullException.class,
+                () -> stockAdjustmentService.adjust(List.of(new StockAdjustment(1L, 3))));
+
+        assertEquals(stockProperties.getWriteBehind().getRetryAfter(), exception.getRetryAfter());
+        verify(stockAdjustmentRepository, never()).enqueue(any());
+    }
+
+    @Test
+    void adjust_ShouldApplyImmediately_WhenWriteBehindIsDisabled() {
+        stockProperties.getWriteBehind().setEnabled(false);
+        when(stockAdjustmentRepository.apply(eq(new TreeMap<>(Map.of(1L, 3))), any())).thenReturn(List.of(1L));
+
+        StockAdjustmentReceipt receipt = stockAdjustmentService.adjust(List.of(new StockAdjustment(1L, 3)));
+
+        assertTrue(receipt.flushed());
+        verify(stockAdjustmentRepository, never()).enqueue(any());
+    }
+
+    @Test
+    void adjust_ShouldRejectDeltasOutOfBounds() {
+        assertThrows(InvalidRequestException.class, () -> stockAdjustmentService.adjust(List.of(
+                new StockAdjustment(1L, 600_000), new StockAdjustment(1L, 600_000))));
+        assertThrows(InvalidRequestException.class, () -> stockAdjustmentService.adjust(List.of(
+                new StockAdjustment(1L, Integer.MAX_VALUE), new StockAdjustment(1L, 1))));
+        verify(stockAdjustmentRepository, never()).enqueue(any());
+    }
+
+    @Test
+    void adjust_ShouldRejectEmptyAdjustments() {
+        assertThrows(InvalidRequestException.class, () -> stockAdjustmentService.adjust(List.of()));
+    }
+
+    @Test
+    void flush_ShouldApplyQueuedAdjustmentsCoalescedPerProduct() {
+        when(stockAdjustmentRepository.tryLockFlush()).thenReturn(true);
+        when(stockAdjustmentRepository.takeBatch(stockProperties.getWriteBehind().getBatchSize())).thenReturn(List.of(
+                new StockAdjustment(5L, 2), new StockAdjustment(3L, -1), new StockAdjustment(5L, 4), new StockAdjustment(7L, 1),
+                new StockAdjustment(7L, -1)));
+        when(stockAdjustmentRepository.apply(any(), any())).thenReturn(List.of(3L, 5L));
+
+        stockAdjustmentService.flush();
+
+        verify(stockAdjustmentRepository).apply(eq(new TreeMap<>(Map.of(3L, -1, 5L, 6))), any());
+        verify(cacheManager.getCache(anyString())).evict(3L);
+        verify(cacheManager.getCache(anyString())).evict(5L);
+    }
+
+    @Test
+    void flush_ShouldApplyAdjustmentsOneByOne_WhenBatchIsRejected() {
+        when(stockAdjustmentRepository.tryLockFlush()).thenReturn(true);
+        when(stockAdjustmentRepository.takeBatch(anyInt())).thenReturn(List.of(
+                new StockAdjustment(3L, 1), new StockAdjustment(5L, 2)));
+        when(stockAdjustmentRepository.apply(any(), any())).thenThrow(new DataIntegrityViolationException("integer out of range"));
+        when(stockAdjustmentRepository.applyEach(eq(new TreeMap<>(Map.of(3L, 1, 5L, 2))), any())).thenReturn(List.of(3L));
+
+        stockAdjustmentService.flush();
+
+        verify(stockAdjustmentRepository, times(2)).takeBatch(anyInt());
+        verify(cacheManager.getCache(anyString())).evict(3L);
+        verify(cacheManager.getCache(anyString()), never()).evict(5L);
+        assertEquals(1, meterRegistry.counter(StockAdjustmentServiceImpl.DROPPED_COUNTER).count());
+    }
+
+    @Test
+    void flush_ShouldDropSumsThatOverflow() {
+        when(stockAdjustmentRepository.tryLockFlush()).thenReturn(true);
+        when(stockAdjustmentRepository.takeBatch(anyInt())).thenReturn(List.of(
+                new StockAdjustment(1L, Integer.MAX_VALUE), new StockAdjustment(2L, 3), new StockAdjustment(1L, 1)));
+        when(stockAdjustmentRepository.apply(any(), any())).thenReturn(List.of(2L));
+
+        stockAdjustmentService.flush();
+
+        verify(stockAdjustmentRepository).apply(eq(new TreeMap<>(Map.of(2L, 3))), any());
+        assertEquals(1, meterRegistry.counter(StockAdjustmentServiceImpl.DROPPED_COUNTER).count());
+    }
+
+    @Test
+    void flush_ShouldEvictAfterCommit() {
+        when(stockAdjustmentRepository.tryLockFlush()).thenReturn(true);
+        when(stockAdjustmentRepository.takeBatch(anyInt())).thenReturn(List.of(new StockAdjustment(3L, 1)));
+        when(stockAdjustmentRepository.apply(any(), any())).thenReturn(List.of(3L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockAdjustmentService.flush();
+            verify(cacheManager.getCache(anyString()), never()).evict(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(cacheManager.getCache(anyString())).evict(3L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void flush_ShouldSkip_WhenAnotherInstanceIsFlushing() {
+        when(stockAdjustmentRepository.tryLockFlush()).thenReturn(false);
+
+        stockAdjustmentService.flush();
+
+        verify(stockAdjustmentRepository, never()).takeBatch(anyInt());
+    }
+
+    @Test
+    void getStatus_ShouldReportFlushed_OnceNoEarlierAdjustmentIsQueued() {
+        when(stockAdjustmentRepository.firstPendingPosition()).thenReturn(10L);
+
+        assertTrue(stockAdjustmentService.getStatus(9L).flushed());
+        assertFalse(stockAdjustmentService.getStatus(10L).flushed());
+    }
+}
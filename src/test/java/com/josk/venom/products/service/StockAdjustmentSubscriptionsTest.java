@@ -0,0 +1,67 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.StockProperties;
+import com.josk.venom.products.dto.StockAdjustmentReceipt;
+import com.josk.venom.products.repository.StockAdjustmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockAdjustmentSubscriptionsTest {
+
+    @Mock
+    private StockAdjustmentService stockAdjustmentService;
+
+    @Mock
+    private StockAdjustmentRepository stockAdjustmentRepository;
+
+    private StockAdjustmentSubscriptions subscriptions;
+
+    @BeforeEach
+    void setUp() {
+        subscriptions = new StockAdjustmentSubscriptions(stockAdjustmentService, stockAdjustmentRepository, new StockProperties());
+    }
+
+    @Test
+    void await_ShouldCompleteImmediately_WhenAlreadyFlushed() {
+        when(stockAdjustmentService.getStatus(5L)).thenReturn(new StockAdjustmentReceipt(5L, true));
+
+        DeferredResult<StockAdjustmentReceipt> result = subscriptions.await(5L, Duration.ofSeconds(30));
+
+        assertEquals(new StockAdjustmentReceipt(5L, true), result.getResult());
+        assertEquals(0, subscriptions.activeWaiters());
+    }
+
+    @Test
+    void poll_ShouldCompleteWaiters_OnceTheirAdjustmentsAreFlushed() {
+        when(stockAdjustmentService.getStatus(5L)).thenReturn(new StockAdjustmentReceipt(5L, false));
+        when(stockAdjustmentService.getStatus(9L)).thenReturn(new StockAdjustmentReceipt(9L, false));
+        DeferredResult<StockAdjustmentReceipt> first = subscriptions.await(5L, Duration.ofSeconds(30));
+        DeferredResult<StockAdjustmentReceipt> second = subscriptions.await(9L, Duration.ofSeconds(30));
+        when(stockAdjustmentRepository.firstPendingPosition()).thenReturn(7L);
+
+        subscriptions.poll();
+
+        assertEquals(new StockAdjustmentReceipt(5L, true), first.getResult());
+        assertFalse(second.hasResult());
+    }
+
+    @Test
+    void poll_ShouldNotQuery_WithoutWaiters() {
+        subscriptions.poll();
+
+        verify(stockAdjustmentRepository, never()).firstPendingPosition();
+    }
+}
@@ -0,0 +1,103 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.StockProperties;
+import com.josk.venom.products.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockReservationCombinerTest {
+
+    @Test
+    void reserve_ShouldNeverOversellUnderContention() throws Exception {
+        AtomicInteger stock = new AtomicInteger(30);
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.reserveStock(eq(1L), anyInt(), any())).thenAnswer(invocation -> {
+            int quantity = invocation.getArgument(1);
+            int current;
+            do {
+                current = stock.get();
+                if (current < quantity) {
+                    return 0;
+                }
+            } while (!stock.compareAndSet(current, current - quantity));
+            return 1;
+        });
+        StockReservationCombiner combiner = new StockReservationCombiner(productRepository, new StockProperties());
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                tasks.add(() -> combiner.reserve(1L, 1));
+            }
+            int reserved = 0;
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (result.get()) {
+                    reserved++;
+                }
+            }
+
+            assertEquals(30, reserved);
+            assertEquals(0, stock.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reserve_ShouldFailEveryDrainedReservationWhenUpdateThrows() throws Exception {
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("Connection lost");
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.reserveStock(eq(1L), anyInt(), any())).thenAnswer(invocation -> {
+            Thread.sleep(1);
+            throw failure;
+        });
+        StockReservationCombiner combiner = new StockReservationCombiner(productRepository, new StockProperties());
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> combiner.reserve(1L, 1)));
+            }
+            for (Future<Boolean> result : results) {
+                ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(DataAccessResourceFailureException.class, thrown.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reserve_ShouldRecoverAfterFailedUpdate() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.reserveStock(eq(1L), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"))
+                .thenReturn(1);
+        StockReservationCombiner combiner = new StockReservationCombiner(productRepository, new StockProperties());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> combiner.reserve(1L, 1));
+        assertTrue(combiner.reserve(1L, 1));
+    }
+}
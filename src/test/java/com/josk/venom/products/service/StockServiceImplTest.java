@@ -0,0 +1,167 @@
+package com.josk.venom.products.service;
+
+import com.josk.venom.products.configuration.ShardingProperties;
+import com.josk.venom.products.configuration.StockProperties;
+import com.josk.venom.products.datasource.SnowflakeIdGenerator;
+import com.josk.venom.products.dto.StockItem;
+import com.josk.venom.products.exception.InsufficientStockException;
+import com.josk.venom.products.exception.InvalidRequestException;
+import com.josk.venom.products.exception.ProductNotFoundException;
+import com.josk.venom.products.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockReservationCombiner stockReservationCombiner;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private StockProperties stockProperties = new StockProperties();
+
+    @Spy
+    private ProductShards productShards = new ProductShards(null, new ShardingProperties(),
+            mock(PlatformTransactionManager.class), Optional.empty());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private StockServiceImpl stockService;
+
+    @BeforeEach
+    void setup() {
+        lenient().when(cacheManager.getCache(anyString())).thenReturn(mock(Cache.class));
+    }
+
+    @Test
+    void reserve_ShouldGoThroughCombiner() {
+        when(stockReservationCombiner.reserve(1L, 2)).thenReturn(true);
+
+        stockService.reserve(1L, 2);
+
+        verify(stockReservationCombiner).reserve(1L, 2);
+    }
+
+    @Test
+    void reserve_ShouldThrowInsufficientStock_WhenProductExists() {
+        when(stockReservationCombiner.reserve(1L, 2)).thenReturn(false);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class, () -> stockService.reserve(1L, 2));
+    }
+
+    @Test
+    void reserve_ShouldThrowNotFound_WhenProductDoesNotExist() {
+        when(stockReservationCombiner.reserve(1L, 2)).thenReturn(false);
+        when(productRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ProductNotFoundException.class, () -> stockService.reserve(1L, 2));
+    }
+
+    @Test
+    void reserve_ShouldRejectNonPositiveQuantity() {
+        assertThrows(InvalidRequestException.class, () -> stockService.reserve(1L, 0));
+    }
+
+    @Test
+    void reserveAll_ShouldMergeItemsAndUpdateInIdOrder() {
+        when(productRepository.reserveStock(anyLong(), anyInt(), any())).thenReturn(1);
+
+        stockService.reserveAll(List.of(new StockItem(3L, 1), new StockItem(1L, 2), new StockItem(3L, 4)));
+
+        InOrder order = inOrder(productRepository);
+        order.verify(productRepository).reserveStock(eq(1L), eq(2), any());
+        order.verify(productRepository).reserveStock(eq(3L), eq(5), any());
+    }
+
+    @Test
+    void reserveAll_ShouldStopAtFirstFailedItem() {
+        when(productRepository.reserveStock(eq(1L), anyInt(), any())).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class,
+                () -> stockService.reserveAll(List.of(new StockItem(2L, 1), new StockItem(1L, 1))));
+
+        verify(productRepository, never()).reserveStock(eq(2L), anyInt(), any());
+    }
+
+    @Test
+    void reserveAll_ShouldReleaseEveryReservedItem_WhenOneReleaseFails() {
+        ProductShards sharded = shardedProductShards();
+        stockService = new StockServiceImpl(productRepository, stockReservationCombiner, stockProperties, cacheManager,
+                sharded, meterRegistry);
+        long first = 1L;
+        long second = nextId(sharded, first, true);
+        long other = nextId(sharded, second, false);
+        when(productRepository.reserveStock(anyLong(), anyInt(), any())).thenReturn(1);
+        when(productRepository.reserveStock(eq(other), anyInt(), any())).thenReturn(0);
+        when(productRepository.existsById(other)).thenReturn(true);
+        when(productRepository.releaseStock(eq(first), anyInt(), any())).thenReturn(0);
+        when(productRepository.releaseStock(eq(second), anyInt(), any())).thenReturn(1);
+
+        InsufficientStockException failure = assertThrows(InsufficientStockException.class, () -> stockService.reserveAll(
+                List.of(new StockItem(first, 2), new StockItem(second, 3), new StockItem(other, 1))));
+
+        verify(productRepository).releaseStock(eq(second), eq(3), any());
+        assertEquals(1, failure.getSuppressed().length);
+        assertInstanceOf(ProductNotFoundException.class, failure.getSuppressed()[0]);
+        assertEquals(2.0, meterRegistry.counter(StockServiceImpl.LEAKED_COUNTER).count());
+    }
+
+    private long nextId(ProductShards shards, long after, boolean sameShard) {
+        long id = after + 1;
+        while (shards.ownerOf(id).equals(shards.ownerOf(after)) != sameShard) {
+            id++;
+        }
+        return id;
+    }
+
+    private ProductShards shardedProductShards() {
+        ShardingProperties shardingProperties = new ShardingProperties();
+        shardingProperties.setEnabled(true);
+        for (String name : List.of("a", "b")) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setName(name);
+            shardingProperties.getShards().add(shard);
+        }
+        return new ProductShards(null, shardingProperties, mock(PlatformTransactionManager.class),
+                Optional.of(new SnowflakeIdGenerator(0)));
+    }
+}
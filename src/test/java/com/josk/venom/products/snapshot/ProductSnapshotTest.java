@@ -0,0 +1,199 @@
+package com.josk.venom.products.snapshot;
+
+import com.josk.venom.products.configuration.ChangeFeedProperties;
+import com.josk.venom.products.configuration.SnapshotProperties;
+import com.josk.venom.products.dto.ProductChange;
+import com.josk.venom.products.dto.ProductChangeType;
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.repository.ProductChangeRepository;
+import com.josk.venom.products.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSnapshotTest {
+    private static final ProductResponse FIRST = product(1L, "First");
+    private static final ProductResponse SECOND = product(2L, "Second");
+    private static final ProductResponse THIRD = product(3L, "Third");
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private final SnapshotProperties properties = new SnapshotProperties();
+
+    private ProductSnapshot productSnapshot;
+
+    @BeforeEach
+    void setup() {
+        properties.setEnabled(true);
+        properties.setFile(directory.resolve("products.snapshot"));
+        productSnapshot = newSnapshot();
+        lenient().when(productChangeRepository.currentXmin()).thenReturn(100L);
+        lenient().when(productChangeRepository.findAfter(anyLong(), anyLong(), anyInt())).thenReturn(List.of());
+        lenient().doAnswer(invocation -> {
+            Consumer<ProductResponse> consumer = invocation.getArgument(1);
+            consumer.accept(FIRST);
+            consumer.accept(SECOND);
+            consumer.accept(THIRD);
+            return null;
+        }).when(productRepository).streamAll(anyInt(), any());
+    }
+
+    @Test
+    void load_ShouldServeScannedProductsAndChangesSinceTheScan() throws IOException {
+        ProductResponse updated = product(2L, "Second, updated");
+        when(productChangeRepository.findAfter(99L, Long.MAX_VALUE, 1_000)).thenReturn(List.of(
+                new ProductChange(100L, 1L, 2L, ProductChangeType.UPDATED, updated),
+                new ProductChange(100L, 2L, 3L, ProductChangeType.DELETED, null)));
+
+        productSnapshot.load();
+
+        assertTrue(productSnapshot.isServing());
+        assertEquals(Optional.of(FIRST), productSnapshot.find(1L));
+        assertEquals(Optional.of(updated), productSnapshot.find(2L));
+        assertEquals(Optional.empty(), productSnapshot.find(3L));
+        assertEquals(List.of(FIRST, updated), productSnapshot.findAfter(0L, 10));
+        assertEquals(List.of(updated), productSnapshot.findAfter(1L, 10));
+    }
+
+    @Test
+    void findAfter_ShouldMergeLocalWritesIntoTheFile() throws IOException {
+        productSnapshot.load();
+        ProductResponse created = product(5L, "Fifth");
+
+        productSnapshot.put(created);
+        productSnapshot.remove(1L);
+
+        assertEquals(List.of(SECOND, THIRD), productSnapshot.findAfter(0L, 2));
+        assertEquals(List.of(THIRD, created), productSnapshot.findAfter(2L, 10));
+        assertEquals(Optional.empty(), productSnapshot.find(1L));
+    }
+
+    @Test
+    void refresh_ShouldCompactChangesIntoANewFile() throws IOException {
+        properties.setCompactThreshold(2);
+        productSnapshot.load();
+        ProductResponse created = product(4L, "Fourth");
+        when(productChangeRepository.findAfter(99L, Long.MAX_VALUE, 1_000)).thenReturn(List.of(
+                new ProductChange(120L, 1L, 4L, ProductChangeType.CREATED, created),
+                new ProductChange(120L, 2L, 1L, ProductChangeType.DELETED, null)));
+
+        productSnapshot.refresh();
+
+        SnapshotFile file = SnapshotFile.open(properties.getFile());
+        assertEquals(3, file.size());
+        assertEquals(120L, file.cursor().txId());
+        assertEquals(List.of(SECOND, THIRD, created), productSnapshot.findAfter(0L, 10));
+    }
+
+    @Test
+    void refresh_ShouldKeepFrozenChanges_WhenCompactionFails() throws IOException {
+        properties.setCompactThreshold(2);
+        productSnapshot.load();
+        ProductResponse created = product(4L, "Fourth");
+        ProductResponse fifth = product(5L, "Fifth");
+        ProductResponse sixth = product(6L, "Sixth");
+        when(productChangeRepository.findAfter(99L, Long.MAX_VALUE, 1_000)).thenReturn(List.of(
+                new ProductChange(120L, 1L, 4L, ProductChangeType.CREATED, created),
+                new ProductChange(120L, 2L, 1L, ProductChangeType.DELETED, null)));
+        when(productChangeRepository.findAfter(120L, 2L, 1_000)).thenReturn(List.of(
+                new ProductChange(121L, 3L, 5L, ProductChangeType.CREATED, fifth),
+                new ProductChange(121L, 4L, 6L, ProductChangeType.CREATED, sixth)));
+        Path file = properties.getFile();
+        properties.setFile(Files.createFile(directory.resolve("not-a-directory")).resolve("products.snapshot"));
+
+        assertThrows(IOException.class, productSnapshot::refresh);
+        assertEquals(List.of(SECOND, THIRD, created), productSnapshot.findAfter(0L, 10));
+
+        properties.setFile(file);
+        productSnapshot.refresh();
+
+        assertEquals(5, SnapshotFile.open(file).size());
+        assertEquals(List.of(SECOND, THIRD, created, fifth, sixth), productSnapshot.findAfter(0L, 10));
+        assertEquals(Optional.empty(), productSnapshot.find(1L));
+    }
+
+    @Test
+    void load_ShouldReuseARecentFileWithoutScanning() throws IOException {
+        productSnapshot.load();
+        ProductSnapshot restarted = newSnapshot();
+
+        restarted.load();
+
+        verify(productRepository).streamAll(anyInt(), any());
+        verify(productChangeRepository, times(2)).findAfter(eq(99L), eq(Long.MAX_VALUE), anyInt());
+        assertEquals(List.of(FIRST, SECOND, THIRD), restarted.findAfter(0L, 10));
+    }
+
+    @Test
+    void load_ShouldServeTheFile_WhenTheDatabaseIsDown() throws IOException {
+        productSnapshot.load();
+        when(productChangeRepository.findAfter(anyLong(), anyLong(), anyInt()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        ProductSnapshot restarted = newSnapshot();
+
+        restarted.load();
+
+        assertTrue(restarted.isServing());
+        assertEquals(Optional.of(THIRD), restarted.find(3L));
+    }
+
+    @Test
+    void load_ShouldDoNothing_WhenDisabled() throws IOException {
+        properties.setEnabled(false);
+
+        productSnapshot.load();
+
+        assertFalse(productSnapshot.isServing());
+        verifyNoInteractions(productRepository, productChangeRepository);
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    private ProductSnapshot newSnapshot() {
+        return new ProductSnapshot(productRepository, productChangeRepository, transactionManager, properties,
+                new ChangeFeedProperties(), new SimpleMeterRegistry());
+    }
+
+    private static ProductResponse product(long id, String name) {
+        return new ProductResponse(id, name, name + " description", id * 10.0, (int) id, null, null);
+    }
+}
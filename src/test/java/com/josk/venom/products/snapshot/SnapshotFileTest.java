@@ -0,0 +1,67 @@
+package com.josk.venom.products.snapshot;
+
+import com.josk.venom.products.dto.ProductResponse;
+import com.josk.venom.products.service.ChangeFeedCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotFileTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void finish_ShouldWriteProductsThatCanBeFoundById() throws IOException {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+        ProductResponse first = new ProductResponse(3L, "Lamp", "Desk lamp", 19.99, 4, createdAt, createdAt.plusDays(1));
+        ProductResponse second = new ProductResponse(7L, "Lamp", "Łamp with ünïcode", 5.0, 0, null, null);
+        Path target = directory.resolve("products.snapshot");
+
+        SnapshotFile file;
+        try (SnapshotWriter writer = SnapshotWriter.create(target)) {
+            writer.write(first);
+            writer.write(second);
+            file = writer.finish(new ChangeFeedCursor(41L, 2L));
+        }
+
+        assertEquals(2, file.size());
+        assertEquals(new ChangeFeedCursor(41L, 2L), file.cursor());
+        assertEquals(first, file.find(3L));
+        assertEquals(second, file.find(7L));
+        assertNull(file.find(5L));
+        assertNull(file.find(8L));
+        assertEquals(0, file.indexAfter(1L));
+        assertEquals(1, file.indexAfter(3L));
+        assertEquals(2, file.indexAfter(7L));
+        assertEquals(first, SnapshotFile.open(target).read(0));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void write_ShouldRejectProductsOutOfIdOrder() throws IOException {
+        try (SnapshotWriter writer = SnapshotWriter.create(directory.resolve("products.snapshot"))) {
+            writer.write(new ProductResponse(2L, "B", "B", 1.0, 1, null, null));
+
+            assertThrows(IllegalStateException.class,
+                    () -> writer.write(new ProductResponse(1L, "A", "A", 1.0, 1, null, null)));
+        }
+    }
+
+    @Test
+    void open_ShouldRejectOtherFiles() throws IOException {
+        Path other = Files.write(directory.resolve("other"), new byte[SnapshotFile.HEADER_SIZE]);
+
+        assertThrows(IOException.class, () -> SnapshotFile.open(other));
+    }
+}
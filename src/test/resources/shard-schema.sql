@@ -0,0 +1,11 @@
+create sequence if not exists products_seq start with 1 increment by 50;
+
+create table if not exists products (
+    id          bigint           not null primary key,
+    name        varchar(255)     not null,
+    description varchar(255)     not null,
+    price       double precision not null,
+    stock       integer          not null,
+    created_at  timestamp(6),
+    updated_at  timestamp(6)
+);